@@ -0,0 +1,118 @@
+package com.TripFinder.component;
+
+import com.TripFinder.config.CacheConfig;
+import com.TripFinder.dto.TravelOffer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Chooses how long a freshly loaded search result stays fresh. Fares close to the travel date
+ * move much more than fares months out, so the TTL grows with the days until departure or
+ * check-in (see {@link CacheConfig.AdaptiveTtl}). It is then shortened for keys whose lowest
+ * price changed on recent refreshes, tracked as an exponential moving average per cache key.
+ */
+@Component
+public class AdaptiveTtlPolicy {
+
+    // A refresh counts as a price change when the lowest price moved by more than this fraction
+    private static final double PRICE_CHANGE_THRESHOLD = 0.005;
+
+    // Weight of the latest refresh in the volatility average
+    private static final double VOLATILITY_ALPHA = 0.3;
+
+    // Share of the date-based TTL kept by a key whose price changes on every refresh
+    private static final double MIN_VOLATILITY_FACTOR = 0.25;
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    // Outlives the cached results themselves, so history survives expiry and eviction
+    private final Cache<String, PriceHistory> priceHistory = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterAccess(Duration.ofDays(2))
+            .build();
+
+    /**
+     * Record a refresh of the key and choose its soft TTL
+     *
+     * @param cacheName cache the results belong to
+     * @param key canonical search key
+     * @param results freshly loaded results
+     * @return soft TTL, or null if the cache does not use adaptive TTLs
+     */
+    public Duration freshFor(String cacheName, String key, List<?> results) {
+        CacheConfig.CacheSpec spec = cacheConfig.getCaches().get(cacheName);
+        if (spec == null || !spec.getAdaptiveTtl().isEnabled()) {
+            return null;
+        }
+
+        LocalDate travelDate = null;
+        Double lowestPrice = null;
+        for (Object result : results) {
+            if (result instanceof TravelOffer offer) {
+                LocalDate date = offer.travelDate();
+                if (date != null && (travelDate == null || date.isBefore(travelDate))) {
+                    travelDate = date;
+                }
+                Double price = offer.offerPrice();
+                if (price != null && (lowestPrice == null || price < lowestPrice)) {
+                    lowestPrice = price;
+                }
+            }
+        }
+
+        double volatility = recordLowestPrice(cacheName + ':' + key, lowestPrice);
+        return ttlFor(spec.getAdaptiveTtl(), travelDate, volatility, LocalDate.now());
+    }
+
+    /**
+     * Soft TTL for the travel date and price volatility
+     *
+     * @param settings TTL bounds of the cache
+     * @param travelDate earliest travel date of the results, or null if unknown
+     * @param volatility share of recent refreshes that changed the price, 0 to 1
+     * @param today current date
+     * @return soft TTL between {@code minTtl} and {@code maxTtl}
+     */
+    Duration ttlFor(CacheConfig.AdaptiveTtl settings, LocalDate travelDate, double volatility, LocalDate today) {
+        long minMillis = settings.getMinTtl().toMillis();
+        long maxMillis = Math.max(minMillis, settings.getMaxTtl().toMillis());
+
+        // Unknown dates get the middle of the range
+        double proximity = 0.5;
+        if (travelDate != null) {
+            double days = ChronoUnit.DAYS.between(today, travelDate);
+            proximity = Math.min(1.0, Math.max(0.0, days / Math.max(1, settings.getHorizon().toDays())));
+        }
+
+        double ttl = (minMillis + (maxMillis - minMillis) * proximity)
+                * (1.0 - (1.0 - MIN_VOLATILITY_FACTOR) * volatility);
+        return Duration.ofMillis(Math.max(minMillis, Math.round(ttl)));
+    }
+
+    private double recordLowestPrice(String historyKey, Double lowestPrice) {
+        if (lowestPrice == null) {
+            PriceHistory history = priceHistory.getIfPresent(historyKey);
+            return history != null ? history.volatility() : 0.0;
+        }
+
+        PriceHistory updated = priceHistory.asMap().compute(historyKey, (k, previous) ->
+                previous == null ? new PriceHistory(lowestPrice, 0.0) : previous.next(lowestPrice));
+        return updated.volatility();
+    }
+
+    private record PriceHistory(double lowestPrice, double volatility) {
+
+        PriceHistory next(double price) {
+            boolean changed = Math.abs(price - lowestPrice) > lowestPrice * PRICE_CHANGE_THRESHOLD;
+            return new PriceHistory(price, VOLATILITY_ALPHA * (changed ? 1.0 : 0.0) + (1.0 - VOLATILITY_ALPHA) * volatility);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.TripFinder.component;
+
+import com.TripFinder.dto.FlightResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Non-blocking Amadeus API client shared by the flight and hotel services.
+ * Every call takes a permit from {@link AmadeusRateLimiter} (waiting on a timer, not a thread),
+ * attaches the bearer token from {@link AmadeusTokenManager} and drops that token when the API
+ * answers 401. Nothing blocks until a caller chooses to, so concurrent searches only occupy
+ * event-loop threads while responses are actually being processed.
+ */
+@Component
+public class AmadeusClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmadeusClient.class);
+
+    @Autowired
+    private WebClient webClient;
+
+    @Autowired
+    private AmadeusTokenManager amadeusTokenManager;
+
+    @Autowired
+    private AmadeusRateLimiter amadeusRateLimiter;
+
+    @Autowired
+    private AmadeusFlightOfferParser flightOfferParser;
+
+    /**
+     * Fetch flight offers (search or single-offer lookup)
+     *
+     * @param url fully built flight-offers URL
+     * @return parsed offers, empty if the response has no data
+     */
+    public Mono<List<FlightResponse>> getFlightOffers(String url) {
+        return authorizedGet(url, response -> DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+                .map(this::parseFlightOffers))
+                .defaultIfEmpty(Collections.emptyList());
+    }
+
+    /**
+     * Fetch the hotel list for a city ({@code /v1/reference-data/locations/hotels/by-city})
+     *
+     * @param url fully built hotels-by-city URL
+     * @return raw response body
+     */
+    public Mono<JsonNode> getHotelsByCity(String url) {
+        return authorizedGet(url, response -> response.bodyToMono(JsonNode.class));
+    }
+
+    /**
+     * Fetch hotel offers ({@code /v3/shopping/hotel-offers}, list or single offer)
+     *
+     * @param url fully built hotel-offers URL
+     * @return raw response body
+     */
+    public Mono<JsonNode> getHotelOffers(String url) {
+        return authorizedGet(url, response -> response.bodyToMono(JsonNode.class));
+    }
+
+    private <T> Mono<T> authorizedGet(String url, Function<WebClient.ResponseSpec, Mono<T>> bodyReader) {
+        return amadeusRateLimiter.acquire()
+                .then(Mono.defer(amadeusTokenManager::accessToken))
+                .flatMap(accessToken -> bodyReader.apply(webClient.get()
+                        .uri(url)
+                        .headers(headers -> headers.setBearerAuth(accessToken))
+                        .retrieve()))
+                .doOnError(WebClientResponseException.Unauthorized.class, e -> {
+                    // Token was revoked or expired early; make the next call fetch a new one
+                    logger.warn("Amadeus rejected access token for {}", url);
+                    amadeusTokenManager.invalidate();
+                });
+    }
+
+    private List<FlightResponse> parseFlightOffers(DataBuffer body) {
+        // Releases the pooled buffer once the parser has consumed it
+        try (InputStream stream = body.asInputStream(true)) {
+            return flightOfferParser.parseOffers(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse flight offers", e);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.TripFinder.component;
+
+import com.TripFinder.dto.FlightResponse;
+import com.TripFinder.util.StringInterner;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Token-level decoder for Amadeus flight-offer responses.
+ * Builds {@link FlightResponse}, itinerary and segment objects straight from the wire stream
+ * instead of materializing a {@code JsonNode} tree, skips every field the API does not expose
+ * (travelerPricings, dictionaries, meta, ...) without decoding it, and interns repeated IATA,
+ * carrier and aircraft codes.
+ * <p>
+ * Output matches the former tree parser: missing string fields become {@code ""}, missing
+ * numbers become 0 and segments without a valid departure/arrival time are dropped.
+ * Each offer's primitive sort keys are derived once here (see {@link FlightResponse#computeSortKeys()}).
+ */
+@Component
+public class AmadeusFlightOfferParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmadeusFlightOfferParser.class);
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final StringInterner codes = new StringInterner(4096);
+
+    /**
+     * Parse a flight-offers search response ({@code {"data": [...]}}) or a single-offer response
+     * ({@code {"data": {...}}})
+     *
+     * @param body response body; not closed by this method
+     * @return parsed offers, in response order
+     */
+    public List<FlightResponse> parseOffers(InputStream body) throws IOException {
+        if (body == null) {
+            return Collections.emptyList();
+        }
+
+        List<FlightResponse> offers = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return offers;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        offers.add(readOffer(parser));
+                    }
+                } else if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    offers.add(readOffer(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return offers;
+    }
+
+    private FlightResponse readOffer(JsonParser parser) throws IOException {
+        FlightResponse.FlightResponseBuilder builder = FlightResponse.builder()
+                .id("")
+                .price(0.0)
+                .currency("")
+                .numberOfBookableSeats(0)
+                .validatingAirlineCodes("")
+                .itineraries(new ArrayList<>());
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "id" -> builder.id(scalarText(parser));
+                case "numberOfBookableSeats" -> builder.numberOfBookableSeats(parser.getValueAsInt(0));
+                case "validatingAirlineCodes" -> builder.validatingAirlineCodes(readCodeArray(parser));
+                case "price" -> readPrice(parser, builder);
+                case "itineraries" -> builder.itineraries(readItineraries(parser));
+                default -> parser.skipChildren();
+            }
+        }
+
+        return builder.build().computeSortKeys();
+    }
+
+    private void readPrice(JsonParser parser, FlightResponse.FlightResponseBuilder builder) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "grandTotal" -> builder.price(parser.getValueAsDouble(0.0));
+                case "currency" -> builder.currency(internText(parser));
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Render a code array exactly like {@code JsonNode#toString()} did, e.g. {@code ["AA","BA"]}
+     */
+    private String readCodeArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return "";
+        }
+
+        StringBuilder codesJson = new StringBuilder(8).append('[');
+        boolean first = true;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (!first) {
+                codesJson.append(',');
+            }
+            codesJson.append('"').append(parser.getText()).append('"');
+            first = false;
+        }
+        return codes.intern(codesJson.append(']').toString());
+    }
+
+    private List<FlightResponse.Itinerary> readItineraries(JsonParser parser) throws IOException {
+        List<FlightResponse.Itinerary> itineraries = new ArrayList<>(2);
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return itineraries;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String duration = "";
+            List<FlightResponse.Segment> segments = new ArrayList<>(2);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case "duration" -> duration = internText(parser);
+                    case "segments" -> readSegments(parser, segments);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            itineraries.add(FlightResponse.Itinerary.builder()
+                    .duration(duration)
+                    .segments(segments)
+                    .build());
+        }
+
+        return itineraries;
+    }
+
+    private void readSegments(JsonParser parser, List<FlightResponse.Segment> segments) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            FlightResponse.Segment segment = readSegment(parser);
+            if (segment != null) {
+                segments.add(segment);
+            }
+        }
+    }
+
+    private FlightResponse.Segment readSegment(JsonParser parser) throws IOException {
+        Endpoint departure = null;
+        Endpoint arrival = null;
+        String carrierCode = "";
+        String number = "";
+        String aircraftCode = "";
+        String duration = "";
+        String id = "";
+        int numberOfStops = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "departure" -> departure = readEndpoint(parser);
+                case "arrival" -> arrival = readEndpoint(parser);
+                case "carrierCode" -> carrierCode = internText(parser);
+                case "number" -> number = scalarText(parser);
+                case "aircraft" -> aircraftCode = readAircraftCode(parser);
+                case "duration" -> duration = internText(parser);
+                case "id" -> id = scalarText(parser);
+                case "numberOfStops" -> numberOfStops = parser.getValueAsInt(0);
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (departure == null || departure.at() == null || arrival == null || arrival.at() == null) {
+            logger.warn("Failed to parse segment: missing or invalid departure/arrival time");
+            return null;
+        }
+
+        return FlightResponse.Segment.builder()
+                .departure(FlightResponse.Departure.builder()
+                        .iataCode(departure.iataCode())
+                        .terminal(departure.terminal())
+                        .at(departure.at())
+                        .build())
+                .arrival(FlightResponse.Arrival.builder()
+                        .iataCode(arrival.iataCode())
+                        .terminal(arrival.terminal())
+                        .at(arrival.at())
+                        .build())
+                .carrierCode(carrierCode)
+                .number(number)
+                .aircraft(FlightResponse.Aircraft.builder().code(aircraftCode).build())
+                .duration(duration)
+                .id(id)
+                .numberOfStops(numberOfStops)
+                .build();
+    }
+
+    private Endpoint readEndpoint(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        String iataCode = "";
+        String terminal = "";
+        LocalDateTime at = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "iataCode" -> iataCode = internText(parser);
+                case "terminal" -> terminal = internText(parser);
+                case "at" -> at = parseDateTime(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new Endpoint(iataCode, terminal, at);
+    }
+
+    private String readAircraftCode(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return "";
+        }
+
+        String code = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            if ("code".equals(field)) {
+                code = internText(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return code;
+    }
+
+    private String internText(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return scalarText(parser);
+        }
+        return codes.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    /**
+     * Text of a scalar value, like {@code JsonNode.asText()}: {@code ""} for null, objects and
+     * arrays, which are skipped
+     */
+    private static String scalarText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null || token == JsonToken.VALUE_NULL || token.isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Decode {@code yyyy-MM-ddTHH:mm[:ss]} directly from the parser's character buffer,
+     * falling back to {@link LocalDateTime#parse} for any other shape
+     */
+    private LocalDateTime parseDateTime(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return null;
+        }
+
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+
+        try {
+            if ((length == 16 || length == 19)
+                    && chars[offset + 4] == '-' && chars[offset + 7] == '-' && chars[offset + 10] == 'T'
+                    && chars[offset + 13] == ':' && (length == 16 || chars[offset + 16] == ':')) {
+                return LocalDateTime.of(
+                        digits(chars, offset, 4),
+                        digits(chars, offset + 5, 2),
+                        digits(chars, offset + 8, 2),
+                        digits(chars, offset + 11, 2),
+                        digits(chars, offset + 14, 2),
+                        length == 19 ? digits(chars, offset + 17, 2) : 0);
+            }
+            return LocalDateTime.parse(parser.getText());
+        } catch (RuntimeException e) {
+            // Invalid digits or out-of-range fields; the segment will be dropped
+            return null;
+        }
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = chars[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeParseException("Invalid digit", new String(chars, offset, count), i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private record Endpoint(String iataCode, String terminal, LocalDateTime at) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.TripFinder.component;
+
+import com.TripFinder.config.CacheConfig;
+import com.TripFinder.exception.RateLimitExceededException;
+import com.TripFinder.util.TokenBucket;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single rate limiter shared by every Amadeus client (flights, hotels).
+ * OAuth token requests are not limited: {@link AmadeusTokenManager} issues at most one
+ * every token lifetime and must not be starved by search traffic.
+ * Honors {@code app.rate-limit.amadeus.requests-per-second} and {@code burst-capacity};
+ * callers may wait up to {@code app.rate-limit.amadeus.max-wait} for a permit before
+ * giving up and falling back.
+ */
+@Component
+public class AmadeusRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmadeusRateLimiter.class);
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    private TokenBucket tokenBucket;
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        CacheConfig.RateLimit.Amadeus amadeus = cacheConfig.getRateLimit().getAmadeus();
+        tokenBucket = new TokenBucket(amadeus.getRequestsPerSecond(), amadeus.getBurstCapacity());
+        logger.info("Amadeus rate limiter: {} requests/s, burst {}, max wait {}",
+                amadeus.getRequestsPerSecond(), amadeus.getBurstCapacity(), amadeus.getMaxWait());
+    }
+
+    /**
+     * Acquire a permit, waiting at most the configured max wait. Completes once the permit is
+     * usable, delaying on a timer instead of parking the calling thread
+     *
+     * @return empty Mono that completes when the call may proceed, or fails with
+     *         {@link RateLimitExceededException} if no permit is available within the max wait
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            long wait = tokenBucket.reserve(cacheConfig.getRateLimit().getAmadeus().getMaxWait().toNanos());
+            if (wait < 0) {
+                rejected.increment();
+                return Mono.error(new RateLimitExceededException("Amadeus rate limit exceeded"));
+            }
+
+            granted.increment();
+            if (wait == 0) {
+                return Mono.empty();
+            }
+
+            delayed.increment();
+            return Mono.delay(Duration.ofNanos(wait)).then();
+        });
+    }
+
+    /**
+     * Permits that could be taken right now without waiting
+     */
+    public int availablePermits() {
+        return tokenBucket.availablePermits();
+    }
+
+    /**
+     * Get limiter statistics
+     *
+     * @return permits granted, delayed and rejected, plus permits currently available
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("granted", granted.sum());
+        statistics.put("delayed", delayed.sum());
+        statistics.put("rejected", rejected.sum());
+        statistics.put("availablePermits", tokenBucket.availablePermits());
+        return statistics;
+    }
+}
@@ -0,0 +1,191 @@
+package com.TripFinder.component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the Amadeus OAuth access token for every Amadeus client.
+ * The token is fetched once, kept in a volatile field that callers read without locking,
+ * and refreshed in the background shortly before {@code expires_in} elapses, so searches
+ * never pay for an OAuth round trip. Only the very first call (or a call after
+ * {@link #invalidate()}) waits for a token request; token requests use the non-blocking
+ * {@link WebClient} and concurrent callers share a single in-flight request.
+ */
+@Component
+public class AmadeusTokenManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmadeusTokenManager.class);
+
+    // Refresh this long before the token expires
+    private static final Duration REFRESH_MARGIN = Duration.ofSeconds(60);
+
+    // Never hand out a token that expires within this window
+    private static final Duration EXPIRY_SAFETY = Duration.ofSeconds(5);
+
+    // Retry interval for a failed background refresh while the current token is still valid
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(10);
+
+    // Amadeus tokens live 1799 seconds; used when the response omits expires_in
+    private static final long DEFAULT_EXPIRES_IN_SECONDS = 1799;
+
+    @Value("${amadeus.api.key}")
+    private String apiKey;
+
+    @Value("${amadeus.api.secret}")
+    private String apiSecret;
+
+    @Value("${amadeus.api.base-url}")
+    private String baseUrl;
+
+    @Autowired
+    private WebClient webClient;
+
+    private volatile AccessToken currentToken;
+
+    private final AtomicReference<CompletableFuture<AccessToken>> inFlightRefresh = new AtomicReference<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "amadeus-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScheduledFuture<?> scheduledRefresh;
+
+    /**
+     * Get a valid access token, fetching one only if none is cached.
+     * Completes immediately while a cached token is usable; otherwise waits for the single
+     * in-flight token request.
+     *
+     * @return Mono of the bearer token for Amadeus API calls
+     */
+    public Mono<String> accessToken() {
+        AccessToken token = currentToken;
+        if (token != null && token.isUsable()) {
+            return Mono.just(token.value());
+        }
+        return Mono.defer(() -> {
+            // Another caller may have refreshed in the meantime
+            AccessToken latest = currentToken;
+            if (latest != null && latest.isUsable()) {
+                return Mono.just(latest.value());
+            }
+            return Mono.fromFuture(refresh()).map(AccessToken::value);
+        });
+    }
+
+    /**
+     * Drop the current token, e.g. after the API rejected it with 401.
+     * The next caller fetches a fresh one.
+     */
+    public void invalidate() {
+        logger.info("Invalidating Amadeus access token");
+        currentToken = null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Start a token request, or join the one already in flight, so concurrent callers
+     * and the background refresh never issue more than one OAuth call at a time
+     */
+    private CompletableFuture<AccessToken> refresh() {
+        CompletableFuture<AccessToken> promise = new CompletableFuture<>();
+        CompletableFuture<AccessToken> existing = inFlightRefresh.compareAndExchange(null, promise);
+        if (existing != null) {
+            return existing;
+        }
+
+        requestToken().subscribe(
+                newToken -> {
+                    currentToken = newToken;
+                    scheduleRefresh(newToken.expiresAt().minus(REFRESH_MARGIN));
+                    inFlightRefresh.set(null);
+                    promise.complete(newToken);
+                },
+                error -> {
+                    inFlightRefresh.set(null);
+                    promise.completeExceptionally(error);
+                });
+        return promise;
+    }
+
+    private void backgroundRefresh() {
+        refresh().whenComplete((token, error) -> {
+            if (error == null) {
+                logger.debug("Refreshed Amadeus access token in background");
+                return;
+            }
+
+            AccessToken current = currentToken;
+            if (current != null && current.isUsable()) {
+                logger.warn("Background token refresh failed, retrying in {}s: {}", RETRY_INTERVAL.toSeconds(), error.getMessage());
+                scheduleRefresh(Instant.now().plus(RETRY_INTERVAL));
+            } else {
+                logger.error("Background token refresh failed and current token expired: {}", error.getMessage());
+            }
+        });
+    }
+
+    private synchronized void scheduleRefresh(Instant refreshAt) {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        long delayMs = Math.max(0, Duration.between(Instant.now(), refreshAt).toMillis());
+        scheduledRefresh = scheduler.schedule(this::backgroundRefresh, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Mono<AccessToken> requestToken() {
+        logger.debug("Requesting Amadeus access token");
+
+        return webClient.post()
+                .uri(baseUrl + "/v1/security/oauth2/token")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("grant_type", "client_credentials")
+                        .with("client_id", apiKey)
+                        .with("client_secret", apiSecret))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(responseBody -> {
+                    if (!responseBody.has("access_token")) {
+                        throw new RuntimeException("No access token in response");
+                    }
+
+                    long expiresIn = responseBody.path("expires_in").asLong(DEFAULT_EXPIRES_IN_SECONDS);
+                    return new AccessToken(responseBody.get("access_token").asText(), Instant.now().plusSeconds(expiresIn));
+                })
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("No access token in response")))
+                .onErrorMap(e -> {
+                    logger.error("Failed to get access token: {}", e.getMessage());
+                    return new RuntimeException("Could not obtain Amadeus access token", e);
+                });
+    }
+
+    private record AccessToken(String value, Instant expiresAt) {
+
+        boolean isUsable() {
+            return Instant.now().isBefore(expiresAt.minus(EXPIRY_SAFETY));
+        }
+    }
+}
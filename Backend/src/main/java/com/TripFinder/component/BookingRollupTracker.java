@@ -0,0 +1,387 @@
+package com.TripFinder.component;
+
+import com.TripFinder.entity.Booking;
+import com.TripFinder.entity.BookingRollup;
+import com.TripFinder.repository.BookingRepo;
+import com.TripFinder.repository.BookingRollupRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the daily {@link BookingRollup} rows up to date. Committed booking changes arrive from
+ * {@link StatisticsEventListener} as deltas (a booking leaving one day/type/status/provider/currency
+ * and joining another), are merged in memory and written every {@code app.analytics.rollup-flush-interval},
+ * so a burst of booking writes costs one upsert per affected rollup row.
+ * <p>
+ * A backfill rebuilds the rollups from the bookings table in batches of
+ * {@code app.analytics.rollup-batch-size} bookings, each in its own transaction. It runs at
+ * startup when there are bookings but no rollups, and on demand. While it runs, changes to
+ * bookings it has not reached yet are left to it; a booking changed while its own batch is
+ * being read may be off until the next backfill.
+ * <p>
+ * Deltas are only held in memory until the next flush, so a crash can lose a few seconds of
+ * them. Every {@code app.analytics.rollup-reconcile-interval} the last
+ * {@code app.analytics.rollup-reconcile-days} days are recounted from the bookings table and
+ * drifted rows are corrected.
+ */
+@Component
+public class BookingRollupTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingRollupTracker.class);
+
+    private static final long NOT_BACKFILLING = -1L;
+
+    @Autowired
+    private BookingRepo bookingRepo;
+
+    @Autowired
+    private BookingRollupRepo bookingRollupRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.rollup-batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${app.analytics.rollup-reconcile-days:7}")
+    private int reconcileDays = 7;
+
+    private final Map<Key, Delta> pending = new ConcurrentHashMap<>();
+
+    // Serializes writes to the rollup table between flushes and backfill batches
+    private final Object writeLock = new Object();
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    // While backfilling, events for bookings with IDs in (backfillProgress, backfillCeiling] are dropped
+    private volatile long backfillCeiling = NOT_BACKFILLING;
+    private volatile long backfillProgress;
+    private volatile Instant lastBackfillAt;
+    private volatile Instant lastReconciledAt;
+
+    public void bookingAdded(Long bookingId, Contribution contribution) {
+        record(bookingId, contribution.key(), new Delta(1, contribution.amount()));
+    }
+
+    public void bookingRemoved(Long bookingId, Contribution contribution) {
+        record(bookingId, contribution.key(), new Delta(-1, contribution.amount().negate()));
+    }
+
+    public void bookingUpdated(Long bookingId, Contribution before, Contribution after) {
+        if (before.equals(after)) {
+            return;
+        }
+        bookingRemoved(bookingId, before);
+        bookingAdded(bookingId, after);
+    }
+
+    /**
+     * @return whether a backfill is running
+     */
+    public boolean isBackfillRunning() {
+        return backfillRunning.get();
+    }
+
+    /**
+     * @return when the last backfill finished, or null if none has since startup
+     */
+    public Instant getLastBackfillAt() {
+        return lastBackfillAt;
+    }
+
+    /**
+     * @return when the recent days were last reconciled, or null if they have not been since startup
+     */
+    public Instant getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    /**
+     * Rebuild the rollups when there are bookings but no rollups yet; otherwise reconcile the
+     * recent days, which corrects deltas lost when the application last stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (bookingRollupRepo.count() == 0 && bookingRepo.count() > 0) {
+            logger.info("Booking rollups are empty, starting backfill");
+            startBackfill();
+            return;
+        }
+
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.warn("Failed to reconcile booking rollups at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write the merged booking deltas to the rollup table
+     */
+    @Scheduled(fixedDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.analytics.rollup-flush-interval:5s}')}",
+            initialDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.analytics.rollup-flush-interval:5s}')}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            Map<Key, Delta> deltas = new HashMap<>();
+            for (Key key : pending.keySet()) {
+                Delta delta = pending.remove(key);
+                if (delta != null) {
+                    deltas.put(key, delta);
+                }
+            }
+
+            try {
+                apply(deltas);
+            } catch (RuntimeException e) {
+                // Put them back for the next flush
+                deltas.forEach((key, delta) -> pending.merge(key, delta, Delta::plus));
+                logger.warn("Failed to flush {} booking rollup deltas: {}", deltas.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Start rebuilding the rollups from the bookings table on a background thread
+     *
+     * @return false if a backfill is already running
+     */
+    public boolean startBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                backfill();
+            } catch (Exception e) {
+                logger.error("Booking rollup backfill failed, rollups are incomplete until it is run again: {}", e.getMessage());
+            } finally {
+                backfillCeiling = NOT_BACKFILLING;
+                backfillRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    void backfill() {
+        long ceiling;
+        synchronized (writeLock) {
+            // Drop every event until the ceiling is known; the backfill reads those bookings
+            backfillProgress = 0L;
+            backfillCeiling = Long.MAX_VALUE;
+            pending.clear();
+            transactionTemplate.executeWithoutResult(status -> bookingRollupRepo.deleteAllInBatch());
+
+            Long maxId = bookingRepo.findMaxId();
+            ceiling = maxId != null ? maxId : 0L;
+            backfillCeiling = ceiling;
+        }
+
+        long afterId = 0L;
+        long processed = 0L;
+        while (afterId < ceiling) {
+            List<Object[]> rows = bookingRepo.findRollupSourceWindow(afterId, ceiling, Limit.of(batchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            Map<Key, Delta> deltas = new HashMap<>();
+            for (Object[] row : rows) {
+                Contribution contribution = Contribution.of((LocalDateTime) row[1], (Booking.BookingType) row[2],
+                        (Booking.BookingStatus) row[3], (String) row[4], (String) row[5], (BigDecimal) row[6]);
+                deltas.merge(contribution.key(), new Delta(1, contribution.amount()), Delta::plus);
+            }
+            synchronized (writeLock) {
+                apply(deltas);
+            }
+
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+            backfillProgress = afterId;
+            processed += rows.size();
+        }
+
+        lastBackfillAt = Instant.now();
+        logger.info("Backfilled booking rollups from {} bookings", processed);
+    }
+
+    /**
+     * Recount the rollup rows of the last {@code app.analytics.rollup-reconcile-days} days (today
+     * included) from the bookings table and correct the rows that drifted, e.g. from deltas lost
+     * in a crash before their flush or bookings changed outside JPA. Pending deltas of those days
+     * are superseded by the recount; a booking changed while the recount runs may stay off until
+     * the next run. Skipped while a backfill runs.
+     */
+    @Scheduled(fixedDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.analytics.rollup-reconcile-interval:1h}')}",
+            initialDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.analytics.rollup-reconcile-interval:1h}')}")
+    public void reconcile() {
+        if (reconcileDays <= 0 || backfillRunning.get()) {
+            return;
+        }
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(reconcileDays - 1L);
+
+        synchronized (writeLock) {
+            // Pending deltas of other days are written as usual; those of the recounted days are replaced
+            Map<Key, Delta> corrections = new HashMap<>();
+            for (Key key : pending.keySet()) {
+                Delta delta = pending.remove(key);
+                if (delta != null && (key.bucketDate().isBefore(from) || key.bucketDate().isAfter(to))) {
+                    corrections.merge(key, delta, Delta::plus);
+                }
+            }
+
+            Map<Key, Delta> actual = new HashMap<>();
+            for (Object[] row : bookingRepo.countRollupSourceBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                Key key = Key.of((LocalDate) row[0], (Booking.BookingType) row[1], (Booking.BookingStatus) row[2],
+                        (String) row[3], (String) row[4]);
+                BigDecimal amount = row[6] != null ? (BigDecimal) row[6] : BigDecimal.ZERO;
+                actual.merge(key, new Delta((Long) row[5], amount), Delta::plus);
+            }
+
+            long drifted = 0;
+            for (BookingRollup rollup : bookingRollupRepo.findByBucketDateBetween(from, to)) {
+                Key key = Key.of(rollup.getBucketDate(), rollup.getBookingType(), rollup.getStatus(),
+                        rollup.getProvider(), rollup.getCurrency());
+                Delta expected = actual.remove(key);
+                Delta correction = (expected != null ? expected : Delta.ZERO)
+                        .minus(new Delta(rollup.getBookingCount(), rollup.getTotalAmount()));
+                if (!correction.isZero()) {
+                    corrections.merge(key, correction, Delta::plus);
+                    drifted++;
+                }
+            }
+            // Days and breakdowns that have bookings but no rollup row
+            for (Map.Entry<Key, Delta> missing : actual.entrySet()) {
+                corrections.merge(missing.getKey(), missing.getValue(), Delta::plus);
+                drifted++;
+            }
+
+            try {
+                apply(corrections);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to reconcile booking rollups from {} to {}: {}", from, to, e.getMessage());
+                return;
+            }
+
+            lastReconciledAt = Instant.now();
+            if (drifted > 0) {
+                logger.warn("Reconciled booking rollups from {} to {}, corrected {} rows", from, to, drifted);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("Failed to flush booking rollups on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private void record(Long bookingId, Key key, Delta delta) {
+        if (bookingId != null && bookingId > backfillProgress && bookingId <= backfillCeiling) {
+            return;
+        }
+        pending.merge(key, delta, Delta::plus);
+    }
+
+    private void apply(Map<Key, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Map.Entry<Key, Delta> entry : deltas.entrySet()) {
+                Key key = entry.getKey();
+                Delta delta = entry.getValue();
+                BookingRollup rollup = bookingRollupRepo
+                        .findByBucketDateAndBookingTypeAndStatusAndProviderAndCurrency(
+                                key.bucketDate(), key.bookingType(), key.status(), key.provider(), key.currency())
+                        .orElseGet(() -> new BookingRollup(null, key.bucketDate(), key.bookingType(), key.status(),
+                                key.provider(), key.currency(), 0L, BigDecimal.ZERO));
+
+                rollup.setBookingCount(rollup.getBookingCount() + delta.count());
+                rollup.setTotalAmount(rollup.getTotalAmount().add(delta.amount()));
+                if (rollup.getBookingCount() <= 0 && rollup.getId() != null) {
+                    bookingRollupRepo.delete(rollup);
+                } else if (rollup.getBookingCount() > 0) {
+                    bookingRollupRepo.save(rollup);
+                }
+            }
+        });
+    }
+
+    /**
+     * Rollup row a booking is counted in
+     */
+    public record Key(LocalDate bucketDate, Booking.BookingType bookingType, Booking.BookingStatus status,
+                      String provider, String currency) {
+
+        public static Key of(LocalDate bucketDate, Booking.BookingType bookingType, Booking.BookingStatus status,
+                             String provider, String currency) {
+            return new Key(bucketDate, bookingType, status,
+                    provider != null && !provider.isBlank() ? provider : BookingRollup.UNKNOWN_PROVIDER, currency);
+        }
+    }
+
+    /**
+     * What one booking adds to the rollups: its row and its amount
+     */
+    public record Contribution(Key key, BigDecimal amount) {
+
+        public static Contribution of(Booking booking) {
+            return of(booking.getBookingDate(), booking.getBookingType(), booking.getStatus(),
+                    booking.getProvider(), booking.getCurrency(), booking.getTotalAmount());
+        }
+
+        public static Contribution of(LocalDateTime bookingDate, Booking.BookingType bookingType,
+                                      Booking.BookingStatus status, String provider, String currency,
+                                      BigDecimal totalAmount) {
+            Key key = Key.of(bookingDate.toLocalDate(), bookingType, status, provider, currency);
+            return new Contribution(key, totalAmount != null ? totalAmount : BigDecimal.ZERO);
+        }
+    }
+
+    private record Delta(long count, BigDecimal amount) {
+
+        static final Delta ZERO = new Delta(0, BigDecimal.ZERO);
+
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, amount.add(other.amount));
+        }
+
+        Delta minus(Delta other) {
+            return new Delta(count - other.count, amount.subtract(other.amount));
+        }
+
+        boolean isZero() {
+            return count == 0 && amount.signum() == 0;
+        }
+    }
+}
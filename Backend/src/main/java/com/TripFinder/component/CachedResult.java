@@ -0,0 +1,45 @@
+package com.TripFinder.component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable upstream result set as held by {@link SearchResultCache}, together with the time
+ * it was fetched. {@code stale} is set on the copy handed to a caller when the entry is past
+ * its soft TTL and is being refreshed in the background.
+ *
+ * @param results full, unfiltered result set
+ * @param fetchedAt when the results were received from upstream
+ * @param stale whether the results are past the cache's soft TTL
+ * @param freshFor per-entry soft TTL chosen by {@link AdaptiveTtlPolicy}, or null to use the cache's fixed TTLs
+ * @param cacheHit whether this copy was served from the cache rather than loaded for the caller
+ */
+public record CachedResult<T>(List<T> results, Instant fetchedAt, boolean stale, Duration freshFor, boolean cacheHit) {
+
+    public CachedResult(List<T> results, Instant fetchedAt, boolean stale, Duration freshFor) {
+        this(results, fetchedAt, stale, freshFor, false);
+    }
+
+    /**
+     * Wrap results that were just fetched from upstream
+     */
+    public static <T> CachedResult<T> fresh(List<T> results, Duration freshFor) {
+        return new CachedResult<>(List.copyOf(results), Instant.now(), false, freshFor);
+    }
+
+    /**
+     * Copy handed to a caller on a cache hit
+     */
+    public CachedResult<T> asHit() {
+        return new CachedResult<>(results, fetchedAt, stale, freshFor, true);
+    }
+
+    public CachedResult<T> asStale() {
+        return new CachedResult<>(results, fetchedAt, true, freshFor, cacheHit);
+    }
+
+    public boolean isOlderThan(Duration age) {
+        return fetchedAt.plus(age).isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,148 @@
+package com.TripFinder.component;
+
+import com.TripFinder.dto.HotelResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Micro-batches hotel-offer lookups for the same stay. Lookups that share a stay key (city,
+ * dates, guests, rooms) within {@code app.hotels.offers.batch-window} are merged into one
+ * upstream fetch of the union of their hotel IDs, and each caller gets the offers of its own
+ * hotels back. Identical searches are already coalesced by {@link SearchResultCache}; this
+ * also merges searches of the same stay that differ in radius, whose hotel lists overlap.
+ * A batch is sent early once it holds {@code app.hotels.offers.batch-max-hotels} IDs.
+ */
+@Component
+public class HotelOfferBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelOfferBatcher.class);
+
+    @Value("${app.hotels.offers.batch-window:50ms}")
+    private Duration batchWindow;
+
+    @Value("${app.hotels.offers.batch-max-hotels:200}")
+    private int batchMaxHotels;
+
+    private final Map<String, Batch> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requestedHotels = new LongAdder();
+    private final LongAdder fetchedHotels = new LongAdder();
+
+    /**
+     * Fetch offers for the hotels, batched with other lookups for the same stay
+     *
+     * @param stayKey key of the stay; lookups with equal keys must produce identical upstream requests
+     * @param hotelIds hotels to fetch offers for
+     * @param upstream fetches offers for a batch of hotel IDs; the first lookup's function serves the batch
+     * @return offers of the requested hotels, marked incomplete if the batch result was
+     */
+    public Mono<List<HotelResponse>> fetch(String stayKey, List<String> hotelIds,
+                                           Function<List<String>, Mono<List<HotelResponse>>> upstream) {
+        lookups.increment();
+        requestedHotels.add(hotelIds.size());
+
+        if (batchWindow.isZero() || batchWindow.isNegative()) {
+            batches.increment();
+            fetchedHotels.add(hotelIds.size());
+            return upstream.apply(hotelIds);
+        }
+
+        Batch[] joined = new Batch[1];
+        boolean[] full = new boolean[1];
+        pending.compute(stayKey, (key, batch) -> {
+            if (batch == null) {
+                batch = new Batch(upstream);
+                Batch scheduled = batch;
+                Mono.delay(batchWindow).subscribe(tick -> {
+                    pending.remove(key, scheduled);
+                    send(key, scheduled);
+                });
+            }
+            batch.hotelIds.addAll(hotelIds);
+            joined[0] = batch;
+            full[0] = batch.hotelIds.size() >= batchMaxHotels;
+            // Full batches leave the map here and are sent below, outside the map lock
+            return full[0] ? null : batch;
+        });
+
+        Batch batch = joined[0];
+        if (full[0]) {
+            send(stayKey, batch);
+        }
+
+        Set<String> requested = Set.copyOf(hotelIds);
+        return Mono.fromFuture(batch.result.thenApply(offers -> {
+            List<HotelResponse> own = offers.stream()
+                    .filter(offer -> requested.contains(offer.getHotelId()))
+                    .toList();
+            return SearchResultCache.isIncomplete(offers) ? SearchResultCache.incomplete(own) : own;
+        }));
+    }
+
+    /**
+     * Get batching metrics
+     *
+     * @return lookups, upstream batches, and hotel IDs requested versus actually fetched
+     */
+    public Map<String, Object> getStatistics() {
+        long lookupCount = lookups.sum();
+        long batchCount = batches.sum();
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("lookups", lookupCount);
+        statistics.put("upstreamBatches", batchCount);
+        statistics.put("lookupsPerBatch", batchCount == 0 ? 0.0 : (double) lookupCount / batchCount);
+        statistics.put("requestedHotels", requestedHotels.sum());
+        statistics.put("fetchedHotels", fetchedHotels.sum());
+        statistics.put("pendingBatches", pending.size());
+        return statistics;
+    }
+
+    private void send(String stayKey, Batch batch) {
+        if (!batch.sent.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<String> hotelIds = List.copyOf(batch.hotelIds);
+        batches.increment();
+        fetchedHotels.add(hotelIds.size());
+        logger.debug("Fetching hotel offers for {} hotels of stay {}", hotelIds.size(), stayKey);
+
+        try {
+            batch.upstream.apply(hotelIds)
+                    .defaultIfEmpty(List.of())
+                    .subscribe(batch.result::complete, batch.result::completeExceptionally);
+        } catch (RuntimeException e) {
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private static class Batch {
+        private final Function<List<String>, Mono<List<HotelResponse>>> upstream;
+        // Only modified inside pending.compute, read once the batch has left the map
+        private final Set<String> hotelIds = new LinkedHashSet<>();
+        private final CompletableFuture<List<HotelResponse>> result = new CompletableFuture<>();
+        private final AtomicBoolean sent = new AtomicBoolean();
+
+        private Batch(Function<List<String>, Mono<List<HotelResponse>>> upstream) {
+            this.upstream = upstream;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.TripFinder.component;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connection-pool gauges for both outbound HTTP clients: the Apache pool behind
+ * RestTemplate and the Reactor Netty pools behind WebClient (one per remote host,
+ * registered by Reactor Netty as they are created).
+ */
+@Component
+public class HttpPoolMetrics implements ConnectionProvider.MeterRegistrar {
+
+    @Autowired
+    private PoolingHttpClientConnectionManager httpConnectionManager;
+
+    private final Map<String, ConnectionPoolMetrics> reactivePools = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        reactivePools.put(poolName + ':' + remoteAddress, metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        reactivePools.remove(poolName + ':' + remoteAddress);
+    }
+
+    /**
+     * Get a snapshot of both connection pools
+     *
+     * @return leased/idle/pending/max connections, overall and per route or remote host
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("restTemplate", getBlockingPoolStatistics());
+        statistics.put("webClient", getReactivePoolStatistics());
+        return statistics;
+    }
+
+    private Map<String, Object> getBlockingPoolStatistics() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("total", toMap(httpConnectionManager.getTotalStats()));
+
+        Map<String, Object> routes = new LinkedHashMap<>();
+        for (HttpRoute route : httpConnectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().toURI(), toMap(httpConnectionManager.getStats(route)));
+        }
+        pool.put("routes", routes);
+        return pool;
+    }
+
+    private Map<String, Object> getReactivePoolStatistics() {
+        Map<String, Object> pools = new LinkedHashMap<>();
+        reactivePools.forEach((name, metrics) -> {
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("leased", metrics.acquiredSize());
+            pool.put("available", metrics.idleSize());
+            pool.put("pending", metrics.pendingAcquireSize());
+            pool.put("allocated", metrics.allocatedSize());
+            pool.put("max", metrics.maxAllocatedSize());
+            pools.put(name, pool);
+        });
+        return pools;
+    }
+
+    private static Map<String, Object> toMap(PoolStats stats) {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("leased", stats.getLeased());
+        pool.put("available", stats.getAvailable());
+        pool.put("pending", stats.getPending());
+        pool.put("max", stats.getMax());
+        return pool;
+    }
+}
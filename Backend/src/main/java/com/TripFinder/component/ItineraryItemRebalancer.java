@@ -0,0 +1,99 @@
+package com.TripFinder.component;
+
+import com.TripFinder.entity.ItineraryItem;
+import com.TripFinder.repository.ItineraryItemRepo;
+import com.TripFinder.repository.ItineraryRepo;
+import com.TripFinder.util.GapPositions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Respaces itinerary item positions {@link GapPositions#GAP} apart. Moves that leave an item
+ * crowded against a neighbour queue their itinerary here, and queued itineraries are respaced
+ * in the background every {@code app.itineraries.rebalance-interval}, before the gap runs out
+ * and a move would have to respace inline. Respacing changes rows in place, so Hibernate sends
+ * it as one JDBC batch of updates.
+ */
+@Component
+public class ItineraryItemRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItineraryItemRebalancer.class);
+
+    @Autowired
+    private ItineraryRepo itineraryRepo;
+
+    @Autowired
+    private ItineraryItemRepo itineraryItemRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Queue an itinerary for background respacing
+     *
+     * @param itineraryId itinerary whose items are getting crowded
+     */
+    public void requestRebalance(Long itineraryId) {
+        pending.add(itineraryId);
+    }
+
+    @Scheduled(fixedDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.itineraries.rebalance-interval:10s}')}",
+            initialDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.itineraries.rebalance-interval:10s}')}")
+    public void rebalancePending() {
+        for (Long itineraryId : List.copyOf(pending)) {
+            pending.remove(itineraryId);
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(itineraryId));
+            } catch (RuntimeException e) {
+                // Moves still work without it; they respace inline once a gap is used up
+                logger.warn("Failed to rebalance items of itinerary {}: {}", itineraryId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Respace one itinerary's items, keeping their order. Must run in a transaction; the
+     * itinerary row is locked so concurrent moves wait for it.
+     *
+     * @param itineraryId itinerary ID
+     */
+    public void rebalance(Long itineraryId) {
+        if (itineraryRepo.findByIdForUpdate(itineraryId).isEmpty()) {
+            return;
+        }
+        List<ItineraryItem> items = itineraryItemRepo.findByItineraryIdOrderByPosition(itineraryId);
+        int changed = respace(items);
+        logger.debug("Rebalanced itinerary {}: {} of {} item positions changed", itineraryId, changed, items.size());
+    }
+
+    /**
+     * Give items evenly spaced positions in their list order
+     *
+     * @param items managed items of one itinerary, in order
+     * @return number of items whose position changed
+     */
+    public int respace(List<ItineraryItem> items) {
+        int[] positions = GapPositions.spaced(items.size());
+        List<ItineraryItem> changed = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            ItineraryItem item = items.get(i);
+            if (item.getPosition() == null || item.getPosition() != positions[i]) {
+                item.setPosition(positions[i]);
+                changed.add(item);
+            }
+        }
+        itineraryItemRepo.saveAll(changed);
+        return changed.size();
+    }
+}
@@ -0,0 +1,191 @@
+package com.TripFinder.component;
+
+import com.TripFinder.config.CacheConfig;
+import com.TripFinder.entity.LastKnownGoodResult;
+import com.TripFinder.repository.LastKnownGoodResultRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent store of the most recent real upstream results per search, used as a degraded
+ * mode when Amadeus fails: callers get the newest results for the exact search or, failing
+ * that, for the same route or city on the nearest day within {@code app.api.fallback.nearby-days}.
+ * Results older than {@code app.api.fallback.last-known-good-max-age} are neither served nor kept.
+ * Writes happen on a single writer thread with a bounded queue, off the calling thread and off
+ * the common pool the async search paths run on, so recording a result never delays a search
+ * response; when the queue is full the snapshot is dropped.
+ */
+@Component
+public class LastKnownGoodStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastKnownGoodStore.class);
+
+    // Expired rows are purged at most this often, piggybacking on writes
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private static final int WRITE_QUEUE_CAPACITY = 100;
+
+    @Autowired
+    private LastKnownGoodResultRepo lastKnownGoodResultRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    private final AtomicLong nextPurgeMillis = new AtomicLong();
+
+    private final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(WRITE_QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "last-known-good-writer");
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, executor) -> logger.debug("Last-known-good write queue full, dropping a snapshot"));
+
+    /**
+     * Record a non-empty upstream result set as the last known good one for its search
+     *
+     * @param cacheName cache the results belong to
+     * @param searchKey canonical search key
+     * @param routeKey search key without dates
+     * @param searchDate departure or check-in date of the search
+     * @param results upstream results
+     */
+    public void save(String cacheName, String searchKey, String routeKey, LocalDate searchDate, List<?> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+
+        writer.execute(() -> {
+            try {
+                String payload = objectMapper.writeValueAsString(results);
+                try {
+                    write(cacheName, searchKey, routeKey, searchDate, payload, results.size());
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance inserted the same search first; update its row instead
+                    write(cacheName, searchKey, routeKey, searchDate, payload, results.size());
+                }
+
+                purgeExpired();
+            } catch (Exception e) {
+                // Losing one fallback snapshot is harmless; the next successful search writes it again
+                logger.warn("Failed to store last-known-good results in {} for {}: {}", cacheName, searchKey, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Finish the queued writes, waiting briefly, before the datasource goes away
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+            writer.shutdownNow();
+        }
+    }
+
+    /**
+     * Find the newest stored results for the search, or for the same route on the nearest day
+     *
+     * @param cacheName cache the results belong to
+     * @param searchKey canonical search key
+     * @param routeKey search key without dates
+     * @param searchDate departure or check-in date of the search
+     * @param type element type of the stored results
+     * @return stored results (flagged stale), if any are recent enough
+     */
+    public <T> Optional<CachedResult<T>> find(String cacheName, String searchKey, String routeKey,
+                                              LocalDate searchDate, Class<T> type) {
+        CacheConfig.Api.Fallback fallback = cacheConfig.getApi().getFallback();
+        LocalDateTime fetchedAfter = LocalDateTime.now().minus(fallback.getLastKnownGoodMaxAge());
+
+        try {
+            Optional<LastKnownGoodResult> entry = lastKnownGoodResultRepo.findByCacheNameAndSearchKey(cacheName, searchKey)
+                    .filter(exact -> exact.getFetchedAt().isAfter(fetchedAfter));
+
+            if (entry.isEmpty() && searchDate != null) {
+                // Nearest day first; the list is newest first, so ties go to the newest result
+                entry = lastKnownGoodResultRepo
+                        .findByCacheNameAndRouteKeyAndSearchDateBetweenAndFetchedAtAfterOrderByFetchedAtDesc(
+                                cacheName, routeKey,
+                                searchDate.minusDays(fallback.getNearbyDays()), searchDate.plusDays(fallback.getNearbyDays()),
+                                fetchedAfter)
+                        .stream()
+                        .min(Comparator.comparingLong(nearby -> Math.abs(ChronoUnit.DAYS.between(searchDate, nearby.getSearchDate()))));
+            }
+
+            if (entry.isEmpty()) {
+                return Optional.empty();
+            }
+
+            LastKnownGoodResult result = entry.get();
+            logger.debug("Last-known-good hit in {} for {} (stored for {})", cacheName, searchKey, result.getSearchKey());
+            return Optional.of(new CachedResult<>(
+                    List.copyOf(deserialize(result.getPayload(), type)),
+                    result.getFetchedAt().atZone(ZoneId.systemDefault()).toInstant(),
+                    true,
+                    null));
+
+        } catch (Exception e) {
+            logger.warn("Failed to read last-known-good results in {} for {}: {}", cacheName, searchKey, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void write(String cacheName, String searchKey, String routeKey, LocalDate searchDate,
+                       String payload, int resultCount) {
+        LastKnownGoodResult entry = lastKnownGoodResultRepo.findByCacheNameAndSearchKey(cacheName, searchKey)
+                .orElseGet(LastKnownGoodResult::new);
+        entry.setCacheName(cacheName);
+        entry.setSearchKey(searchKey);
+        entry.setRouteKey(routeKey);
+        entry.setSearchDate(searchDate);
+        entry.setPayload(payload);
+        entry.setResultCount(resultCount);
+        entry.setFetchedAt(LocalDateTime.now());
+        lastKnownGoodResultRepo.save(entry);
+    }
+
+    private <T> List<T> deserialize(String payload, Class<T> type) throws JsonProcessingException {
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, type);
+        return objectMapper.readValue(payload, listType);
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long next = nextPurgeMillis.get();
+        if (now < next || !nextPurgeMillis.compareAndSet(next, now + PURGE_INTERVAL.toMillis())) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(cacheConfig.getApi().getFallback().getLastKnownGoodMaxAge());
+        int purged = lastKnownGoodResultRepo.deleteFetchedBefore(cutoff);
+        if (purged > 0) {
+            logger.info("Purged {} expired last-known-good results", purged);
+        }
+    }
+}
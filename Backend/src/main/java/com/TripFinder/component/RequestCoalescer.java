@@ -0,0 +1,100 @@
+package com.TripFinder.component;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight registry for upstream calls. While a load for a key is in progress,
+ * identical concurrent requests wait for the same future instead of issuing their own call.
+ * The entry is removed as soon as the load completes, so this never serves stale data;
+ * caching is left to {@link SearchResultCache}.
+ */
+@Component
+public class RequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, GroupMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Start the async loader for the key, or join the load for the same key that is already in flight
+     *
+     * @param group logical group used for metrics (e.g. the cache name)
+     * @param key request key within the group
+     * @param loader upstream call; only started by the first caller
+     * @return future of the loader result, shared by every coalesced caller
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String group, String key, Supplier<CompletableFuture<T>> loader) {
+        String flightKey = group + ':' + key;
+        GroupMetrics groupMetrics = metrics.computeIfAbsent(group, g -> new GroupMetrics());
+
+        CompletableFuture<Object> promise = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, promise);
+
+        if (existing != null) {
+            groupMetrics.coalesced.increment();
+            logger.debug("Joining in-flight request for {}", flightKey);
+            // Hand out a dependent future so one caller cannot complete the shared one for the others
+            return existing.thenApply(result -> (T) result);
+        }
+
+        groupMetrics.executions.increment();
+        CompletableFuture<T> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+
+        load.whenComplete((result, error) -> {
+            inFlight.remove(flightKey, promise);
+            if (error != null) {
+                promise.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                promise.complete(result);
+            }
+        });
+        return promise.thenApply(result -> (T) result);
+    }
+
+    /**
+     * Get coalescing metrics per group
+     *
+     * @return map of group name to executed loads, coalesced callers and loads currently in flight
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+
+        metrics.forEach((group, groupMetrics) -> {
+            long executions = groupMetrics.executions.sum();
+            long coalesced = groupMetrics.coalesced.sum();
+            long current = inFlight.keySet().stream().filter(k -> k.startsWith(group + ':')).count();
+
+            Map<String, Object> groupStatistics = new LinkedHashMap<>();
+            groupStatistics.put("upstreamCalls", executions);
+            groupStatistics.put("coalescedCallers", coalesced);
+            groupStatistics.put("coalescingRatio", executions + coalesced == 0 ? 0.0 : (double) coalesced / (executions + coalesced));
+            groupStatistics.put("inFlight", current);
+            statistics.put(group, groupStatistics);
+        });
+
+        return statistics;
+    }
+
+    private static class GroupMetrics {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+    }
+}
@@ -0,0 +1,292 @@
+package com.TripFinder.component;
+
+import com.TripFinder.config.CacheConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches raw, parsed upstream search results under a canonical search key.
+ * The cached list is independent of paging, sorting and client-side filters, so every
+ * page and every re-sort of the same search is served from one upstream round trip.
+ * Cached lists are immutable; callers must copy before sorting.
+ * Concurrent misses for the same key are coalesced into a single upstream call.
+ * <p>
+ * Empty result sets and upstream 4xx answers (unknown city, invalid route) go to the separate,
+ * short-lived {@value #NEGATIVE_CACHE} cache instead, keyed like the positive entry, so repeated
+ * bad searches do not reach Amadeus and cannot evict real results. Auth and rate-limit
+ * rejections, 5xx and timeouts are never cached.
+ * <p>
+ * Caches with a soft TTL ({@code app.caches.<name>.soft-ttl}) serve stale-while-revalidate:
+ * an entry past its soft TTL is still returned immediately, flagged as stale, while one
+ * background load replaces it. {@code expire-after-write} remains the hard TTL, so no entry
+ * is served older than that. A failed refresh leaves the stale entry in place.
+ * Entries given their own TTL by {@link AdaptiveTtlPolicy} use it as the soft TTL instead.
+ * <p>
+ * Loaders that had to give up on part of a search (see {@link #incomplete}) still answer the
+ * waiting callers, but the partial result set is not cached, so the next search retries in full.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultCache.class);
+
+    public static final String NEGATIVE_CACHE = "negative-results";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    @Autowired
+    private AdaptiveTtlPolicy adaptiveTtlPolicy;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, RefreshMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Blocking variant of {@link #getAsync}
+     *
+     * @param cacheName name of the backing cache
+     * @param key canonical search key
+     * @param loader async upstream call producing the full, unfiltered result set
+     * @return the cached or freshly loaded result set
+     */
+    public <T> CachedResult<T> get(String cacheName, String key, Supplier<CompletableFuture<List<T>>> loader) {
+        try {
+            return this.<T>getAsync(cacheName, key, loader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Return the cached result set for the key, loading and caching it on a miss.
+     * A hit completes immediately; a stale hit also starts a background refresh.
+     * A miss starts (or joins) the async upstream load.
+     *
+     * @param cacheName name of the backing cache
+     * @param key canonical search key
+     * @param loader async upstream call producing the full, unfiltered result set
+     * @return future of the cached or freshly loaded result set
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<CachedResult<T>> getAsync(String cacheName, String key,
+                                                          Supplier<CompletableFuture<List<T>>> loader) {
+        Cache cache = getCache(cacheName);
+
+        Cache.ValueWrapper wrapper = cache.get(key);
+        if (wrapper != null) {
+            CachedResult<T> cached = (CachedResult<T>) wrapper.get();
+            Duration softTtl = cached.freshFor() != null ? cached.freshFor() : getSoftTtl(cacheName);
+
+            if (softTtl != null && cached.isOlderThan(softTtl)) {
+                logger.debug("Stale search cache hit in {} for {}", cacheName, key);
+                refreshInBackground(cache, cacheName, key, loader);
+                return CompletableFuture.completedFuture(cached.asHit().asStale());
+            }
+
+            logger.debug("Search cache hit in {} for {}", cacheName, key);
+            return CompletableFuture.completedFuture(cached.asHit());
+        }
+
+        Cache.ValueWrapper negative = getCache(NEGATIVE_CACHE).get(negativeKey(cacheName, key));
+        if (negative != null) {
+            logger.debug("Negative search cache hit in {} for {}", cacheName, key);
+            metrics.computeIfAbsent(cacheName, c -> new RefreshMetrics()).negativeHits.increment();
+            NegativeResult result = (NegativeResult) negative.get();
+            return result.failure() != null
+                    ? CompletableFuture.failedFuture(result.failure())
+                    : CompletableFuture.completedFuture(new CachedResult<>(List.of(), result.fetchedAt(), false, null, true));
+        }
+
+        logger.debug("Search cache miss in {} for {}", cacheName, key);
+        return requestCoalescer.executeAsync(cacheName, key, () -> load(cache, cacheName, key, loader));
+    }
+
+    /**
+     * Mark a loaded result set as missing part of the upstream answer, e.g. after a deadline
+     *
+     * @param results the results that did arrive
+     * @return unmodifiable view of the results, recognised by {@link #isIncomplete}
+     */
+    public static <T> List<T> incomplete(List<T> results) {
+        return new IncompleteResults<>(results);
+    }
+
+    /**
+     * Whether a loaded result set was marked with {@link #incomplete}
+     *
+     * @param results loaded results
+     * @return true if part of the upstream answer is missing
+     */
+    public static boolean isIncomplete(List<?> results) {
+        return results instanceof IncompleteResults;
+    }
+
+    /**
+     * Drop every negative entry, e.g. when the caches are cleared by an admin
+     */
+    public void clearNegativeResults() {
+        getCache(NEGATIVE_CACHE).clear();
+    }
+
+    /**
+     * Get stale-while-revalidate statistics per cache
+     *
+     * @return map of cache name to stale hits served, refreshes started and failed, and negative hits
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+
+        metrics.forEach((cacheName, cacheMetrics) -> {
+            Map<String, Object> cacheStatistics = new LinkedHashMap<>();
+            cacheStatistics.put("staleHits", cacheMetrics.staleHits.sum());
+            cacheStatistics.put("refreshes", cacheMetrics.refreshes.sum());
+            cacheStatistics.put("refreshFailures", cacheMetrics.refreshFailures.sum());
+            cacheStatistics.put("negativeHits", cacheMetrics.negativeHits.sum());
+            statistics.put(cacheName, cacheStatistics);
+        });
+
+        return statistics;
+    }
+
+    private <T> void refreshInBackground(Cache cache, String cacheName, String key,
+                                         Supplier<CompletableFuture<List<T>>> loader) {
+        RefreshMetrics cacheMetrics = metrics.computeIfAbsent(cacheName, c -> new RefreshMetrics());
+        cacheMetrics.staleHits.increment();
+
+        // One refresh per key; later stale hits keep serving the old entry until it lands
+        String refreshKey = cacheName + ':' + key;
+        if (!refreshing.add(refreshKey)) {
+            return;
+        }
+
+        cacheMetrics.refreshes.increment();
+        requestCoalescer.executeAsync(cacheName, key, () -> load(cache, cacheName, key, loader))
+                .whenComplete((result, error) -> {
+                    refreshing.remove(refreshKey);
+                    if (error != null) {
+                        cacheMetrics.refreshFailures.increment();
+                        logger.warn("Background refresh failed in {} for {}: {}", cacheName, key, error.getMessage());
+                    }
+                });
+    }
+
+    private <T> CompletableFuture<CachedResult<T>> load(Cache cache, String cacheName, String key,
+                                                        Supplier<CompletableFuture<List<T>>> loader) {
+        return loader.get().handle((loaded, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (isCacheableFailure(cause)) {
+                    getCache(NEGATIVE_CACHE).put(negativeKey(cacheName, key), new NegativeResult(cause, Instant.now()));
+                }
+                throw error instanceof CompletionException completionException ? completionException : new CompletionException(error);
+            }
+
+            if (isIncomplete(loaded)) {
+                // Served once, neither cached nor counted as a price observation; stays marked for the page
+                logger.debug("Not caching incomplete results in {} for {}", cacheName, key);
+                return new CachedResult<>(incomplete(List.copyOf(loaded)), Instant.now(), false, null);
+            }
+
+            CachedResult<T> result = CachedResult.fresh(loaded, adaptiveTtlPolicy.freshFor(cacheName, key, loaded));
+            if (!result.results().isEmpty()) {
+                cache.put(key, result);
+            } else {
+                getCache(NEGATIVE_CACHE).put(negativeKey(cacheName, key), new NegativeResult(null, result.fetchedAt()));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Whether the failure is a definitive answer about the request itself (upstream 4xx) rather
+     * than about the upstream's or our own state (expired token, rate limit, 5xx, timeouts)
+     */
+    private static boolean isCacheableFailure(Throwable failure) {
+        if (failure instanceof WebClientResponseException response) {
+            HttpStatusCode status = response.getStatusCode();
+            return status.is4xxClientError()
+                    && status.value() != HttpStatus.UNAUTHORIZED.value()
+                    && status.value() != HttpStatus.FORBIDDEN.value()
+                    && status.value() != HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return false;
+    }
+
+    private static String negativeKey(String cacheName, String key) {
+        return cacheName + ':' + key;
+    }
+
+    private Duration getSoftTtl(String cacheName) {
+        CacheConfig.CacheSpec spec = cacheConfig.getCaches().get(cacheName);
+        return spec != null ? spec.getSoftTtl() : null;
+    }
+
+    private Cache getCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + cacheName);
+        }
+        return cache;
+    }
+
+    private static class RefreshMetrics {
+        private final LongAdder staleHits = new LongAdder();
+        private final LongAdder refreshes = new LongAdder();
+        private final LongAdder refreshFailures = new LongAdder();
+        private final LongAdder negativeHits = new LongAdder();
+    }
+
+    private static final class IncompleteResults<T> extends AbstractList<T> {
+
+        private final List<T> results;
+
+        private IncompleteResults(List<T> results) {
+            this.results = results;
+        }
+
+        @Override
+        public T get(int index) {
+            return results.get(index);
+        }
+
+        @Override
+        public int size() {
+            return results.size();
+        }
+    }
+
+    /**
+     * Negative cache entry: an empty result set (no failure) or the upstream 4xx it failed with
+     */
+    private record NegativeResult(Throwable failure, Instant fetchedAt) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.TripFinder.component;
+
+import com.TripFinder.entity.Booking;
+import com.TripFinder.entity.Itinerary;
+import com.TripFinder.entity.User;
+import com.TripFinder.enums.Role;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Feeds entity lifecycle events into {@link SystemStatisticsTracker} and booking changes into
+ * {@link BookingRollupTracker}. Registered as Hibernate post-commit listeners, so only committed
+ * inserts, updates and deletes are counted; rolled-back work never reaches the counters.
+ */
+@Component
+public class StatisticsEventListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SystemStatisticsTracker systemStatisticsTracker;
+
+    @Autowired
+    private BookingRollupTracker bookingRollupTracker;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof User user) {
+            systemStatisticsTracker.userAdded(user.getRole());
+        } else if (entity instanceof Booking booking) {
+            systemStatisticsTracker.bookingAdded(booking.getStatus());
+            bookingRollupTracker.bookingAdded(booking.getId(), BookingRollupTracker.Contribution.of(booking));
+        } else if (entity instanceof Itinerary) {
+            systemStatisticsTracker.itineraryAdded();
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // Without the loaded state the change cannot be attributed; reconciliation catches it
+        if (event.getOldState() == null) {
+            return;
+        }
+
+        Object entity = event.getEntity();
+        if (entity instanceof User) {
+            Role from = (Role) previousValue(event, "role");
+            Role to = (Role) currentValue(event, "role");
+            if (from != to) {
+                systemStatisticsTracker.userRoleChanged(from, to);
+            }
+        } else if (entity instanceof Booking booking) {
+            Booking.BookingStatus from = (Booking.BookingStatus) previousValue(event, "status");
+            Booking.BookingStatus to = (Booking.BookingStatus) currentValue(event, "status");
+            if (from != to) {
+                systemStatisticsTracker.bookingStatusChanged(from, to);
+            }
+
+            BookingRollupTracker.Contribution before = BookingRollupTracker.Contribution.of(
+                    (LocalDateTime) previousValue(event, "bookingDate"),
+                    (Booking.BookingType) previousValue(event, "bookingType"),
+                    from,
+                    (String) previousValue(event, "provider"),
+                    (String) previousValue(event, "currency"),
+                    (BigDecimal) previousValue(event, "totalAmount"));
+            bookingRollupTracker.bookingUpdated(booking.getId(), before, BookingRollupTracker.Contribution.of(booking));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof User user) {
+            systemStatisticsTracker.userRemoved(user.getRole());
+        } else if (entity instanceof Booking booking) {
+            systemStatisticsTracker.bookingRemoved(booking.getStatus());
+            bookingRollupTracker.bookingRemoved(booking.getId(), BookingRollupTracker.Contribution.of(booking));
+        } else if (entity instanceof Itinerary) {
+            systemStatisticsTracker.itineraryRemoved();
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == User.class || type == Booking.class || type == Itinerary.class;
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was counted before commit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was counted before commit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was counted before commit
+    }
+
+    private static Object previousValue(PostUpdateEvent event, String property) {
+        return event.getOldState()[propertyIndex(event.getPersister(), property)];
+    }
+
+    private static Object currentValue(PostUpdateEvent event, String property) {
+        return event.getState()[propertyIndex(event.getPersister(), property)];
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException(persister.getEntityName() + " has no property " + property);
+    }
+}
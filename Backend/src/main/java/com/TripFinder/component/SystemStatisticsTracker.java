@@ -0,0 +1,234 @@
+package com.TripFinder.component;
+
+import com.TripFinder.entity.Booking;
+import com.TripFinder.entity.StatisticsCheckpoint;
+import com.TripFinder.enums.Role;
+import com.TripFinder.repository.BookingRepo;
+import com.TripFinder.repository.ItineraryRepo;
+import com.TripFinder.repository.StatisticsCheckpointRepo;
+import com.TripFinder.repository.UserRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory system statistics for the admin dashboard (users by role, bookings by status,
+ * itineraries), so reading them costs no queries. Counters are striped {@link LongAdder}s kept
+ * up to date by {@link StatisticsEventListener} from committed inserts, updates and deletes.
+ * <p>
+ * Counter values are checkpointed to {@code statistics_checkpoints} every
+ * {@code app.statistics.checkpoint-interval}, and a restart resumes from the checkpoint
+ * instead of counting tables. Changes the events cannot see (bulk JPQL, direct SQL, changes
+ * missed around a restart) are corrected by reconciliation: every
+ * {@code app.statistics.reconcile-interval} the tables are counted once and each counter is
+ * moved to the real value. Without a checkpoint the first reconciliation runs at startup.
+ */
+@Component
+public class SystemStatisticsTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemStatisticsTracker.class);
+
+    static final String USERS = "users";
+    static final String BOOKINGS = "bookings";
+    static final String ITINERARIES = "itineraries";
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private BookingRepo bookingRepo;
+
+    @Autowired
+    private ItineraryRepo itineraryRepo;
+
+    @Autowired
+    private StatisticsCheckpointRepo statisticsCheckpointRepo;
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // Checkpoints are only written once the counters hold complete values
+    private volatile boolean initialized;
+    private volatile Instant lastReconciledAt;
+    private volatile Instant lastCheckpointAt;
+
+    public void userAdded(Role role) {
+        counter(USERS).increment();
+        counter(userKey(role)).increment();
+    }
+
+    public void userRemoved(Role role) {
+        counter(USERS).decrement();
+        counter(userKey(role)).decrement();
+    }
+
+    public void userRoleChanged(Role from, Role to) {
+        counter(userKey(from)).decrement();
+        counter(userKey(to)).increment();
+    }
+
+    public void bookingAdded(Booking.BookingStatus status) {
+        counter(BOOKINGS).increment();
+        counter(bookingKey(status)).increment();
+    }
+
+    public void bookingRemoved(Booking.BookingStatus status) {
+        counter(BOOKINGS).decrement();
+        counter(bookingKey(status)).decrement();
+    }
+
+    public void bookingStatusChanged(Booking.BookingStatus from, Booking.BookingStatus to) {
+        counter(bookingKey(from)).decrement();
+        counter(bookingKey(to)).increment();
+    }
+
+    public void itineraryAdded() {
+        counter(ITINERARIES).increment();
+    }
+
+    public void itineraryRemoved() {
+        counter(ITINERARIES).decrement();
+    }
+
+    /**
+     * Get the current statistics without touching the database
+     *
+     * @return totals by entity, users by role, bookings by status, and when they were last reconciled and checkpointed
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Long> bookingsByStatus = new LinkedHashMap<>();
+        for (Booking.BookingStatus status : Booking.BookingStatus.values()) {
+            long count = value(bookingKey(status));
+            if (count != 0) {
+                bookingsByStatus.put(status.name(), count);
+            }
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalUsers", value(USERS));
+        statistics.put("adminUsers", value(userKey(Role.ADMIN)));
+        statistics.put("regularUsers", value(userKey(Role.USER)));
+        statistics.put("totalBookings", value(BOOKINGS));
+        statistics.put("bookingsByStatus", bookingsByStatus);
+        statistics.put("totalItineraries", value(ITINERARIES));
+        statistics.put("lastReconciledAt", lastReconciledAt);
+        statistics.put("lastCheckpointAt", lastCheckpointAt);
+        return statistics;
+    }
+
+    /**
+     * Resume from the last checkpoint, or count the tables if there is none. Events recorded
+     * before this point are kept: the checkpoint is added to them, not written over them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<StatisticsCheckpoint> checkpoints = statisticsCheckpointRepo.findAll();
+        if (checkpoints.isEmpty()) {
+            reconcile();
+            return;
+        }
+
+        for (StatisticsCheckpoint checkpoint : checkpoints) {
+            counter(checkpoint.getName()).add(checkpoint.getValue());
+        }
+        initialized = true;
+        logger.info("Restored {} statistics counters from checkpoint", checkpoints.size());
+    }
+
+    /**
+     * Persist the current counter values
+     */
+    @Scheduled(fixedDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.statistics.checkpoint-interval:1m}')}",
+            initialDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.statistics.checkpoint-interval:1m}')}")
+    public void checkpoint() {
+        if (!initialized) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StatisticsCheckpoint> checkpoints = counters.entrySet().stream()
+                .map(entry -> new StatisticsCheckpoint(entry.getKey(), entry.getValue().sum(), now))
+                .toList();
+        statisticsCheckpointRepo.saveAll(checkpoints);
+        lastCheckpointAt = Instant.now();
+        logger.debug("Checkpointed {} statistics counters", checkpoints.size());
+    }
+
+    /**
+     * Count the tables and move every counter to the real value. Each counter is corrected by
+     * the difference to its value right after its query, so events recorded meanwhile are kept;
+     * a change committed while a query runs may still be off by one until the next run.
+     */
+    @Scheduled(fixedDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.statistics.reconcile-interval:1h}')}",
+            initialDelayString = "#{T(com.TripFinder.config.SchedulingConfig).millis('${app.statistics.reconcile-interval:1h}')}")
+    public void reconcile() {
+        long drift = 0;
+
+        drift += correct(USERS, userRepo.count());
+        for (Role role : Role.values()) {
+            drift += correct(userKey(role), userRepo.countByRole(role));
+        }
+
+        drift += correct(BOOKINGS, bookingRepo.count());
+        Map<String, Long> bookingsByStatus = new LinkedHashMap<>();
+        for (Object[] stat : bookingRepo.getBookingStatsByStatus()) {
+            bookingsByStatus.put(stat[0].toString(), (Long) stat[1]);
+        }
+        for (Booking.BookingStatus status : Booking.BookingStatus.values()) {
+            drift += correct(bookingKey(status), bookingsByStatus.getOrDefault(status.name(), 0L));
+        }
+
+        drift += correct(ITINERARIES, itineraryRepo.count());
+
+        lastReconciledAt = Instant.now();
+        if (initialized && drift != 0) {
+            logger.warn("Reconciled system statistics, corrected a total drift of {}", drift);
+        }
+        initialized = true;
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        try {
+            checkpoint();
+        } catch (Exception e) {
+            logger.warn("Failed to checkpoint statistics on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private long correct(String name, long actual) {
+        LongAdder adder = counter(name);
+        long delta = actual - adder.sum();
+        adder.add(delta);
+        return Math.abs(delta);
+    }
+
+    private LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    private long value(String name) {
+        LongAdder adder = counters.get(name);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    private static String userKey(Role role) {
+        return USERS + '.' + role.name();
+    }
+
+    private static String bookingKey(Booking.BookingStatus status) {
+        return BOOKINGS + '.' + status.name();
+    }
+}
@@ -1,35 +1,82 @@
 package com.TripFinder.config;
 
+import com.TripFinder.util.CachedResultExpiry;
+import com.TripFinder.util.CacheWeigher;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableCaching
 @ConfigurationProperties(prefix = "app")
 public class CacheConfig {
 
+    /**
+     * Caches that are always registered, even when no explicit spec is configured for them
+     */
+    public static final List<String> DEFAULT_CACHE_NAMES = List.of("flight-offers", "hotel-offers", "hotel-city-index", "negative-results");
+
     private RateLimit rateLimit = new RateLimit();
     private Api api = new Api();
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
 
+    /**
+     * Caffeine-backed cache manager. Every cache is bounded (by entry count or by weight),
+     * expires its entries and records hit/miss/eviction statistics. Caffeine's W-TinyLFU
+     * admission policy keeps frequently searched routes resident when the cache is full.
+     * Per-cache limits come from {@code app.caches.<cache-name>.*}; caches without an
+     * explicit spec (including ones created on demand) fall back to {@link CacheSpec} defaults.
+     */
     @Bean
     public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("amadeus-tokens", "flight-offers", "hotel-offers");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(buildCaffeine(new CacheSpec()));
+
+        Map<String, CacheSpec> specs = new LinkedHashMap<>();
+        DEFAULT_CACHE_NAMES.forEach(name -> specs.put(name, new CacheSpec()));
+        specs.putAll(caches);
+
+        specs.forEach((name, spec) -> cacheManager.registerCustomCache(name, buildCaffeine(spec).build()));
+        return cacheManager;
     }
 
-    @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder
-                .setConnectTimeout(Duration.ofMillis(30000))
-                .setReadTimeout(Duration.ofMillis(30000))
-                .build();
+    private Caffeine<Object, Object> buildCaffeine(CacheSpec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(new CacheWeigher());
+        } else {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+
+        if (spec.getAdaptiveTtl().isEnabled()) {
+            // Per-entry expiry; Caffeine does not combine it with the fixed expiry settings
+            builder.expireAfter(new CachedResultExpiry(
+                    spec.getExpireAfterWrite(), spec.getAdaptiveTtl().getHardTtlMultiplier()));
+        } else {
+            if (spec.getExpireAfterWrite() != null) {
+                builder.expireAfterWrite(spec.getExpireAfterWrite());
+            }
+
+            if (spec.getExpireAfterAccess() != null) {
+                builder.expireAfterAccess(spec.getExpireAfterAccess());
+            }
+        }
+
+        if (spec.isRecordStats()) {
+            builder.recordStats();
+        }
+
+        return builder;
     }
 
     // Getters and setters for configuration properties
@@ -49,6 +96,144 @@ public class CacheConfig {
         this.api = api;
     }
 
+    public Map<String, CacheSpec> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, CacheSpec> caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * Capacity and expiry settings for a single named cache.
+     * When {@code maximumWeight} is set it takes precedence over {@code maximumSize};
+     * entries are then weighed by {@link CacheWeigher} (roughly one unit per cached result).
+     * {@code softTtl}, if set, enables stale-while-revalidate in {@link com.TripFinder.component.SearchResultCache};
+     * {@code expireAfterWrite} is then the hard limit on staleness and should be longer.
+     * With {@code adaptiveTtl} enabled, search results get per-entry TTLs from
+     * {@link com.TripFinder.component.AdaptiveTtlPolicy} instead; the fixed settings then only apply
+     * to values without one, and {@code expireAfterAccess} is ignored.
+     */
+    public static class CacheSpec {
+        private long maximumSize = 1000;
+        private Long maximumWeight;
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+        private Duration expireAfterAccess;
+        private Duration softTtl;
+        private AdaptiveTtl adaptiveTtl = new AdaptiveTtl();
+        private boolean recordStats = true;
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(Long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public Duration getSoftTtl() {
+            return softTtl;
+        }
+
+        public void setSoftTtl(Duration softTtl) {
+            this.softTtl = softTtl;
+        }
+
+        public AdaptiveTtl getAdaptiveTtl() {
+            return adaptiveTtl;
+        }
+
+        public void setAdaptiveTtl(AdaptiveTtl adaptiveTtl) {
+            this.adaptiveTtl = adaptiveTtl;
+        }
+
+        public boolean isRecordStats() {
+            return recordStats;
+        }
+
+        public void setRecordStats(boolean recordStats) {
+            this.recordStats = recordStats;
+        }
+    }
+
+    /**
+     * Settings of {@link com.TripFinder.component.AdaptiveTtlPolicy}: the soft TTL of an entry grows
+     * linearly from {@code minTtl} for travel today to {@code maxTtl} for travel {@code horizon} or
+     * more away, and shrinks for keys whose prices keep changing. Entries expire for good after
+     * {@code hardTtlMultiplier} times their soft TTL.
+     */
+    public static class AdaptiveTtl {
+        private boolean enabled = false;
+        private Duration minTtl = Duration.ofMinutes(5);
+        private Duration maxTtl = Duration.ofHours(6);
+        private Duration horizon = Duration.ofDays(180);
+        private double hardTtlMultiplier = 3.0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMinTtl() {
+            return minTtl;
+        }
+
+        public void setMinTtl(Duration minTtl) {
+            this.minTtl = minTtl;
+        }
+
+        public Duration getMaxTtl() {
+            return maxTtl;
+        }
+
+        public void setMaxTtl(Duration maxTtl) {
+            this.maxTtl = maxTtl;
+        }
+
+        public Duration getHorizon() {
+            return horizon;
+        }
+
+        public void setHorizon(Duration horizon) {
+            this.horizon = horizon;
+        }
+
+        public double getHardTtlMultiplier() {
+            return hardTtlMultiplier;
+        }
+
+        public void setHardTtlMultiplier(double hardTtlMultiplier) {
+            this.hardTtlMultiplier = hardTtlMultiplier;
+        }
+    }
+
     public static class RateLimit {
         private Amadeus amadeus = new Amadeus();
 
@@ -63,6 +248,7 @@ public class CacheConfig {
         public static class Amadeus {
             private int requestsPerSecond = 10;
             private int burstCapacity = 20;
+            private Duration maxWait = Duration.ofMillis(250);
 
             public int getRequestsPerSecond() {
                 return requestsPerSecond;
@@ -79,6 +265,14 @@ public class CacheConfig {
             public void setBurstCapacity(int burstCapacity) {
                 this.burstCapacity = burstCapacity;
             }
+
+            public Duration getMaxWait() {
+                return maxWait;
+            }
+
+            public void setMaxWait(Duration maxWait) {
+                this.maxWait = maxWait;
+            }
         }
     }
 
@@ -96,6 +290,10 @@ public class CacheConfig {
         public static class Fallback {
             private boolean enabled = true;
             private int minResults = 5;
+            // Last-known-good results older than this are never served
+            private Duration lastKnownGoodMaxAge = Duration.ofDays(7);
+            // How many days either side of the requested date a last-known-good result may come from
+            private int nearbyDays = 3;
 
             public boolean isEnabled() {
                 return enabled;
@@ -112,6 +310,22 @@ public class CacheConfig {
             public void setMinResults(int minResults) {
                 this.minResults = minResults;
             }
+
+            public Duration getLastKnownGoodMaxAge() {
+                return lastKnownGoodMaxAge;
+            }
+
+            public void setLastKnownGoodMaxAge(Duration lastKnownGoodMaxAge) {
+                this.lastKnownGoodMaxAge = lastKnownGoodMaxAge;
+            }
+
+            public int getNearbyDays() {
+                return nearbyDays;
+            }
+
+            public void setNearbyDays(int nearbyDays) {
+                this.nearbyDays = nearbyDays;
+            }
         }
     }
 }
\ No newline at end of file
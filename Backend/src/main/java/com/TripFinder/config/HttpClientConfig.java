@@ -0,0 +1,192 @@
+package com.TripFinder.config;
+
+import com.TripFinder.component.HttpPoolMetrics;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared outbound HTTP transport. Both the blocking {@link RestTemplate} (Apache HttpClient 5)
+ * and the reactive {@link WebClient} (Reactor Netty) keep pooled, keep-alive connections,
+ * so TLS handshakes to Amadeus and the weather API are paid once per connection rather than
+ * once per request. Both ask for gzip and decode it transparently.
+ * Settings come from {@code app.http.*}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.http")
+public class HttpClientConfig {
+
+    // Largest upstream response body buffered by WebClient; 250 flight offers run to a few MB
+    private static final int MAX_RESPONSE_BYTES = 16 * 1024 * 1024;
+
+    private static final int HTTPS_PORT = 443;
+
+    private int maxConnections = 100;
+    private int maxConnectionsPerRoute = 20;
+    private Map<String, Integer> maxConnectionsPerHost = new LinkedHashMap<>();
+    private Duration connectTimeout = Duration.ofSeconds(30);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Connection pool for the Apache client. Per-host overrides from
+     * {@code app.http.max-connections-per-host[<host>]} apply to HTTPS routes.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        maxConnectionsPerHost.forEach((host, max) -> connectionManager.setMaxPerRoute(
+                new HttpRoute(new HttpHost("https", host, HTTPS_PORT), null, true), max));
+
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        // Content compression (Accept-Encoding plus gzip/deflate decoding) is on by default
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        // Used when the server sends no Keep-Alive header
+                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+
+    /**
+     * Connection pool for WebClient. Reactor Netty keeps one pool per remote address, so
+     * {@code maxConnectionsPerRoute} bounds each host and per-host overrides apply as for
+     * the Apache pool.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider webClientConnectionProvider(HttpPoolMetrics httpPoolMetrics) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("outbound")
+                .maxConnections(maxConnectionsPerRoute)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(keepAlive)
+                .metrics(true, () -> httpPoolMetrics);
+
+        maxConnectionsPerHost.forEach((host, max) -> builder.forRemoteHost(
+                InetSocketAddress.createUnresolved(host, HTTPS_PORT), spec -> spec.maxConnections(max)));
+
+        return builder.build();
+    }
+
+    /**
+     * Non-blocking client for Amadeus calls. Requests run on the shared Netty event loops,
+     * so a slow upstream call no longer holds a servlet thread for its whole duration.
+     */
+    @Bean
+    public WebClient webClient(WebClient.Builder builder, ConnectionProvider webClientConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(webClientConnectionProvider)
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_RESPONSE_BYTES))
+                .build();
+    }
+
+    // Getters and setters for configuration properties
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public Map<String, Integer> getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public void setMaxConnectionsPerHost(Map<String, Integer> maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+}
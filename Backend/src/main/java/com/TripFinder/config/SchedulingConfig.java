@@ -0,0 +1,26 @@
+package com.TripFinder.config;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (statistics checkpoints and reconciliation,
+ * booking rollups, itinerary respacing)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Interval property in either duration style ({@code 5s} or {@code PT5S}) as milliseconds.
+     * {@code @Scheduled} only parses ISO-8601 itself, so job intervals are resolved with
+     * {@code #{T(com.TripFinder.config.SchedulingConfig).millis('${...}')}}.
+     *
+     * @param interval duration text from the property
+     * @return interval in milliseconds
+     */
+    public static long millis(String interval) {
+        return DurationStyle.detectAndParse(interval).toMillis();
+    }
+}
@@ -1,19 +1,35 @@
 package com.TripFinder.controller;
 
-import com.TripFinder.dto.AdminUserDto;
+import com.TripFinder.dto.AdminBookingDto;
+import com.TripFinder.dto.AdminBookingPage;
+import com.TripFinder.dto.AdminUserPage;
+import com.TripFinder.dto.BookingAnalyticsBucket;
 import com.TripFinder.entity.Booking;
 import com.TripFinder.entity.User;
 import com.TripFinder.enums.Role;
+import com.TripFinder.enums.TimeGranularity;
 import com.TripFinder.service.AdminService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -24,48 +40,136 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/admin")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = AdminController.NEXT_CURSOR_HEADER)
 @PreAuthorize("hasRole('ADMIN')")
 @Slf4j
 public class AdminController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * Get all users in the system with statistics
-     * GET /api/admin/users
+     * Get one window of the users in the system with statistics, using keyset pagination.
+     * The body is the list of users; the cursor of the next window is in the X-Next-Cursor header.
+     * GET /api/admin/users?sortBy=id&direction=asc&size=50&cursor=...
      */
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getUsers(@RequestParam(defaultValue = "id") String sortBy,
+                                      @RequestParam(defaultValue = "asc") String direction,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "50") int size) {
         try {
-            log.info("Admin request: Get all users");
-            List<AdminUserDto> users = adminService.getAllUsers();
-            return ResponseEntity.ok(users);
+            log.info("Admin request: Get users");
+            AdminUserPage page = adminService.getUsers(sortBy, direction, cursor, size);
+            
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.users());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid user listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            log.error("Error fetching all users: {}", e.getMessage());
+            log.error("Error fetching users: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch users: " + e.getMessage()));
         }
     }
 
     /**
-     * Get all bookings in the system
-     * GET /api/admin/bookings
+     * Get one window of the bookings in the system, newest first, using keyset pagination.
+     * Filters are optional; from and to are inclusive booking days (yyyy-MM-dd).
+     * The body is the list of bookings; the cursor of the next window is in the X-Next-Cursor header.
+     * GET /api/admin/bookings?status=CONFIRMED&from=2024-01-01&to=2024-12-31&size=50&cursor=...
      */
     @GetMapping("/bookings")
-    public ResponseEntity<?> getAllBookings() {
+    public ResponseEntity<?> getBookings(@RequestParam(required = false) Booking.BookingStatus status,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int size) {
         try {
-            log.info("Admin request: Get all bookings");
-            List<Booking> bookings = adminService.getAllBookings();
-            return ResponseEntity.ok(bookings);
+            log.info("Admin request: Get bookings");
+            AdminBookingPage page = adminService.getBookings(status, from, to, cursor, size);
+            
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.bookings());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid booking listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            log.error("Error fetching all bookings: {}", e.getMessage());
+            log.error("Error fetching bookings: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch bookings: " + e.getMessage()));
         }
     }
 
+    /**
+     * Export all bookings matching the filters as a download, streamed one window at a time.
+     * Format is ndjson (one JSON booking per line) or csv.
+     * GET /api/admin/bookings/export?format=csv&status=CONFIRMED&from=2024-01-01&to=2024-12-31
+     */
+    @GetMapping("/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(required = false) Booking.BookingStatus status,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return exportError("Invalid format. Must be ndjson or csv");
+        }
+        // Checked up front: once streaming has started the status can no longer change
+        if (from != null && to != null && from.isAfter(to)) {
+            return exportError("Booking date range starts after it ends");
+        }
+
+        log.info("Admin request: Export bookings as {}", format);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(AdminBookingDto.csvHeader());
+                writer.write('\n');
+            }
+            adminService.exportBookings(status, from, to, window -> {
+                try {
+                    for (AdminBookingDto booking : window) {
+                        writer.write(csv ? booking.toCsvRow() : objectMapper.writeValueAsString(booking));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportError(String message) {
+        log.error("Invalid booking export request: {}", message);
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, Map.of("error", message)));
+    }
+
     /**
      * Delete a booking by ID
      * DELETE /api/admin/bookings/{id}
@@ -152,6 +256,58 @@ public class AdminController {
         }
     }
 
+    /**
+     * Get bookings and their total amounts per day, week or month, answered from the booking rollups.
+     * Defaults to the last 30 days by day; weeks and months always cover whole buckets, so the range is
+     * widened to the first and last bucket it touches. groupBy adds breakdowns by bookingType, status and/or provider.
+     * GET /api/admin/analytics/bookings?granularity=WEEK&from=2024-01-01&to=2024-03-31&groupBy=bookingType,status
+     */
+    @GetMapping("/analytics/bookings")
+    public ResponseEntity<?> getBookingAnalytics(@RequestParam(defaultValue = "DAY") String granularity,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 @RequestParam(required = false) List<String> groupBy) {
+        try {
+            TimeGranularity bucketSize;
+            try {
+                bucketSize = TimeGranularity.valueOf(granularity.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Invalid granularity. Must be DAY, WEEK or MONTH"));
+            }
+
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+
+            log.info("Admin request: Get booking analytics");
+            List<BookingAnalyticsBucket> buckets = adminService.getBookingAnalytics(bucketSize, start, end, groupBy);
+            return ResponseEntity.ok(buckets);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid booking analytics request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching booking analytics: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch booking analytics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Rebuild the booking rollups from the bookings table in the background
+     * POST /api/admin/analytics/bookings/backfill
+     */
+    @PostMapping("/analytics/bookings/backfill")
+    public ResponseEntity<?> backfillBookingRollups() {
+        log.info("Admin request: Backfill booking rollups");
+        if (!adminService.startBookingRollupBackfill()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A booking rollup backfill is already running"));
+        }
+        return ResponseEntity.accepted()
+                .body(Map.of("message", "Booking rollup backfill started"));
+    }
+
     /**
      * Get user-specific statistics
      * GET /api/admin/users/{id}/statistics
@@ -23,6 +23,9 @@ public class DestinationController {
     @Autowired
     private DestinationService destinationService;
 
+    @Autowired
+    private RestTemplate restTemplate;
+
     /**
      * Get all destinations.
      *
@@ -56,8 +59,6 @@ public class DestinationController {
     @GetMapping("/weather/{city}")
     public ResponseEntity<?> getWeatherByCity(@PathVariable String city) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
-
             // 1. Geocoding: Get latitude and longitude from city name
             String geoUrl = "https://geocoding-api.open-meteo.com/v1/search?name=" + city;
             Map geoResponse = restTemplate.getForObject(geoUrl, Map.class);
@@ -1,7 +1,9 @@
 package com.TripFinder.controller;
 
+import com.TripFinder.dto.FlexibleDateSearchResponse;
 import com.TripFinder.dto.FlightSearchRequest;
 import com.TripFinder.dto.FlightResponse;
+import com.TripFinder.dto.SearchResultPage;
 import com.TripFinder.service.FlightService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for flight search operations using Amadeus API
@@ -35,12 +38,12 @@ public class FlightController {
      * @param searchRequest Flight search parameters
      * @param page Page number (0-based)
      * @param size Page size (max 50)
-     * @param sortBy Sort field (price, duration, departure_time)
+     * @param sortBy Sort field (price, duration, departure_time, stops)
      * @param sortOrder Sort order (asc, desc)
      * @return Paginated flight results
      */
     @PostMapping("/search")
-    public ResponseEntity<Page<FlightResponse>> searchFlights(
+    public CompletableFuture<ResponseEntity<Page<FlightResponse>>> searchFlights(
             @Valid @RequestBody FlightSearchRequest searchRequest,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -57,16 +60,48 @@ public class FlightController {
         searchRequest.setSortOrder(sortOrder);
         
         Pageable pageable = PageRequest.of(page, Math.min(size, 50));
-        Page<FlightResponse> results = flightService.searchFlights(searchRequest, pageable);
+        return flightService.searchFlightsAsync(searchRequest, pageable)
+                .thenApply(results -> ResponseEntity.ok().headers(SearchResultPage.ageHeaders(results)).body(results));
+    }
+    
+    /**
+     * Flexible-date search: cheapest price for each day within +/- flexibleDays of the
+     * departure date, plus the paginated offers for the departure date itself
+     *
+     * @param searchRequest Flight search parameters, including flexibleDays (0-3, default 3)
+     * @param page Page number (0-based) of the departure date's offers
+     * @param size Page size (max 50)
+     * @param sortBy Sort field (price, duration, departure_time, stops)
+     * @param sortOrder Sort order (asc, desc)
+     * @return Price calendar and offers for the requested day
+     */
+    @PostMapping("/search/flexible")
+    public CompletableFuture<ResponseEntity<FlexibleDateSearchResponse>> searchFlexibleDates(
+            @Valid @RequestBody FlightSearchRequest searchRequest,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "price") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortOrder) {
+        
+        logger.info("Flexible-date flight search request: {} -> {} around {}", 
+                searchRequest.getOrigin(), searchRequest.getDestination(), searchRequest.getDepartureDate());
+        
+        searchRequest.setPage(page + 1); // Convert to 1-based
+        searchRequest.setSize(Math.min(size, 50)); // Cap at 50
+        searchRequest.setSortBy(sortBy);
+        searchRequest.setSortOrder(sortOrder);
         
-        return ResponseEntity.ok(results);
+        Pageable pageable = PageRequest.of(page, Math.min(size, 50));
+        return flightService.searchFlexibleDates(searchRequest, pageable)
+                .thenApply(response -> ResponseEntity.ok()
+                        .headers(SearchResultPage.ageHeaders(response.getOffers())).body(response));
     }
     
     /**
      * Legacy GET endpoint for backward compatibility
      */
     @GetMapping
-    public ResponseEntity<Page<FlightResponse>> getFlights(
+    public CompletableFuture<ResponseEntity<Page<FlightResponse>>> getFlights(
             @RequestParam String from,
             @RequestParam String to,
             @RequestParam String date,
@@ -92,9 +127,8 @@ public class FlightController {
                 .build();
         
         Pageable pageable = PageRequest.of(page, Math.min(size, 50));
-        Page<FlightResponse> results = flightService.searchFlights(searchRequest, pageable);
-        
-        return ResponseEntity.ok(results);
+        return flightService.searchFlightsAsync(searchRequest, pageable)
+                .thenApply(results -> ResponseEntity.ok().headers(SearchResultPage.ageHeaders(results)).body(results));
     }
     
     /**
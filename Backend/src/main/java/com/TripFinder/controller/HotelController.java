@@ -2,6 +2,7 @@ package com.TripFinder.controller;
 
 import com.TripFinder.dto.HotelSearchRequest;
 import com.TripFinder.dto.HotelResponse;
+import com.TripFinder.dto.SearchResultPage;
 import com.TripFinder.entity.Hotel;
 import com.TripFinder.service.HotelService;
 import jakarta.validation.Valid;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for hotel search operations using Amadeus API
@@ -50,7 +52,7 @@ public class HotelController {
      * @return Paginated hotel results
      */
     @PostMapping("/search")
-    public ResponseEntity<Page<HotelResponse>> searchHotels(
+    public CompletableFuture<ResponseEntity<Page<HotelResponse>>> searchHotels(
             @Valid @RequestBody HotelSearchRequest searchRequest,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
@@ -67,16 +69,15 @@ public class HotelController {
         searchRequest.setSortOrder(sortOrder);
         
         Pageable pageable = PageRequest.of(page, Math.min(size, 50));
-        Page<HotelResponse> results = hotelService.searchHotels(searchRequest, pageable);
-        
-        return ResponseEntity.ok(results);
+        return hotelService.searchHotelsAsync(searchRequest, pageable)
+                .thenApply(results -> ResponseEntity.ok().headers(SearchResultPage.ageHeaders(results)).body(results));
     }
     
     /**
      * GET endpoint for hotel search (backward compatibility)
      */
     @GetMapping("/search")
-    public ResponseEntity<Page<HotelResponse>> getHotels(
+    public CompletableFuture<ResponseEntity<Page<HotelResponse>>> getHotels(
             @RequestParam String cityCode,
             @RequestParam String checkIn,
             @RequestParam String checkOut,
@@ -102,9 +103,8 @@ public class HotelController {
                 .build();
         
         Pageable pageable = PageRequest.of(page, Math.min(size, 50));
-        Page<HotelResponse> results = hotelService.searchHotels(searchRequest, pageable);
-        
-        return ResponseEntity.ok(results);
+        return hotelService.searchHotelsAsync(searchRequest, pageable)
+                .thenApply(results -> ResponseEntity.ok().headers(SearchResultPage.ageHeaders(results)).body(results));
     }
     
     /**
@@ -0,0 +1,65 @@
+package com.TripFinder.controller;
+
+import com.TripFinder.service.MonitoringService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST Controller exposing runtime statistics of the search infrastructure.
+ * All endpoints require admin role authorization.
+ */
+@RestController
+@RequestMapping("/api/admin/monitoring")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+public class MonitoringController {
+
+    @Autowired
+    private MonitoringService monitoringService;
+
+    /**
+     * Get cache hit/miss/eviction statistics
+     * GET /api/admin/monitoring/caches
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        log.info("Admin request: Get cache statistics");
+        return ResponseEntity.ok(monitoringService.getCacheStatistics());
+    }
+
+    /**
+     * Get statistics on concurrent identical upstream requests that were coalesced
+     * GET /api/admin/monitoring/coalescing
+     */
+    @GetMapping("/coalescing")
+    public ResponseEntity<Map<String, Object>> getCoalescingStatistics() {
+        log.info("Admin request: Get request coalescing statistics");
+        return ResponseEntity.ok(monitoringService.getCoalescingStatistics());
+    }
+
+    /**
+     * Get statistics of the shared Amadeus rate limiter
+     * GET /api/admin/monitoring/rate-limiter
+     */
+    @GetMapping("/rate-limiter")
+    public ResponseEntity<Map<String, Object>> getRateLimiterStatistics() {
+        log.info("Admin request: Get rate limiter statistics");
+        return ResponseEntity.ok(monitoringService.getRateLimiterStatistics());
+    }
+
+    /**
+     * Get outbound HTTP connection-pool statistics
+     * GET /api/admin/monitoring/http-pool
+     */
+    @GetMapping("/http-pool")
+    public ResponseEntity<Map<String, Object>> getHttpPoolStatistics() {
+        log.info("Admin request: Get HTTP connection pool statistics");
+        return ResponseEntity.ok(monitoringService.getHttpPoolStatistics());
+    }
+}
@@ -0,0 +1,125 @@
+package com.TripFinder.dto;
+
+import com.TripFinder.entity.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for admin booking information.
+ * Carries only a summary of the booking's user and itinerary, so listing bookings neither
+ * loads the entities nor exposes user credentials.
+ */
+public record AdminBookingDto(
+    Long id,
+    String bookingReference,
+    Booking.BookingType bookingType,
+    String provider,
+    BigDecimal totalAmount,
+    String currency,
+    Booking.BookingStatus status,
+    LocalDateTime bookingDate,
+    LocalDateTime confirmationDate,
+    LocalDateTime cancellationDate,
+    String notes,
+    UserSummary user,
+    ItinerarySummary itinerary
+) {
+
+    private static final String CSV_HEADER = "id,bookingReference,bookingType,provider,totalAmount,currency,status,"
+            + "bookingDate,confirmationDate,cancellationDate,userId,userFullName,userEmail,itineraryId,tripName";
+
+    /**
+     * Flat constructor for JPQL constructor expressions
+     */
+    public AdminBookingDto(
+            Long id,
+            String bookingReference,
+            Booking.BookingType bookingType,
+            String provider,
+            BigDecimal totalAmount,
+            String currency,
+            Booking.BookingStatus status,
+            LocalDateTime bookingDate,
+            LocalDateTime confirmationDate,
+            LocalDateTime cancellationDate,
+            String notes,
+            Integer userId,
+            String userFullName,
+            String userEmail,
+            Long itineraryId,
+            String tripName
+    ) {
+        this(id, bookingReference, bookingType, provider, totalAmount, currency, status,
+            bookingDate, confirmationDate, cancellationDate, notes,
+            new UserSummary(userId, userFullName, userEmail),
+            new ItinerarySummary(itineraryId, tripName));
+    }
+
+    /**
+     * Header row matching {@link #toCsvRow()}
+     */
+    public static String csvHeader() {
+        return CSV_HEADER;
+    }
+
+    /**
+     * Booking as one RFC 4180 CSV row, without notes.
+     * Free-text fields are neutralised against spreadsheet formula injection.
+     */
+    public String toCsvRow() {
+        return String.join(",",
+            csv(id),
+            csv(text(bookingReference)),
+            csv(bookingType),
+            csv(text(provider)),
+            csv(totalAmount != null ? totalAmount.toPlainString() : null),
+            csv(text(currency)),
+            csv(status),
+            csv(bookingDate),
+            csv(confirmationDate),
+            csv(cancellationDate),
+            csv(user.id()),
+            csv(text(user.fullName())),
+            csv(text(user.email())),
+            csv(itinerary.id()),
+            csv(text(itinerary.tripName()))
+        );
+    }
+
+    /**
+     * Prefix text a spreadsheet would evaluate as a formula ({@code =}, {@code +}, {@code -},
+     * {@code @}, tab or carriage return first) with {@code '}, so it is shown as text
+     */
+    private static String text(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        return formula ? "'" + value : value;
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * The user who made the booking
+     */
+    public record UserSummary(Integer id, String fullName, String email) {
+    }
+
+    /**
+     * The itinerary the booking was made from
+     */
+    public record ItinerarySummary(Long id, String tripName) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.TripFinder.dto;
+
+import java.util.List;
+
+/**
+ * One window of the admin user listing.
+ * The next window is requested with {@code nextCursor}, which is null on the last window.
+ */
+public record AdminUserPage(
+    List<AdminUserDto> users,
+    String nextCursor
+) {
+}
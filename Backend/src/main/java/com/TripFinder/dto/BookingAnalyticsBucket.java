@@ -0,0 +1,21 @@
+package com.TripFinder.dto;
+
+import com.TripFinder.entity.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Bookings and their total amount in one time bucket and breakdown.
+ * Breakdown fields that were not grouped by are null; amounts are never summed across currencies.
+ */
+public record BookingAnalyticsBucket(
+    LocalDate bucketStart,
+    Booking.BookingType bookingType,
+    Booking.BookingStatus status,
+    String provider,
+    String currency,
+    long bookings,
+    BigDecimal totalAmount
+) {
+}
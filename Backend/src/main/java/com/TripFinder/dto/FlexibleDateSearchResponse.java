@@ -0,0 +1,38 @@
+package com.TripFinder.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for flexible-date flight search responses: the cheapest fare for each day
+ * around the requested departure date, plus the offers for the requested day
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlexibleDateSearchResponse {
+
+    private LocalDate selectedDate;
+    private List<DayPrice> calendar;
+    private Page<FlightResponse> offers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DayPrice {
+        private LocalDate departureDate;
+        private LocalDate returnDate;
+        private Double cheapestPrice; // null when no offer matches or the day could not be searched
+        private String currency;
+        private Integer offerCount;
+        private Boolean available; // false if the upstream search for this day failed
+    }
+}
@@ -1,11 +1,16 @@
 package com.TripFinder.dto;
 
+import com.TripFinder.util.IsoDurations;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 /**
@@ -15,7 +20,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class FlightResponse {
+public class FlightResponse implements TravelOffer {
     
     private String id;
     private Double price;
@@ -25,6 +30,93 @@ public class FlightResponse {
     private List<Itinerary> itineraries;
     private PricingOptions pricingOptions;
     
+    // Primitive sort and filter keys derived from the itineraries by computeSortKeys();
+    // not serialized and not part of equality
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private int totalDurationMinutes;
+    
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private int longestItineraryMinutes;
+    
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private int stopCount;
+    
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long firstDepartureEpochMinute;
+    
+    @Override
+    public LocalDate travelDate() {
+        if (itineraries == null || itineraries.isEmpty()) {
+            return null;
+        }
+        List<Segment> segments = itineraries.get(0).getSegments();
+        if (segments == null || segments.isEmpty() || segments.get(0).getDeparture() == null
+                || segments.get(0).getDeparture().getAt() == null) {
+            return null;
+        }
+        return segments.get(0).getDeparture().getAt().toLocalDate();
+    }
+    
+    @Override
+    public Double offerPrice() {
+        return price;
+    }
+    
+    /**
+     * Derive the primitive sort and filter keys from the itineraries. Called once when the
+     * offer is built, so sorting and filtering never re-parse ISO durations or dates.
+     * Missing durations become {@link IsoDurations#UNKNOWN}; searches order them last in either direction.
+     *
+     * @return this offer
+     */
+    public FlightResponse computeSortKeys() {
+        int total = 0;
+        int longest = 0;
+        int stops = 0;
+        long firstDeparture = Long.MAX_VALUE;
+        
+        if (itineraries == null || itineraries.isEmpty()) {
+            total = IsoDurations.UNKNOWN;
+            longest = IsoDurations.UNKNOWN;
+        } else {
+            for (Itinerary itinerary : itineraries) {
+                int minutes = IsoDurations.toMinutes(itinerary.getDuration());
+                total = minutes == IsoDurations.UNKNOWN || total == IsoDurations.UNKNOWN
+                        ? IsoDurations.UNKNOWN : total + minutes;
+                longest = Math.max(longest, minutes);
+                
+                List<Segment> segments = itinerary.getSegments();
+                if (segments == null || segments.isEmpty()) {
+                    continue;
+                }
+                
+                // Connections plus technical stops within each segment
+                stops += segments.size() - 1;
+                for (Segment segment : segments) {
+                    if (segment.getNumberOfStops() != null) {
+                        stops += segment.getNumberOfStops();
+                    }
+                }
+                
+                Departure departure = segments.get(0).getDeparture();
+                if (firstDeparture == Long.MAX_VALUE && departure != null && departure.getAt() != null) {
+                    // Local departure time is what travelers compare, so no zone conversion
+                    firstDeparture = departure.getAt().toEpochSecond(ZoneOffset.UTC) / 60;
+                }
+            }
+        }
+        
+        this.totalDurationMinutes = total;
+        this.longestItineraryMinutes = longest;
+        this.stopCount = stops;
+        this.firstDepartureEpochMinute = firstDeparture;
+        return this;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
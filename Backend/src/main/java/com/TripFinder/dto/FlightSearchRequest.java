@@ -10,6 +10,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Objects;
 
 /**
  * DTO for flight search requests
@@ -17,7 +20,7 @@ import java.time.LocalDate;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class FlightSearchRequest {
 
     @NotBlank(message = "Origin is required")
@@ -66,4 +69,50 @@ public class FlightSearchRequest {
     private Integer maxDuration; // in minutes
 
     private String airline; // airline code filter
+
+    // Flexible-date search: also search this many days before and after the departure date
+    @Min(value = 0, message = "Flexible days cannot be negative")
+    @Max(value = 3, message = "Flexible days cannot exceed 3")
+    private Integer flexibleDays; // null: the service default
+
+    /**
+     * Canonical cache key built only from the parameters that change the upstream result set.
+     * Paging, sorting, client-side filters (maxPrice, maxDuration, airline) and the flexible-date
+     * window are excluded, so equivalent searches share one cached result set.
+     */
+    public String canonicalKey() {
+        return String.join("|",
+                normalize(origin),
+                normalize(destination),
+                String.valueOf(departureDate),
+                String.valueOf(returnDate),
+                String.valueOf(Objects.requireNonNullElse(adults, 1)),
+                String.valueOf(Objects.requireNonNullElse(children, 0)),
+                String.valueOf(Objects.requireNonNullElse(infants, 0)),
+                normalize(Objects.requireNonNullElse(travelClass, "ECONOMY")),
+                String.valueOf(Boolean.TRUE.equals(nonStop)),
+                normalize(Objects.requireNonNullElse(currency, "USD")));
+    }
+
+    /**
+     * Key of the route and travellers without the dates (trip length is kept), used to find
+     * results of the same search on a nearby day
+     */
+    public String routeKey() {
+        return String.join("|",
+                normalize(origin),
+                normalize(destination),
+                returnDate != null && departureDate != null
+                        ? String.valueOf(ChronoUnit.DAYS.between(departureDate, returnDate)) : "OW",
+                String.valueOf(Objects.requireNonNullElse(adults, 1)),
+                String.valueOf(Objects.requireNonNullElse(children, 0)),
+                String.valueOf(Objects.requireNonNullElse(infants, 0)),
+                normalize(Objects.requireNonNullElse(travelClass, "ECONOMY")),
+                String.valueOf(Boolean.TRUE.equals(nonStop)),
+                normalize(Objects.requireNonNullElse(currency, "USD")));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
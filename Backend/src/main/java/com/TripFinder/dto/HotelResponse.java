@@ -1,6 +1,9 @@
 package com.TripFinder.dto;
 
+import com.TripFinder.util.AmenityCodes;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,7 +18,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class HotelResponse {
+public class HotelResponse implements TravelOffer {
     
     private String hotelId;
     private String chainCode;
@@ -32,6 +35,60 @@ public class HotelResponse {
     private String lastUpdate;
     private List<RoomOffer> offers;
     
+    // Primitive filter keys derived from the amenities, rating and offers by computeFilterKeys();
+    // not serialized and not part of equality
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long amenityMask;
+    
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long ratingMask;
+    
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private double minOfferPrice;
+    
+    @Override
+    public LocalDate travelDate() {
+        return offers == null || offers.isEmpty() ? null : offers.get(0).getCheckInDate();
+    }
+    
+    @Override
+    public Double offerPrice() {
+        if (offers == null || offers.isEmpty() || offers.get(0).getPrice() == null) {
+            return null;
+        }
+        return offers.get(0).getPrice().getTotal();
+    }
+    
+    /**
+     * Derive the primitive filter keys: amenities as an {@link AmenityCodes} mask, the rating as
+     * a one-bit mask ({@code 1 << rating}) and the lowest offer total. Called once when the
+     * hotel is built, so filtering never walks the amenity or offer lists.
+     * The price is {@code NaN} when no offer has a total.
+     *
+     * @return this hotel
+     */
+    public HotelResponse computeFilterKeys() {
+        double min = Double.NaN;
+        
+        if (offers != null) {
+            for (RoomOffer offer : offers) {
+                if (offer == null || offer.getPrice() == null || offer.getPrice().getTotal() == null) {
+                    continue;
+                }
+                double total = offer.getPrice().getTotal();
+                min = Double.isNaN(min) ? total : Math.min(min, total);
+            }
+        }
+        
+        this.amenityMask = AmenityCodes.maskOf(amenities);
+        this.ratingMask = rating != null && rating >= 0 && rating < Long.SIZE ? 1L << rating : 0L;
+        this.minOfferPrice = min;
+        return this;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -10,7 +10,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 /**
  * DTO for hotel search requests
@@ -71,4 +74,68 @@ public class HotelSearchRequest {
     private Boolean includeClosed = false; // Include temporarily closed hotels
     
     private Boolean bestRateOnly = true; // Return only best rate per hotel
+
+    /**
+     * Canonical cache key built only from the parameters that change the upstream result set.
+     * Paging, sorting and client-side filters (amenities, ratings, price range) are excluded,
+     * so equivalent searches share one cached result set.
+     */
+    public String canonicalKey() {
+        return String.join("|",
+                normalize(cityCode),
+                normalize(Objects.requireNonNullElse(radius, "5")),
+                String.valueOf(checkInDate),
+                String.valueOf(checkOutDate),
+                String.valueOf(Objects.requireNonNullElse(adults, 1)),
+                String.valueOf(Objects.requireNonNullElse(rooms, 1)),
+                normalize(Objects.requireNonNullElse(currency, "USD")),
+                normalize(Objects.requireNonNullElse(lang, "EN")),
+                String.valueOf(!Boolean.FALSE.equals(bestRateOnly)));
+    }
+
+    /**
+     * Key of the city and search radius, shared by all searches that look up the same hotel list
+     */
+    public String cityIndexKey() {
+        return String.join("|",
+                normalize(cityCode),
+                normalize(Objects.requireNonNullElse(radius, "5")));
+    }
+
+    /**
+     * Key of the city, dates, guests and rate options without the search radius: searches with
+     * equal stay keys send identical hotel-offers requests for the hotels they share
+     */
+    public String stayKey() {
+        return String.join("|",
+                normalize(cityCode),
+                String.valueOf(checkInDate),
+                String.valueOf(checkOutDate),
+                String.valueOf(Objects.requireNonNullElse(adults, 1)),
+                String.valueOf(Objects.requireNonNullElse(rooms, 1)),
+                normalize(Objects.requireNonNullElse(currency, "USD")),
+                normalize(Objects.requireNonNullElse(lang, "EN")),
+                String.valueOf(!Boolean.FALSE.equals(bestRateOnly)));
+    }
+
+    /**
+     * Key of the city, stay length and guests without the dates, used to find results of the
+     * same search for a nearby check-in day
+     */
+    public String routeKey() {
+        return String.join("|",
+                normalize(cityCode),
+                normalize(Objects.requireNonNullElse(radius, "5")),
+                checkInDate != null && checkOutDate != null
+                        ? String.valueOf(ChronoUnit.DAYS.between(checkInDate, checkOutDate)) : "",
+                String.valueOf(Objects.requireNonNullElse(adults, 1)),
+                String.valueOf(Objects.requireNonNullElse(rooms, 1)),
+                normalize(Objects.requireNonNullElse(currency, "USD")),
+                normalize(Objects.requireNonNullElse(lang, "EN")),
+                String.valueOf(!Boolean.FALSE.equals(bestRateOnly)));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.TripFinder.dto;
+
+import com.TripFinder.component.CachedResult;
+import com.TripFinder.component.SearchResultCache;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.Converter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A page of search results that also reports when the underlying upstream data was fetched.
+ * Serialized like a regular page plus {@code fetchedAt}, {@code ageSeconds}, {@code stale},
+ * {@code source} and {@code incomplete}, so the UI can show how current prices are when they come
+ * from the cache and flag degraded-mode or partial results.
+ */
+// Spring Data serializes PageImpl through the Page interface, which would drop the fields below
+@JsonSerialize(converter = Converter.None.class)
+public class SearchResultPage<T> extends PageImpl<T> {
+
+    private final Instant fetchedAt;
+    private final boolean stale;
+    private final Source source;
+    private final boolean incomplete;
+
+    public SearchResultPage(Page<T> page, Instant fetchedAt, boolean stale, Source source) {
+        this(page, fetchedAt, stale, source, false);
+    }
+
+    public SearchResultPage(Page<T> page, Instant fetchedAt, boolean stale, Source source, boolean incomplete) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.fetchedAt = fetchedAt;
+        this.stale = stale;
+        this.source = source;
+        this.incomplete = incomplete;
+    }
+
+    /**
+     * Page of results taken from a single cached upstream result set
+     */
+    public static <T> SearchResultPage<T> of(Page<T> page, CachedResult<?> results) {
+        return of(page, results, results.cacheHit() ? Source.CACHE : Source.UPSTREAM);
+    }
+
+    public static <T> SearchResultPage<T> of(Page<T> page, CachedResult<?> results, Source source) {
+        return new SearchResultPage<>(page, results.fetchedAt(), results.stale(), source,
+                SearchResultCache.isIncomplete(results.results()));
+    }
+
+    /**
+     * Response headers for a search page: an {@code Age} header when the page is a
+     * {@link SearchResultPage}, so HTTP caches and clients can see how old the upstream data is
+     *
+     * @param page page of search results
+     * @return headers to send with the page, empty for a plain page
+     */
+    public static HttpHeaders ageHeaders(Page<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page instanceof SearchResultPage<?> resultPage) {
+            headers.set(HttpHeaders.AGE, String.valueOf(resultPage.getAgeSeconds()));
+        }
+        return headers;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public long getAgeSeconds() {
+        return Math.max(0, Duration.between(fetchedAt, Instant.now()).getSeconds());
+    }
+
+    /**
+     * Whether the data is past its soft TTL and a refresh is under way
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * Whether part of the search could not be answered, e.g. dropped or failed airport pairs or hotel offer chunks
+     */
+    public boolean isIncomplete() {
+        return incomplete;
+    }
+
+    /**
+     * Where the results came from
+     */
+    public enum Source {
+        UPSTREAM,        // Amadeus, fetched for this search
+        CACHE,           // Amadeus results from the search cache; see fetchedAt and stale
+        LAST_KNOWN_GOOD, // newest stored real results for this or a nearby search, served while Amadeus fails
+        SYNTHETIC        // generated placeholder data; nothing real was available
+    }
+}
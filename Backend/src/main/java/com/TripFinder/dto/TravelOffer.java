@@ -0,0 +1,24 @@
+package com.TripFinder.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Common view of flight and hotel offers for cache policies that depend on what is being sold
+ * rather than on the offer type. Method names are not bean getters, so they are not serialized.
+ */
+public interface TravelOffer {
+
+    /**
+     * Date of travel: departure of the first flight, or hotel check-in
+     *
+     * @return travel date, or null if the offer does not carry one
+     */
+    LocalDate travelDate();
+
+    /**
+     * Total price of the offer
+     *
+     * @return price, or null if the offer is not priced
+     */
+    Double offerPrice();
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
  * This entity tracks actual bookings made by users from their itineraries.
  */
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings",
+        indexes = @Index(name = "idx_bookings_date_id", columnList = "booking_date, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,57 @@
+package com.TripFinder.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Number and total amount of the bookings made on one day with one booking type, status,
+ * provider and currency. Admin analytics sum these rows into days, weeks and months instead
+ * of scanning {@code bookings}; they are kept up to date from booking events and can be
+ * rebuilt from the bookings table by a backfill.
+ */
+@Entity
+@Table(name = "booking_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_rollup_key",
+                columnNames = {"bucket_date", "booking_type", "status", "provider", "currency"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingRollup {
+
+    /**
+     * Stored instead of a null provider, so the key columns are never null
+     */
+    public static final String UNKNOWN_PROVIDER = "UNKNOWN";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "booking_type", nullable = false, length = 20)
+    private Booking.BookingType bookingType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Booking.BookingStatus status;
+
+    @Column(name = "provider", nullable = false, length = 50)
+    private String provider;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "booking_count", nullable = false)
+    private long bookingCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 16, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
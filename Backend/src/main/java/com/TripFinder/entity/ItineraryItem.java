@@ -1,5 +1,6 @@
 package com.TripFinder.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -26,7 +27,7 @@ public class ItineraryItem {
 
     @NotNull(message = "Position cannot be null")
     @Column(name = "position", nullable = false)
-    private Integer position;
+    private Integer position; // Sparse sort key, not an index; see GapPositions
 
     @NotBlank(message = "Type cannot be blank")
     @Column(name = "type", nullable = false, length = 50)
@@ -56,6 +57,7 @@ public class ItineraryItem {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "itinerary_id", nullable = false)
     @NotNull(message = "ItineraryItem must be associated with an Itinerary")
+    @JsonIgnore // Lazy back-reference; items are always fetched under their itinerary
     private Itinerary itinerary;
 
     /**
@@ -0,0 +1,51 @@
+package com.TripFinder.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Most recent non-empty upstream result set for a search, kept as a degraded-mode fallback
+ * for when Amadeus fails. One row per cache and canonical search key; {@code routeKey} is the
+ * search key without its dates, so results for the same route or city on a nearby date can be
+ * found when the exact search has never succeeded.
+ */
+@Entity
+@Table(name = "last_known_good_results",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"cache_name", "search_key"}),
+        indexes = @Index(name = "idx_lkg_route", columnList = "cache_name, route_key, search_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LastKnownGoodResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache_name", nullable = false, length = 50)
+    private String cacheName;
+
+    @Column(name = "search_key", nullable = false, length = 255)
+    private String searchKey;
+
+    @Column(name = "route_key", nullable = false, length = 255)
+    private String routeKey;
+
+    @Column(name = "search_date", nullable = false)
+    private LocalDate searchDate; // departure or check-in date
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload; // JSON array of the cached results
+
+    @Column(name = "result_count", nullable = false)
+    private int resultCount;
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+}
@@ -0,0 +1,31 @@
+package com.TripFinder.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last persisted value of one system statistics counter (e.g. {@code bookings.CONFIRMED}).
+ * Lets a restarted instance serve the admin dashboard without counting whole tables;
+ * changes made after the checkpoint are corrected by the next reconciliation.
+ */
+@Entity
+@Table(name = "statistics_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "counter_value", nullable = false)
+    private long value;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package com.TripFinder.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Size of the time buckets analytics are reported in.
+ */
+public enum TimeGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * @param date a day
+     * @return first day of the bucket containing it; weeks start on Monday
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(DayOfWeek.MONDAY);
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * @param date a day
+     * @return last day of the bucket containing it
+     */
+    public LocalDate bucketEnd(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(DayOfWeek.SUNDAY);
+            case MONTH -> date.withDayOfMonth(date.lengthOfMonth());
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.TripFinder.exception;
+
+/**
+ * Thrown when an upstream API call is refused by the local rate limiter.
+ * Callers usually catch it to serve fallback data instead of failing the request.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,15 @@
 package com.TripFinder.repository;
 
+import com.TripFinder.dto.AdminBookingDto;
 import com.TripFinder.entity.Booking;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,14 +57,33 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
     List<Object[]> getBookingStatsByStatus();
 
     /**
-     * Find bookings with user and itinerary information for admin view
-     * @return list of bookings with related entities
+     * Find one keyset window of bookings for the admin view, newest first, as projections with a
+     * summary of the user and itinerary. Rows continue after the (bookingDate, id) of the previous
+     * window's last row; pass the far future and {@link Long#MAX_VALUE} for the first window.
+     * @param statuses statuses to include
+     * @param from earliest booking date (inclusive)
+     * @param to latest booking date (exclusive)
+     * @param afterDate booking date of the previous window's last row
+     * @param afterId ID of the previous window's last row
+     * @param limit maximum number of rows
+     * @return bookings ordered by booking date and ID, descending
      */
-    @Query("SELECT b FROM Booking b " +
-           "JOIN FETCH b.user u " +
-           "JOIN FETCH b.itinerary i " +
-           "ORDER BY b.bookingDate DESC")
-    List<Booking> findAllWithUserAndItinerary();
+    @Query("SELECT new com.TripFinder.dto.AdminBookingDto(" +
+           "b.id, b.bookingReference, b.bookingType, b.provider, b.totalAmount, b.currency, b.status, " +
+           "b.bookingDate, b.confirmationDate, b.cancellationDate, b.notes, u.id, u.fullName, u.email, i.id, i.tripName) " +
+           "FROM Booking b " +
+           "JOIN b.user u " +
+           "JOIN b.itinerary i " +
+           "WHERE b.status IN :statuses " +
+           "AND b.bookingDate >= :from AND b.bookingDate < :to " +
+           "AND (b.bookingDate < :afterDate OR (b.bookingDate = :afterDate AND b.id < :afterId)) " +
+           "ORDER BY b.bookingDate DESC, b.id DESC")
+    List<AdminBookingDto> findAdminBookingWindow(@Param("statuses") Collection<Booking.BookingStatus> statuses,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("afterDate") LocalDateTime afterDate,
+                                                 @Param("afterId") Long afterId,
+                                                 Limit limit);
 
     /**
      * Count total bookings for a user
@@ -69,4 +91,41 @@ public interface BookingRepo extends JpaRepository<Booking, Long> {
      * @return number of bookings
      */
     long countByUserId(int userId);
-}
\ No newline at end of file
+
+    /**
+     * Count bookings and find the latest booking date of several users with one grouped query
+     * @param userIds the user IDs
+     * @return rows of user ID, booking count and latest booking date; users without bookings are omitted
+     */
+    @Query("SELECT b.user.id, COUNT(b), MAX(b.bookingDate) FROM Booking b WHERE b.user.id IN :userIds GROUP BY b.user.id")
+    List<Object[]> getBookingStatsByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * Find the highest booking ID
+     * @return highest ID, or null if there are no bookings
+     */
+    @Query("SELECT MAX(b.id) FROM Booking b")
+    Long findMaxId();
+
+    /**
+     * Find the rollup-relevant columns of one window of bookings in ID order
+     * @param afterId ID of the previous window's last booking (exclusive)
+     * @param maxId highest ID to include
+     * @param limit maximum number of rows
+     * @return rows of ID, booking date, booking type, status, provider, currency and total amount
+     */
+    @Query("SELECT b.id, b.bookingDate, b.bookingType, b.status, b.provider, b.currency, b.totalAmount " +
+           "FROM Booking b WHERE b.id > :afterId AND b.id <= :maxId ORDER BY b.id")
+    List<Object[]> findRollupSourceWindow(@Param("afterId") Long afterId, @Param("maxId") Long maxId, Limit limit);
+
+    /**
+     * Count the bookings made in a time range per rollup row
+     * @param start start of the range (inclusive)
+     * @param end end of the range (exclusive)
+     * @return rows of booking day, booking type, status, provider, currency, booking count and total amount
+     */
+    @Query("SELECT CAST(b.bookingDate AS LocalDate), b.bookingType, b.status, b.provider, b.currency, COUNT(b), SUM(b.totalAmount) " +
+           "FROM Booking b WHERE b.bookingDate >= :start AND b.bookingDate < :end " +
+           "GROUP BY CAST(b.bookingDate AS LocalDate), b.bookingType, b.status, b.provider, b.currency")
+    List<Object[]> countRollupSourceBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,38 @@
+package com.TripFinder.repository;
+
+import com.TripFinder.entity.Booking;
+import com.TripFinder.entity.BookingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link BookingRollup} entities.
+ */
+@Repository
+public interface BookingRollupRepo extends JpaRepository<BookingRollup, Long> {
+
+    /**
+     * Find the rollup row of one day and breakdown
+     * @param bucketDate booking day
+     * @param bookingType booking type
+     * @param status booking status
+     * @param provider provider, or {@link BookingRollup#UNKNOWN_PROVIDER}
+     * @param currency currency code
+     * @return the row, if any booking ever contributed to it
+     */
+    Optional<BookingRollup> findByBucketDateAndBookingTypeAndStatusAndProviderAndCurrency(
+            LocalDate bucketDate, Booking.BookingType bookingType, Booking.BookingStatus status,
+            String provider, String currency);
+
+    /**
+     * Find all rollup rows of a range of days
+     * @param startDate first day
+     * @param endDate last day
+     * @return rollup rows
+     */
+    List<BookingRollup> findByBucketDateBetween(LocalDate startDate, LocalDate endDate);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for ItineraryItem entity
@@ -15,20 +16,25 @@ import java.util.List;
 public interface ItineraryItemRepo extends JpaRepository<ItineraryItem, Long> {
 
     /**
-     * Find all items for a specific itinerary, ordered by position
+     * Find all items for a specific itinerary, ordered by position (ties by ID)
      */
-    @Query("SELECT i FROM ItineraryItem i WHERE i.itinerary.id = :itineraryId ORDER BY i.position")
+    @Query("SELECT i FROM ItineraryItem i WHERE i.itinerary.id = :itineraryId ORDER BY i.position, i.id")
     List<ItineraryItem> findByItineraryIdOrderByPosition(@Param("itineraryId") Long itineraryId);
 
     /**
      * Find items by itinerary ID and type
      */
-    @Query("SELECT i FROM ItineraryItem i WHERE i.itinerary.id = :itineraryId AND i.type = :type ORDER BY i.position")
+    @Query("SELECT i FROM ItineraryItem i WHERE i.itinerary.id = :itineraryId AND i.type = :type ORDER BY i.position, i.id")
     List<ItineraryItem> findByItineraryIdAndTypeOrderByPosition(
             @Param("itineraryId") Long itineraryId, 
             @Param("type") String type
     );
 
+    /**
+     * Find an item of a specific itinerary
+     */
+    Optional<ItineraryItem> findByIdAndItineraryId(Long id, Long itineraryId);
+
     /**
      * Find the maximum position for an itinerary (for appending new items)
      */
@@ -1,10 +1,16 @@
 package com.TripFinder.repository;
 
 import com.TripFinder.entity.Itinerary;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for {@link Itinerary} entities.
@@ -28,4 +34,24 @@ public interface ItineraryRepo extends JpaRepository<Itinerary, Long> { // <-- T
      * @return The number of itineraries belonging to the specified user.
      */
     long countByUserId(int userId);
-}
\ No newline at end of file
+
+    /**
+     * Counts the itineraries of several users with one grouped query.
+     *
+     * @param userIds The IDs of the users.
+     * @return Rows of user ID and itinerary count; users without itineraries are omitted.
+     */
+    @Query("SELECT i.user.id, COUNT(i) FROM Itinerary i WHERE i.user.id IN :userIds GROUP BY i.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * Finds an itinerary and locks its row until the transaction ends, serializing changes to
+     * the order of its items.
+     *
+     * @param id The ID of the itinerary.
+     * @return The itinerary, if it exists.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Itinerary i WHERE i.id = :id")
+    Optional<Itinerary> findByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,51 @@
+package com.TripFinder.repository;
+
+import com.TripFinder.entity.LastKnownGoodResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link LastKnownGoodResult} entities.
+ */
+@Repository
+public interface LastKnownGoodResultRepo extends JpaRepository<LastKnownGoodResult, Long> {
+
+    /**
+     * Find the stored result for an exact search
+     * @param cacheName cache the result belongs to
+     * @param searchKey canonical search key
+     * @return stored result if present
+     */
+    Optional<LastKnownGoodResult> findByCacheNameAndSearchKey(String cacheName, String searchKey);
+
+    /**
+     * Find stored results for the same route or city within a date window
+     * @param cacheName cache the results belong to
+     * @param routeKey search key without dates
+     * @param from first search date
+     * @param to last search date
+     * @param fetchedAfter oldest acceptable fetch time
+     * @return matching results, newest first
+     */
+    List<LastKnownGoodResult> findByCacheNameAndRouteKeyAndSearchDateBetweenAndFetchedAtAfterOrderByFetchedAtDesc(
+            String cacheName, String routeKey, LocalDate from, LocalDate to, LocalDateTime fetchedAfter);
+
+    /**
+     * Delete results fetched before the cutoff
+     * @param cutoff oldest fetch time to keep
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LastKnownGoodResult r WHERE r.fetchedAt < :cutoff")
+    int deleteFetchedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
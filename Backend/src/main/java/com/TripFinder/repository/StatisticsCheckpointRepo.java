@@ -0,0 +1,12 @@
+package com.TripFinder.repository;
+
+import com.TripFinder.entity.StatisticsCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for {@link StatisticsCheckpoint} entities, keyed by counter name.
+ */
+@Repository
+public interface StatisticsCheckpointRepo extends JpaRepository<StatisticsCheckpoint, String> {
+}
@@ -2,6 +2,10 @@ package com.TripFinder.repository;
 
 import com.TripFinder.entity.User;
 import com.TripFinder.enums.Role;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -30,4 +34,16 @@ public interface UserRepo extends JpaRepository<User, Integer> {
      * @return The number of users with the specified role.
      */
     long countByRole(Role role);
-}
\ No newline at end of file
+
+    /**
+     * Scrolls through all users in keyset order, one window at a time.
+     * Each window continues after the previous one's last row instead of skipping rows with an offset,
+     * so its cost does not grow with how far into the listing it is.
+     *
+     * @param position The keyset position to continue after, or {@link ScrollPosition#keyset()} for the first window.
+     * @param sort The order of the listing; the ID is appended as a tie-breaker.
+     * @param limit The maximum number of users in the window.
+     * @return A {@link Window} of users that also tells whether more users follow.
+     */
+    Window<User> findBy(ScrollPosition position, Sort sort, Limit limit);
+}
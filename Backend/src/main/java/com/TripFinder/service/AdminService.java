@@ -1,12 +1,19 @@
 package com.TripFinder.service;
 
-import com.TripFinder.dto.AdminUserDto;
+import com.TripFinder.dto.AdminBookingDto;
+import com.TripFinder.dto.AdminBookingPage;
+import com.TripFinder.dto.AdminUserPage;
+import com.TripFinder.dto.BookingAnalyticsBucket;
 import com.TripFinder.entity.Booking;
 import com.TripFinder.entity.User;
 import com.TripFinder.enums.Role;
+import com.TripFinder.enums.TimeGranularity;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service interface for admin operations.
@@ -15,16 +22,38 @@ import java.util.Map;
 public interface AdminService {
 
     /**
-     * Get all users in the system
-     * @return list of users with admin-relevant information
+     * Get one window of the users in the system, using keyset pagination
+     * @param sortBy column to sort by: id, fullName or email
+     * @param direction asc or desc
+     * @param cursor cursor of the previous window, or null for the first window
+     * @param size maximum number of users in the window (capped at 200)
+     * @return users with admin-relevant information and the cursor of the next window
+     * @throws IllegalArgumentException if the sort, direction or cursor is invalid
      */
-    List<AdminUserDto> getAllUsers();
+    AdminUserPage getUsers(String sortBy, String direction, String cursor, int size);
 
     /**
-     * Get all bookings in the system
-     * @return list of bookings with user and itinerary information
+     * Get one window of the bookings in the system, newest first, using keyset pagination
+     * @param status only bookings with this status, or null for all
+     * @param from earliest booking day (inclusive), or null for no lower bound
+     * @param to latest booking day (inclusive), or null for no upper bound
+     * @param cursor cursor of the previous window, or null for the first window
+     * @param size maximum number of bookings in the window (capped at 200)
+     * @return bookings with user and itinerary summaries and the cursor of the next window
+     * @throws IllegalArgumentException if the date range or cursor is invalid
      */
-    List<Booking> getAllBookings();
+    AdminBookingPage getBookings(Booking.BookingStatus status, LocalDate from, LocalDate to, String cursor, int size);
+
+    /**
+     * Export every booking matching the filters, newest first, one keyset window at a time.
+     * Only the current window is held in memory; each is handed to the sink before the next is read.
+     * @param status only bookings with this status, or null for all
+     * @param from earliest booking day (inclusive), or null for no lower bound
+     * @param to latest booking day (inclusive), or null for no upper bound
+     * @param sink receives each non-empty window in order
+     * @throws IllegalArgumentException if the date range is invalid
+     */
+    void exportBookings(Booking.BookingStatus status, LocalDate from, LocalDate to, Consumer<List<AdminBookingDto>> sink);
 
     /**
      * Delete a booking by ID
@@ -48,6 +77,23 @@ public interface AdminService {
      */
     Map<String, Object> getSystemStatistics();
 
+    /**
+     * Get bookings and their total amounts per day, week or month from the booking rollups
+     * @param granularity bucket size
+     * @param from first booking day (inclusive), widened to the start of its bucket
+     * @param to last booking day (inclusive), widened to the end of its bucket
+     * @param groupBy breakdowns besides currency: bookingType, status and/or provider
+     * @return one entry per bucket and breakdown with bookings, ordered by bucket; every bucket covers all of its days
+     * @throws IllegalArgumentException if the range or a breakdown is invalid
+     */
+    List<BookingAnalyticsBucket> getBookingAnalytics(TimeGranularity granularity, LocalDate from, LocalDate to, Collection<String> groupBy);
+
+    /**
+     * Start rebuilding the booking rollups from the bookings table in the background
+     * @return false if a rebuild is already running
+     */
+    boolean startBookingRollupBackfill();
+
     /**
      * Get user statistics
      * @param userId the user ID (optional, if null returns stats for all users)
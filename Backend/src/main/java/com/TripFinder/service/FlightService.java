@@ -1,11 +1,13 @@
 package com.TripFinder.service;
 
+import com.TripFinder.dto.FlexibleDateSearchResponse;
 import com.TripFinder.dto.FlightSearchRequest;
 import com.TripFinder.dto.FlightResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for flight search operations
@@ -21,6 +23,24 @@ public interface FlightService {
      */
     Page<FlightResponse> searchFlights(FlightSearchRequest searchRequest, Pageable pageable);
 
+    /**
+     * Search for flights without blocking the calling thread while Amadeus responds
+     *
+     * @param searchRequest Flight search parameters
+     * @param pageable Pagination parameters
+     * @return Future of the paginated flight results
+     */
+    CompletableFuture<Page<FlightResponse>> searchFlightsAsync(FlightSearchRequest searchRequest, Pageable pageable);
+
+    /**
+     * Search the days around the requested departure date concurrently
+     *
+     * @param searchRequest Flight search parameters, with {@code flexibleDays} as the +/- window
+     * @param pageable Pagination parameters for the requested day's offers
+     * @return Future of the cheapest price per day and the requested day's offers
+     */
+    CompletableFuture<FlexibleDateSearchResponse> searchFlexibleDates(FlightSearchRequest searchRequest, Pageable pageable);
+
     /**
      * Get flight details by offer ID
      *
@@ -7,6 +7,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for hotel search operations
@@ -27,6 +28,15 @@ public interface HotelService {
      */
     Page<HotelResponse> searchHotels(HotelSearchRequest searchRequest, Pageable pageable);
     
+    /**
+     * Search for hotels without blocking the calling thread while Amadeus responds
+     *
+     * @param searchRequest Hotel search parameters
+     * @param pageable Pagination parameters
+     * @return Future of the paginated hotel results
+     */
+    CompletableFuture<Page<HotelResponse>> searchHotelsAsync(HotelSearchRequest searchRequest, Pageable pageable);
+    
     /**
      * Get hotel details by offer ID
      *
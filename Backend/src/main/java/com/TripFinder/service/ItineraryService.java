@@ -30,7 +30,8 @@ public interface ItineraryService {
     ItineraryItem updateItineraryItem(ItineraryItemDto itemDto);
     void removeItemFromItinerary(Long itineraryId, Long itemId);
     
-    // Reordering and positioning
+    // Reordering and positioning; positions in requests are list indexes (0-based),
+    // stored positions are sparse sort keys so a move updates a single row
     List<ItineraryItem> reorderItineraryItems(Long itineraryId, List<Map<String, Object>> itemOrders);
     ItineraryItem moveItemToPosition(Long itineraryId, Long itemId, int newPosition);
     
@@ -0,0 +1,39 @@
+package com.TripFinder.service;
+
+import java.util.Map;
+
+/**
+ * Service interface for runtime monitoring of the search infrastructure
+ * (caches and other in-memory subsystems).
+ */
+public interface MonitoringService {
+
+    /**
+     * Get hit/miss/eviction statistics for every registered cache, plus stale-while-revalidate
+     * counts for caches that serve stale entries
+     *
+     * @return map of cache name to its statistics
+     */
+    Map<String, Object> getCacheStatistics();
+
+    /**
+     * Get request coalescing statistics (upstream calls vs. callers that joined an in-flight call)
+     *
+     * @return map of request group to its coalescing statistics, plus hotel-offer batching statistics
+     */
+    Map<String, Object> getCoalescingStatistics();
+
+    /**
+     * Get statistics of the shared Amadeus rate limiter
+     *
+     * @return permits granted, delayed and rejected, and permits currently available
+     */
+    Map<String, Object> getRateLimiterStatistics();
+
+    /**
+     * Get connection-pool statistics of the outbound HTTP clients
+     *
+     * @return leased, available and pending connections per client and route
+     */
+    Map<String, Object> getHttpPoolStatistics();
+}
@@ -1,22 +1,46 @@
 package com.TripFinder.serviceImpl;
 
+import com.TripFinder.component.BookingRollupTracker;
+import com.TripFinder.component.SystemStatisticsTracker;
+import com.TripFinder.dto.AdminBookingDto;
+import com.TripFinder.dto.AdminBookingPage;
 import com.TripFinder.dto.AdminUserDto;
+import com.TripFinder.dto.AdminUserPage;
+import com.TripFinder.dto.BookingAnalyticsBucket;
 import com.TripFinder.entity.Booking;
+import com.TripFinder.entity.BookingRollup;
 import com.TripFinder.entity.User;
 import com.TripFinder.enums.Role;
+import com.TripFinder.enums.TimeGranularity;
 import com.TripFinder.repository.BookingRepo;
+import com.TripFinder.repository.BookingRollupRepo;
 import com.TripFinder.repository.ItineraryRepo;
 import com.TripFinder.repository.UserRepo;
 import com.TripFinder.service.AdminService;
+import com.TripFinder.util.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +52,31 @@ import java.util.stream.Collectors;
 @Transactional
 public class AdminServiceImpl implements AdminService {
 
+    // Columns the user listing can be sorted by; keyset cursors only carry strings and numbers
+    private static final Set<String> USER_SORT_FIELDS = Set.of("id", "fullName", "email");
+
+    private static final int MAX_USER_PAGE_SIZE = 200;
+
+    private static final Set<String> BOOKING_CURSOR_KEYS = Set.of("bookingDate", "id");
+
+    private static final int MAX_BOOKING_PAGE_SIZE = 200;
+
+    // Rows per query when exporting; the most bookings held in memory at once
+    private static final int EXPORT_WINDOW_SIZE = 500;
+
+    private static final LocalDateTime EARLIEST_BOOKING_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final LocalDateTime LATEST_BOOKING_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final Set<String> ANALYTICS_BREAKDOWNS = Set.of("bookingType", "status", "provider");
+
+    private static final Comparator<BookingAnalyticsBucket> ANALYTICS_ORDER =
+            Comparator.comparing(BookingAnalyticsBucket::bucketStart)
+                    .thenComparing(BookingAnalyticsBucket::currency)
+                    .thenComparing(bucket -> String.valueOf(bucket.bookingType()))
+                    .thenComparing(bucket -> String.valueOf(bucket.status()))
+                    .thenComparing(bucket -> String.valueOf(bucket.provider()));
+
     @Autowired
     private UserRepo userRepo;
 
@@ -37,33 +86,160 @@ public class AdminServiceImpl implements AdminService {
     @Autowired
     private ItineraryRepo itineraryRepo;
 
+    @Autowired
+    private BookingRollupRepo bookingRollupRepo;
+
+    @Autowired
+    private SystemStatisticsTracker systemStatisticsTracker;
+
+    @Autowired
+    private BookingRollupTracker bookingRollupTracker;
+
     @Override
     @Transactional(readOnly = true)
-    public List<AdminUserDto> getAllUsers() {
-        log.info("Fetching all users for admin view");
+    public AdminUserPage getUsers(String sortBy, String direction, String cursor, int size) {
+        log.info("Fetching users for admin view (sort {} {}, {} per page)", sortBy, direction, size);
+        
+        if (!USER_SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        }
+        Sort sort = Sort.by(Sort.Direction.fromString(direction), sortBy);
         
-        List<User> users = userRepo.findAll();
-        return users.stream()
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Set<String> cursorKeys = "id".equals(sortBy) ? Set.of("id") : Set.of(sortBy, "id");
+        if (!position.isInitial() && !position.getKeys().keySet().equals(cursorKeys)) {
+            throw new IllegalArgumentException("Cursor does not belong to a listing sorted by " + sortBy);
+        }
+        
+        Window<User> window = userRepo.findBy(position, sort, Limit.of(Math.max(1, Math.min(size, MAX_USER_PAGE_SIZE))));
+        List<User> users = window.getContent();
+        if (users.isEmpty()) {
+            return new AdminUserPage(List.of(), null);
+        }
+        
+        // Two grouped queries for the whole window instead of two counts per user
+        List<Integer> userIds = users.stream().map(User::getId).toList();
+        
+        Map<Integer, Long> itineraryCounts = new HashMap<>();
+        for (Object[] row : itineraryRepo.countByUserIds(userIds)) {
+            itineraryCounts.put((Integer) row[0], (Long) row[1]);
+        }
+        
+        Map<Integer, Object[]> bookingStats = new HashMap<>();
+        for (Object[] row : bookingRepo.getBookingStatsByUserIds(userIds)) {
+            bookingStats.put((Integer) row[0], row);
+        }
+        
+        List<AdminUserDto> dtos = users.stream()
                 .map(user -> {
-                    long itineraryCount = itineraryRepo.countByUserId(user.getId());
-                    long bookingCount = bookingRepo.countByUserId(user.getId());
-                    
-                    // For now, use creation date as last activity
-                    // In a real app, you'd track actual last activity
-                    LocalDateTime lastActivity = LocalDateTime.now().minusDays(7); // Mock data
-                    
+                    Object[] bookings = bookingStats.get(user.getId());
                     return AdminUserDto.fromUserWithStats(
-                        user, itineraryCount, bookingCount, lastActivity
+                        user,
+                        itineraryCounts.getOrDefault(user.getId(), 0L),
+                        bookings != null ? (Long) bookings[1] : 0L,
+                        // Latest booking; null for users who never booked
+                        bookings != null ? (LocalDateTime) bookings[2] : null
                     );
                 })
                 .collect(Collectors.toList());
+        
+        String nextCursor = window.hasNext() ? KeysetCursor.encode(window.positionAt(users.size() - 1)) : null;
+        return new AdminUserPage(dtos, nextCursor);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllBookings() {
-        log.info("Fetching all bookings for admin view");
-        return bookingRepo.findAllWithUserAndItinerary();
+    public AdminBookingPage getBookings(Booking.BookingStatus status, LocalDate from, LocalDate to, String cursor, int size) {
+        log.info("Fetching bookings for admin view (status {}, from {} to {}, {} per page)", status, from, to, size);
+        
+        BookingFilter filter = BookingFilter.of(status, from, to);
+        
+        LocalDateTime afterDate = filter.to();
+        long afterId = Long.MAX_VALUE;
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        if (!position.isInitial()) {
+            Map<String, Object> keys = position.getKeys();
+            if (!keys.keySet().equals(BOOKING_CURSOR_KEYS)
+                    || !(keys.get("bookingDate") instanceof String date)
+                    || !(keys.get("id") instanceof Number id)) {
+                throw new IllegalArgumentException("Cursor does not belong to the booking listing");
+            }
+            try {
+                afterDate = LocalDateTime.parse(date);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            afterId = id.longValue();
+        }
+        
+        int limit = Math.max(1, Math.min(size, MAX_BOOKING_PAGE_SIZE));
+        // One extra row tells whether another window follows
+        List<AdminBookingDto> bookings = bookingRepo.findAdminBookingWindow(
+                filter.statuses(), filter.from(), filter.to(), afterDate, afterId, Limit.of(limit + 1));
+        if (bookings.size() <= limit) {
+            return new AdminBookingPage(bookings, null);
+        }
+        
+        bookings = bookings.subList(0, limit);
+        AdminBookingDto last = bookings.get(limit - 1);
+        Map<String, Object> nextKeys = new LinkedHashMap<>();
+        nextKeys.put("bookingDate", last.bookingDate().toString());
+        nextKeys.put("id", last.id());
+        return new AdminBookingPage(List.copyOf(bookings), KeysetCursor.encode(ScrollPosition.forward(nextKeys)));
+    }
+
+    @Override
+    // Each window is its own short query; no connection is held while the sink writes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportBookings(Booking.BookingStatus status, LocalDate from, LocalDate to, Consumer<List<AdminBookingDto>> sink) {
+        log.info("Exporting bookings for admin (status {}, from {} to {})", status, from, to);
+        
+        BookingFilter filter = BookingFilter.of(status, from, to);
+        
+        LocalDateTime afterDate = filter.to();
+        long afterId = Long.MAX_VALUE;
+        long exported = 0;
+        while (true) {
+            List<AdminBookingDto> window = bookingRepo.findAdminBookingWindow(
+                    filter.statuses(), filter.from(), filter.to(), afterDate, afterId, Limit.of(EXPORT_WINDOW_SIZE));
+            if (window.isEmpty()) {
+                break;
+            }
+            
+            sink.accept(window);
+            exported += window.size();
+            
+            if (window.size() < EXPORT_WINDOW_SIZE) {
+                break;
+            }
+            AdminBookingDto last = window.get(window.size() - 1);
+            afterDate = last.bookingDate();
+            afterId = last.id();
+        }
+        
+        log.info("Exported {} bookings", exported);
+    }
+
+    private record AnalyticsKey(LocalDate bucketStart, Booking.BookingType bookingType, Booking.BookingStatus status,
+                                String provider, String currency) {
+    }
+
+    /**
+     * Booking listing filters as query bounds; a missing status or day means no restriction
+     */
+    private record BookingFilter(List<Booking.BookingStatus> statuses, LocalDateTime from, LocalDateTime to) {
+        
+        static BookingFilter of(Booking.BookingStatus status, LocalDate from, LocalDate to) {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("Booking date range starts after it ends");
+            }
+            return new BookingFilter(
+                status != null ? List.of(status) : List.of(Booking.BookingStatus.values()),
+                from != null ? from.atStartOfDay() : EARLIEST_BOOKING_DATE,
+                // Inclusive last day, exclusive bound
+                to != null ? to.plusDays(1).atStartOfDay() : LATEST_BOOKING_DATE
+            );
+        }
     }
 
     @Override
@@ -110,33 +286,61 @@ public class AdminServiceImpl implements AdminService {
     public Map<String, Object> getSystemStatistics() {
         log.info("Fetching system statistics");
         
-        Map<String, Object> stats = new HashMap<>();
+        // Maintained from entity events; no table is counted here
+        Map<String, Object> stats = new HashMap<>(systemStatisticsTracker.getStatistics());
+        stats.put("generatedAt", LocalDateTime.now());
         
-        // User statistics
-        long totalUsers = userRepo.count();
-        long adminUsers = userRepo.countByRole(Role.ADMIN);
-        long regularUsers = userRepo.countByRole(Role.USER);
+        return stats;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingAnalyticsBucket> getBookingAnalytics(TimeGranularity granularity, LocalDate from, LocalDate to, Collection<String> groupBy) {
+        log.info("Fetching {} booking analytics from {} to {} by {}", granularity, from, to, groupBy);
         
-        // Booking statistics
-        long totalBookings = bookingRepo.count();
-        List<Object[]> bookingStatsByStatus = bookingRepo.getBookingStatsByStatus();
-        Map<String, Long> bookingsByStatus = new HashMap<>();
-        for (Object[] stat : bookingStatsByStatus) {
-            bookingsByStatus.put(stat[0].toString(), (Long) stat[1]);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Analytics range starts after it ends");
         }
+        Set<String> breakdowns = groupBy != null ? Set.copyOf(groupBy) : Set.of();
+        for (String breakdown : breakdowns) {
+            if (!ANALYTICS_BREAKDOWNS.contains(breakdown)) {
+                throw new IllegalArgumentException("Unsupported breakdown: " + breakdown);
+            }
+        }
+        boolean byType = breakdowns.contains("bookingType");
+        boolean byStatus = breakdowns.contains("status");
+        boolean byProvider = breakdowns.contains("provider");
         
-        // Itinerary statistics
-        long totalItineraries = itineraryRepo.count();
+        // Whole buckets only, so a week or month labelled by its first day counts all of its days
+        LocalDate rangeStart = granularity.bucketStart(from);
+        LocalDate rangeEnd = granularity.bucketEnd(to);
         
-        stats.put("totalUsers", totalUsers);
-        stats.put("adminUsers", adminUsers);
-        stats.put("regularUsers", regularUsers);
-        stats.put("totalBookings", totalBookings);
-        stats.put("bookingsByStatus", bookingsByStatus);
-        stats.put("totalItineraries", totalItineraries);
-        stats.put("generatedAt", LocalDateTime.now());
+        // Daily rows are summed into the requested buckets and breakdowns
+        Map<AnalyticsKey, BookingAnalyticsBucket> buckets = new HashMap<>();
+        for (BookingRollup rollup : bookingRollupRepo.findByBucketDateBetween(rangeStart, rangeEnd)) {
+            AnalyticsKey key = new AnalyticsKey(
+                granularity.bucketStart(rollup.getBucketDate()),
+                byType ? rollup.getBookingType() : null,
+                byStatus ? rollup.getStatus() : null,
+                byProvider ? rollup.getProvider() : null,
+                rollup.getCurrency()
+            );
+            buckets.merge(key,
+                new BookingAnalyticsBucket(key.bucketStart(), key.bookingType(), key.status(), key.provider(),
+                    key.currency(), rollup.getBookingCount(), rollup.getTotalAmount()),
+                (a, b) -> new BookingAnalyticsBucket(a.bucketStart(), a.bookingType(), a.status(), a.provider(),
+                    a.currency(), a.bookings() + b.bookings(), a.totalAmount().add(b.totalAmount())));
+        }
         
-        return stats;
+        return buckets.values().stream()
+                .sorted(ANALYTICS_ORDER)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean startBookingRollupBackfill() {
+        log.info("Starting booking rollup backfill");
+        return bookingRollupTracker.startBackfill();
     }
 
     @Override
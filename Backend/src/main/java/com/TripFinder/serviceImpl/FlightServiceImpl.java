@@ -1,34 +1,40 @@
 package com.TripFinder.serviceImpl;
 
+import com.TripFinder.component.AmadeusClient;
+import com.TripFinder.component.CachedResult;
+import com.TripFinder.component.LastKnownGoodStore;
+import com.TripFinder.component.SearchResultCache;
 import com.TripFinder.config.CacheConfig;
+import com.TripFinder.dto.FlexibleDateSearchResponse;
 import com.TripFinder.dto.FlightSearchRequest;
 import com.TripFinder.dto.FlightResponse;
+import com.TripFinder.dto.SearchResultPage;
+import com.TripFinder.exception.RateLimitExceededException;
 import com.TripFinder.service.FlightService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.TripFinder.util.IsoDurations;
+import com.TripFinder.util.KWayMerge;
+import com.TripFinder.util.MetroAreas;
+import com.TripFinder.util.TopKSelector;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,77 +42,278 @@ public class FlightServiceImpl implements FlightService {
     
     private static final Logger logger = LoggerFactory.getLogger(FlightServiceImpl.class);
     
-    @Value("${amadeus.api.key}")
-    private String apiKey;
+    private static final String FLIGHT_OFFERS_CACHE = "flight-offers";
     
-    @Value("${amadeus.api.secret}")
-    private String apiSecret;
+    // Upstream results are cached independently of the page size, so always fetch the full set
+    private static final int MAX_UPSTREAM_RESULTS = 250;
+    
+    // Flexible-date window (+/- days) when the request does not set one, and its upper bound
+    private static final int DEFAULT_FLEXIBLE_DAYS = 3;
+    private static final int MAX_FLEXIBLE_DAYS = 3;
     
     @Value("${amadeus.api.base-url}")
     private String baseUrl;
     
-    @Autowired
-    private RestTemplate restTemplate;
+    // Upper bound on upstream searches for one metro-area search (e.g. LON -> NYC is 15 pairs)
+    @Value("${app.flights.max-airport-pairs:9}")
+    private int maxAirportPairs;
     
     @Autowired
     private CacheConfig cacheConfig;
     
     @Autowired
-    private ObjectMapper objectMapper;
+    private AmadeusClient amadeusClient;
+    
+    @Autowired
+    private SearchResultCache searchResultCache;
     
-    // Rate limiting
-    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
-    private final long windowSizeMs = 1000; // 1 second window
+    @Autowired
+    private LastKnownGoodStore lastKnownGoodStore;
     
     @Override
-    @Cacheable(value = "flight-offers", key = "#searchRequest.hashCode() + '_' + #pageable.pageNumber")
     @Retry(name = "amadeus-api")
     public Page<FlightResponse> searchFlights(FlightSearchRequest searchRequest, Pageable pageable) {
         logger.info("Searching flights from {} to {} on {}", 
                 searchRequest.getOrigin(), searchRequest.getDestination(), searchRequest.getDepartureDate());
         
+        List<FlightSearchRequest> airportPairs = expandMetroAreas(searchRequest);
+        if (airportPairs.size() > 1) {
+            return searchAirportPairs(airportPairs, searchRequest, pageable).join();
+        }
+        
         try {
-            // Check rate limits
-            if (!checkRateLimit()) {
-                logger.warn("Rate limit exceeded, using fallback data");
-                return getFallbackFlightData(searchRequest, pageable);
-            }
-            
-            // Get access token
-            String accessToken = getAccessToken();
-            
-            // Build search URL
-            String searchUrl = buildFlightSearchUrl(searchRequest);
-            
-            // Make API request
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(accessToken);
-            HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
+            // Full upstream result set, shared by every page, sort order and filter of this search
+            CachedResult<FlightResponse> offers = searchResultCache.get(
+                    FLIGHT_OFFERS_CACHE, searchRequest.canonicalKey(), () -> loadFlightOffers(searchRequest));
             
-            ResponseEntity<JsonNode> response = restTemplate.exchange(
-                    searchUrl, HttpMethod.GET, requestEntity, JsonNode.class
-            );
-            
-            // Parse response
-            List<FlightResponse> flights = parseFlightResponse(response.getBody());
-            
-            // Apply client-side filtering and sorting
-            flights = filterAndSortFlights(flights, searchRequest);
-            
-            // Handle pagination
-            return paginateResults(flights, pageable);
+            return toPage(offers, searchRequest, pageable);
             
         } catch (Exception e) {
-            logger.error("Error searching flights: {}", e.getMessage(), e);
+            return handleSearchFailure(e, searchRequest, pageable);
+        }
+    }
+    
+    @Override
+    @Retry(name = "amadeus-api")
+    public CompletableFuture<Page<FlightResponse>> searchFlightsAsync(FlightSearchRequest searchRequest, Pageable pageable) {
+        logger.info("Searching flights from {} to {} on {}", 
+                searchRequest.getOrigin(), searchRequest.getDestination(), searchRequest.getDepartureDate());
+        
+        List<FlightSearchRequest> airportPairs = expandMetroAreas(searchRequest);
+        if (airportPairs.size() > 1) {
+            return searchAirportPairs(airportPairs, searchRequest, pageable);
+        }
+        
+        return searchResultCache.<FlightResponse>getAsync(
+                        FLIGHT_OFFERS_CACHE, searchRequest.canonicalKey(), () -> loadFlightOffers(searchRequest))
+                .thenApply(offers -> toPage(offers, searchRequest, pageable))
+                // Off the event loop: the fallback may read the last-known-good store
+                .exceptionallyAsync(e -> handleSearchFailure(unwrap(e), searchRequest, pageable));
+    }
+    
+    /**
+     * Expand metro-area codes (NYC, LON, ...) into one request per airport pair
+     */
+    private List<FlightSearchRequest> expandMetroAreas(FlightSearchRequest searchRequest) {
+        List<String> origins = MetroAreas.airportsFor(searchRequest.getOrigin());
+        List<String> destinations = MetroAreas.airportsFor(searchRequest.getDestination());
+        if (origins.size() <= 1 && destinations.size() <= 1) {
+            return List.of(searchRequest);
+        }
+        
+        List<FlightSearchRequest> airportPairs = new ArrayList<>();
+        for (String origin : origins) {
+            for (String destination : destinations) {
+                if (!origin.equals(destination)) {
+                    airportPairs.add(searchRequest.toBuilder().origin(origin).destination(destination).build());
+                }
+            }
+        }
+        
+        logger.debug("Expanded {} -> {} into {} airport pairs", 
+                searchRequest.getOrigin(), searchRequest.getDestination(), airportPairs.size());
+        return airportPairs.isEmpty() ? List.of(searchRequest) : airportPairs;
+    }
+    
+    /**
+     * Search every airport pair concurrently, then page through the k-way merge of the
+     * individually sorted results instead of re-sorting their union. At most
+     * {@code app.flights.max-airport-pairs} pairs are searched. A failed pair is skipped; only
+     * if every pair fails does the search fall back. Dropped or failed pairs mark the page incomplete.
+     */
+    private CompletableFuture<Page<FlightResponse>> searchAirportPairs(List<FlightSearchRequest> allAirportPairs,
+                                                                       FlightSearchRequest searchRequest, Pageable pageable) {
+        int limit = Math.max(1, maxAirportPairs);
+        boolean truncated = allAirportPairs.size() > limit;
+        List<FlightSearchRequest> airportPairs = truncated ? allAirportPairs.subList(0, limit) : allAirportPairs;
+        if (truncated) {
+            logger.warn("Searching only {} of {} airport pairs for {} -> {} (app.flights.max-airport-pairs)", 
+                    limit, allAirportPairs.size(), searchRequest.getOrigin(), searchRequest.getDestination());
+        }
+        
+        List<CompletableFuture<CachedResult<FlightResponse>>> searches = airportPairs.stream()
+                .map(pair -> searchResultCache.<FlightResponse>getAsync(
+                        FLIGHT_OFFERS_CACHE, pair.canonicalKey(), () -> loadFlightOffers(pair)))
+                .collect(Collectors.toList());
+        
+        return CompletableFuture.allOf(searches.toArray(new CompletableFuture[0]))
+                .handleAsync((ignored, error) -> {
+                    // Each pair only needs its first offset + size offers for the merge
+                    int window = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+                    List<List<FlightResponse>> sortedResults = new ArrayList<>();
+                    long total = 0;
+                    Throwable failure = null;
+                    // The merged page is only as fresh as its oldest pair, and only from the cache if every pair was
+                    Instant fetchedAt = Instant.MAX;
+                    boolean stale = false;
+                    boolean allCacheHits = true;
+                    
+                    for (int i = 0; i < searches.size(); i++) {
+                        try {
+                            CachedResult<FlightResponse> offers = searches.get(i).join();
+                            List<FlightResponse> flights = filterFlights(offers.results(), searchRequest);
+                            sortedResults.add(selectSorted(flights, searchRequest, 0, window));
+                            total += flights.size();
+                            if (offers.fetchedAt().isBefore(fetchedAt)) {
+                                fetchedAt = offers.fetchedAt();
+                            }
+                            stale |= offers.stale();
+                            allCacheHits &= offers.cacheHit();
+                        } catch (CompletionException e) {
+                            failure = unwrap(e);
+                            logger.warn("Search failed for {} -> {}: {}", 
+                                    airportPairs.get(i).getOrigin(), airportPairs.get(i).getDestination(), failure.getMessage());
+                        }
+                    }
+                    
+                    if (sortedResults.isEmpty()) {
+                        return handleSearchFailure(failure, searchRequest, pageable);
+                    }
+                    
+                    List<FlightResponse> pageContent = KWayMerge.merge(
+                            sortedResults, getComparator(searchRequest), pageable.getOffset(), pageable.getPageSize());
+                    return new SearchResultPage<>(new PageImpl<>(pageContent, pageable, total), fetchedAt, stale,
+                            allCacheHits ? SearchResultPage.Source.CACHE : SearchResultPage.Source.UPSTREAM,
+                            truncated || failure != null);
+                });
+    }
+    
+    @Override
+    public CompletableFuture<FlexibleDateSearchResponse> searchFlexibleDates(FlightSearchRequest searchRequest, Pageable pageable) {
+        int flexibleDays = Math.min(Objects.requireNonNullElse(searchRequest.getFlexibleDays(), DEFAULT_FLEXIBLE_DAYS), MAX_FLEXIBLE_DAYS);
+        logger.info("Flexible-date flight search from {} to {} around {} (+/-{} days)", 
+                searchRequest.getOrigin(), searchRequest.getDestination(), searchRequest.getDepartureDate(), flexibleDays);
+        
+        // Start every day at once; each goes through the cache, the coalescer and the shared rate limiter
+        LocalDate today = LocalDate.now();
+        List<DaySearch> days = new ArrayList<>();
+        for (int offset = -flexibleDays; offset <= flexibleDays; offset++) {
+            FlightSearchRequest dayRequest = shiftDates(searchRequest, offset);
+            if (offset != 0 && dayRequest.getDepartureDate().isBefore(today)) {
+                continue;
+            }
+            days.add(new DaySearch(dayRequest, searchResultCache.<FlightResponse>getAsync(
+                    FLIGHT_OFFERS_CACHE, dayRequest.canonicalKey(), () -> loadFlightOffers(dayRequest))));
+        }
+        
+        return CompletableFuture.allOf(days.stream().map(DaySearch::offers).toArray(CompletableFuture[]::new))
+                .handleAsync((ignored, error) -> buildFlexibleDateResponse(searchRequest, pageable, days));
+    }
+    
+    private FlightSearchRequest shiftDates(FlightSearchRequest searchRequest, int days) {
+        // Keep the trip length: move the return date along with the departure date
+        return searchRequest.toBuilder()
+                .departureDate(searchRequest.getDepartureDate().plusDays(days))
+                .returnDate(searchRequest.getReturnDate() != null ? searchRequest.getReturnDate().plusDays(days) : null)
+                .build();
+    }
+    
+    private FlexibleDateSearchResponse buildFlexibleDateResponse(FlightSearchRequest searchRequest, Pageable pageable,
+                                                                 List<DaySearch> days) {
+        List<FlexibleDateSearchResponse.DayPrice> calendar = new ArrayList<>();
+        Page<FlightResponse> selectedOffers = null;
+        
+        for (DaySearch day : days) {
+            FlightSearchRequest dayRequest = day.request();
+            boolean selected = dayRequest.getDepartureDate().equals(searchRequest.getDepartureDate());
+            
+            FlexibleDateSearchResponse.DayPrice.DayPriceBuilder dayPrice = FlexibleDateSearchResponse.DayPrice.builder()
+                    .departureDate(dayRequest.getDepartureDate())
+                    .returnDate(dayRequest.getReturnDate())
+                    .currency(dayRequest.getCurrency());
             
-            // Return fallback data if enabled
-            if (cacheConfig.getApi().getFallback().isEnabled()) {
-                logger.info("Returning fallback flight data");
-                return getFallbackFlightData(searchRequest, pageable);
+            try {
+                CachedResult<FlightResponse> offers = day.offers().join();
+                List<FlightResponse> flights = filterFlights(offers.results(), searchRequest);
+                
+                dayPrice.available(true)
+                        .offerCount(flights.size())
+                        .cheapestPrice(flights.stream()
+                                .map(FlightResponse::getPrice)
+                                .filter(Objects::nonNull)
+                                .min(Double::compare)
+                                .orElse(null));
+                
+                if (selected) {
+                    selectedOffers = SearchResultPage.of(sortAndPaginate(flights, searchRequest, pageable), offers);
+                }
+            } catch (CompletionException e) {
+                logger.warn("Flexible-date search failed for {}: {}", dayRequest.getDepartureDate(), e.getMessage());
+                dayPrice.available(false).offerCount(0);
+                
+                if (selected) {
+                    selectedOffers = handleSearchFailure(unwrap(e), searchRequest, pageable);
+                }
             }
             
-            throw new RuntimeException("Flight search failed: " + e.getMessage(), e);
+            calendar.add(dayPrice.build());
         }
+        
+        return FlexibleDateSearchResponse.builder()
+                .selectedDate(searchRequest.getDepartureDate())
+                .calendar(calendar)
+                .offers(selectedOffers)
+                .build();
+    }
+    
+    private CompletableFuture<List<FlightResponse>> loadFlightOffers(FlightSearchRequest searchRequest) {
+        return fetchFlightOffers(searchRequest).toFuture().thenApply(offers -> {
+            // Keep the newest real results for degraded mode
+            lastKnownGoodStore.save(FLIGHT_OFFERS_CACHE, searchRequest.canonicalKey(), searchRequest.routeKey(),
+                    searchRequest.getDepartureDate(), offers);
+            return offers;
+        });
+    }
+    
+    private Mono<List<FlightResponse>> fetchFlightOffers(FlightSearchRequest searchRequest) {
+        return amadeusClient.getFlightOffers(buildFlightSearchUrl(searchRequest));
+    }
+    
+    private Page<FlightResponse> toPage(CachedResult<FlightResponse> offers, FlightSearchRequest searchRequest, Pageable pageable) {
+        // Apply client-side filtering, then sort only as far as the requested page
+        List<FlightResponse> flights = filterFlights(offers.results(), searchRequest);
+        return SearchResultPage.of(sortAndPaginate(flights, searchRequest, pageable), offers);
+    }
+    
+    private Page<FlightResponse> handleSearchFailure(Throwable e, FlightSearchRequest searchRequest, Pageable pageable) {
+        if (e instanceof RateLimitExceededException) {
+            logger.warn("Rate limit exceeded, using fallback data");
+            return getFallbackFlightData(searchRequest, pageable);
+        }
+        
+        logger.error("Error searching flights: {}", e.getMessage(), e);
+        
+        // Return fallback data if enabled
+        if (cacheConfig.getApi().getFallback().isEnabled()) {
+            logger.info("Returning fallback flight data");
+            return getFallbackFlightData(searchRequest, pageable);
+        }
+        
+        throw new RuntimeException("Flight search failed: " + e.getMessage(), e);
+    }
+    
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
     
     @Override
@@ -114,18 +321,13 @@ public class FlightServiceImpl implements FlightService {
         logger.info("Getting flight details for offer ID: {}", offerId);
         
         try {
-            String accessToken = getAccessToken();
             String detailsUrl = baseUrl + "/v1/shopping/flight-offers/" + offerId;
+            List<FlightResponse> offers = amadeusClient.getFlightOffers(detailsUrl).block();
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(accessToken);
-            HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
-            
-            ResponseEntity<JsonNode> response = restTemplate.exchange(
-                    detailsUrl, HttpMethod.GET, requestEntity, JsonNode.class
-            );
-            
-            return parseFlightOffer(response.getBody());
+            if (offers == null || offers.isEmpty()) {
+                throw new RuntimeException("Flight offer not found: " + offerId);
+            }
+            return offers.get(0);
             
         } catch (Exception e) {
             logger.error("Error getting flight details: {}", e.getMessage(), e);
@@ -150,39 +352,10 @@ public class FlightServiceImpl implements FlightService {
     }
     
     @Override
-    @CacheEvict(value = {"flight-offers", "amadeus-tokens"}, allEntries = true)
+    @CacheEvict(value = "flight-offers", allEntries = true)
     public void clearFlightCache() {
         logger.info("Clearing flight cache");
-    }
-    
-    @Cacheable(value = "amadeus-tokens", key = "'access_token'")
-    private String getAccessToken() {
-        logger.debug("Getting Amadeus access token");
-        
-        String tokenUrl = baseUrl + "/v1/security/oauth2/token";
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        
-        MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
-        body.add("grant_type", "client_credentials");
-        body.add("client_id", apiKey);
-        body.add("client_secret", apiSecret);
-        
-        HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity<>(body, headers);
-        
-        try {
-            ResponseEntity<JsonNode> response = restTemplate.postForEntity(tokenUrl, requestEntity, JsonNode.class);
-            
-            if (response.getBody() != null && response.getBody().has("access_token")) {
-                return response.getBody().get("access_token").asText();
-            }
-            
-            throw new RuntimeException("No access token in response");
-            
-        } catch (Exception e) {
-            logger.error("Failed to get access token: {}", e.getMessage());
-            throw new RuntimeException("Could not obtain Amadeus access token", e);
-        }
+        searchResultCache.clearNegativeResults();
     }
     
     private String buildFlightSearchUrl(FlightSearchRequest request) {
@@ -208,127 +381,36 @@ public class FlightServiceImpl implements FlightService {
         url.append("&travelClass=").append(request.getTravelClass());
         url.append("&nonStop=").append(request.getNonStop());
         url.append("&currencyCode=").append(request.getCurrency());
-        url.append("&max=").append(Math.min(250, request.getSize() * 3)); // Get more results for filtering
+        url.append("&max=").append(MAX_UPSTREAM_RESULTS);
         
         return url.toString();
     }
     
-    private List<FlightResponse> parseFlightResponse(JsonNode responseBody) {
-        List<FlightResponse> flights = new ArrayList<>();
-        
-        if (responseBody != null && responseBody.has("data")) {
-            JsonNode data = responseBody.get("data");
-            
-            for (JsonNode flightOffer : data) {
-                try {
-                    FlightResponse flight = parseFlightOffer(flightOffer);
-                    if (flight != null) {
-                        flights.add(flight);
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to parse flight offer: {}", e.getMessage());
-                }
-            }
-        }
-        
-        return flights;
-    }
-    
-    private FlightResponse parseFlightOffer(JsonNode flightOffer) {
-        if (flightOffer == null) return null;
-        
-        try {
-            FlightResponse.FlightResponseBuilder builder = FlightResponse.builder()
-                    .id(flightOffer.path("id").asText())
-                    .price(flightOffer.path("price").path("grandTotal").asDouble())
-                    .currency(flightOffer.path("price").path("currency").asText())
-                    .numberOfBookableSeats(flightOffer.path("numberOfBookableSeats").asInt())
-                    .validatingAirlineCodes(flightOffer.path("validatingAirlineCodes").toString());
-            
-            // Parse itineraries
-            List<FlightResponse.Itinerary> itineraries = new ArrayList<>();
-            JsonNode itinerariesNode = flightOffer.path("itineraries");
-            
-            for (JsonNode itineraryNode : itinerariesNode) {
-                FlightResponse.Itinerary itinerary = parseItinerary(itineraryNode);
-                if (itinerary != null) {
-                    itineraries.add(itinerary);
-                }
-            }
-            
-            builder.itineraries(itineraries);
-            
-            return builder.build();
-            
-        } catch (Exception e) {
-            logger.warn("Failed to parse flight offer: {}", e.getMessage());
-            return null;
-        }
+    private List<FlightResponse> filterFlights(List<FlightResponse> flights, FlightSearchRequest request) {
+        return flights.stream()
+                .filter(flight -> applyFilters(flight, request))
+                .collect(Collectors.toList());
     }
     
-    private FlightResponse.Itinerary parseItinerary(JsonNode itineraryNode) {
-        try {
-            List<FlightResponse.Segment> segments = new ArrayList<>();
-            JsonNode segmentsNode = itineraryNode.path("segments");
-            
-            for (JsonNode segmentNode : segmentsNode) {
-                FlightResponse.Segment segment = parseSegment(segmentNode);
-                if (segment != null) {
-                    segments.add(segment);
-                }
-            }
-            
-            return FlightResponse.Itinerary.builder()
-                    .duration(itineraryNode.path("duration").asText())
-                    .segments(segments)
-                    .build();
-                    
-        } catch (Exception e) {
-            logger.warn("Failed to parse itinerary: {}", e.getMessage());
-            return null;
-        }
+    private Page<FlightResponse> sortAndPaginate(List<FlightResponse> flights, FlightSearchRequest request, Pageable pageable) {
+        List<FlightResponse> pageContent = selectSorted(flights, request, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(pageContent, pageable, flights.size());
     }
     
-    private FlightResponse.Segment parseSegment(JsonNode segmentNode) {
-        try {
-            FlightResponse.Departure departure = FlightResponse.Departure.builder()
-                    .iataCode(segmentNode.path("departure").path("iataCode").asText())
-                    .terminal(segmentNode.path("departure").path("terminal").asText())
-                    .at(LocalDateTime.parse(segmentNode.path("departure").path("at").asText()))
-                    .build();
-                    
-            FlightResponse.Arrival arrival = FlightResponse.Arrival.builder()
-                    .iataCode(segmentNode.path("arrival").path("iataCode").asText())
-                    .terminal(segmentNode.path("arrival").path("terminal").asText())
-                    .at(LocalDateTime.parse(segmentNode.path("arrival").path("at").asText()))
-                    .build();
-                    
-            FlightResponse.Aircraft aircraft = FlightResponse.Aircraft.builder()
-                    .code(segmentNode.path("aircraft").path("code").asText())
-                    .build();
-                    
-            return FlightResponse.Segment.builder()
-                    .departure(departure)
-                    .arrival(arrival)
-                    .carrierCode(segmentNode.path("carrierCode").asText())
-                    .number(segmentNode.path("number").asText())
-                    .aircraft(aircraft)
-                    .duration(segmentNode.path("duration").asText())
-                    .id(segmentNode.path("id").asText())
-                    .numberOfStops(segmentNode.path("numberOfStops").asInt())
-                    .build();
-                    
-        } catch (Exception e) {
-            logger.warn("Failed to parse segment: {}", e.getMessage());
-            return null;
+    /**
+     * Ordered window of the flights via top-k selection on primitive keys; a full sort
+     * only happens for deep pages. Same order as {@link #getComparator}.
+     */
+    private List<FlightResponse> selectSorted(List<FlightResponse> flights, FlightSearchRequest request, long offset, int limit) {
+        ToDoubleFunction<FlightResponse> sortKey = sortKey(request);
+        double[] primaryKeys = new double[flights.size()];
+        double[] priceKeys = new double[flights.size()];
+        for (int i = 0; i < flights.size(); i++) {
+            primaryKeys[i] = sortKey.applyAsDouble(flights.get(i));
+            priceKeys[i] = priceKey(flights.get(i));
         }
-    }
-    
-    private List<FlightResponse> filterAndSortFlights(List<FlightResponse> flights, FlightSearchRequest request) {
-        return flights.stream()
-                .filter(flight -> applyFilters(flight, request))
-                .sorted(getComparator(request))
-                .collect(Collectors.toList());
+        
+        return TopKSelector.select(flights, primaryKeys, priceKeys, isDescending(request), offset, limit);
     }
     
     private boolean applyFilters(FlightResponse flight, FlightSearchRequest request) {
@@ -337,7 +419,11 @@ public class FlightServiceImpl implements FlightService {
             return false;
         }
         
-        // Apply duration filter (would need to calculate total duration)
+        // Apply duration filter: every itinerary (outbound and return) must fit
+        if (request.getMaxDuration() != null && flight.getLongestItineraryMinutes() > request.getMaxDuration()) {
+            return false;
+        }
+        
         // Apply airline filter
         if (request.getAirline() != null && !request.getAirline().isEmpty()) {
             boolean matchesAirline = flight.getItineraries().stream()
@@ -352,75 +438,86 @@ public class FlightServiceImpl implements FlightService {
     }
     
     private Comparator<FlightResponse> getComparator(FlightSearchRequest request) {
-        Comparator<FlightResponse> comparator;
-        
-        switch (request.getSortBy().toLowerCase()) {
-            case "price":
-                comparator = Comparator.comparing(FlightResponse::getPrice);
-                break;
+        // Primitive keys precomputed at parse time; price breaks ties; missing keys last either way
+        ToDoubleFunction<FlightResponse> sortKey = sortKey(request);
+        boolean descending = isDescending(request);
+        return (a, b) -> {
+            int result = TopKSelector.compareKeys(sortKey.applyAsDouble(a), sortKey.applyAsDouble(b), descending);
+            return result != 0 ? result : TopKSelector.compareKeys(priceKey(a), priceKey(b), descending);
+        };
+    }
+    
+    private ToDoubleFunction<FlightResponse> sortKey(FlightSearchRequest request) {
+        switch (request.getSortBy() == null ? "price" : request.getSortBy().toLowerCase()) {
             case "duration":
-                // Would need to implement duration calculation
-                comparator = Comparator.comparing(FlightResponse::getPrice);
-                break;
+                return flight -> flight.getTotalDurationMinutes() != IsoDurations.UNKNOWN
+                        ? flight.getTotalDurationMinutes() : TopKSelector.MISSING;
+            case "departure_time":
+            case "departure":
+                return flight -> flight.getFirstDepartureEpochMinute() != Long.MAX_VALUE
+                        ? flight.getFirstDepartureEpochMinute() : TopKSelector.MISSING;
+            case "stops":
+                return FlightResponse::getStopCount;
+            case "price":
             default:
-                comparator = Comparator.comparing(FlightResponse::getPrice);
+                return FlightServiceImpl::priceKey;
         }
-        
-        if ("desc".equalsIgnoreCase(request.getSortOrder())) {
-            comparator = comparator.reversed();
-        }
-        
-        return comparator;
+    }
+    
+    private static double priceKey(FlightResponse flight) {
+        return flight.getPrice() != null ? flight.getPrice() : TopKSelector.MISSING;
+    }
+    
+    private static boolean isDescending(FlightSearchRequest request) {
+        return "desc".equalsIgnoreCase(request.getSortOrder());
     }
     
     private Page<FlightResponse> paginateResults(List<FlightResponse> flights, Pageable pageable) {
-        int start = (int) pageable.getOffset();
+        int start = (int) Math.min(pageable.getOffset(), flights.size());
         int end = Math.min(start + pageable.getPageSize(), flights.size());
         
         List<FlightResponse> pageContent = flights.subList(start, end);
         return new PageImpl<>(pageContent, pageable, flights.size());
     }
     
-    private boolean checkRateLimit() {
-        String key = "amadeus-api";
-        long now = System.currentTimeMillis();
-        long windowStart = now - windowSizeMs;
-        
-        AtomicLong counter = requestCounts.computeIfAbsent(key, k -> new AtomicLong(0));
-        
-        // Simple sliding window rate limiting
-        if (counter.get() >= cacheConfig.getRateLimit().getAmadeus().getRequestsPerSecond()) {
-            return false;
-        }
-        
-        counter.incrementAndGet();
-        
-        // Reset counter every second (simplified implementation)
-        if (now % 1000 < 100) {
-            counter.set(0);
+    /**
+     * Degraded-mode results: the newest real offers for this or a nearby search if any were
+     * stored, otherwise generated placeholder offers
+     */
+    private Page<FlightResponse> getFallbackFlightData(FlightSearchRequest request, Pageable pageable) {
+        Optional<CachedResult<FlightResponse>> lastKnownGood = lastKnownGoodStore.find(FLIGHT_OFFERS_CACHE,
+                request.canonicalKey(), request.routeKey(), request.getDepartureDate(), FlightResponse.class);
+        
+        if (lastKnownGood.isPresent()) {
+            CachedResult<FlightResponse> offers = lastKnownGood.get();
+            logger.info("Returning last-known-good flight data fetched at {}", offers.fetchedAt());
+            // Sort keys are not stored; derive them again
+            offers.results().forEach(FlightResponse::computeSortKeys);
+            List<FlightResponse> flights = filterFlights(offers.results(), request);
+            return SearchResultPage.of(sortAndPaginate(flights, request, pageable), offers, SearchResultPage.Source.LAST_KNOWN_GOOD);
         }
         
-        return true;
-    }
-    
-    private Page<FlightResponse> getFallbackFlightData(FlightSearchRequest request, Pageable pageable) {
+        logger.info("No last-known-good flight data, generating placeholder offers");
         List<FlightResponse> fallbackFlights = generateFallbackFlights(request);
-        return paginateResults(fallbackFlights, pageable);
+        return new SearchResultPage<>(paginateResults(fallbackFlights, pageable), Instant.now(), false,
+                SearchResultPage.Source.SYNTHETIC);
     }
     
     private List<FlightResponse> generateFallbackFlights(FlightSearchRequest request) {
         List<FlightResponse> flights = new ArrayList<>();
-        Random random = new Random();
+        // ThreadLocalRandom: no contention under load, unlike shared Random or UUID.randomUUID() (SecureRandom)
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         
         for (int i = 0; i < cacheConfig.getApi().getFallback().getMinResults(); i++) {
             FlightResponse flight = FlightResponse.builder()
-                    .id("fallback-" + UUID.randomUUID().toString())
+                    .id("fallback-" + Long.toHexString(random.nextLong()))
                     .price(200.0 + random.nextDouble() * 800)
                     .currency(request.getCurrency())
                     .numberOfBookableSeats(random.nextInt(9) + 1)
                     .validatingAirlineCodes(getRandomAirline())
                     .itineraries(generateFallbackItinerary(request))
-                    .build();
+                    .build()
+                    .computeSortKeys();
             flights.add(flight);
         }
         
@@ -428,8 +525,9 @@ public class FlightServiceImpl implements FlightService {
     }
     
     private List<FlightResponse.Itinerary> generateFallbackItinerary(FlightSearchRequest request) {
-        LocalDateTime departureTime = request.getDepartureDate().atTime(8 + new Random().nextInt(12), 0);
-        LocalDateTime arrivalTime = departureTime.plusHours(2 + new Random().nextInt(8));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime departureTime = request.getDepartureDate().atTime(8 + random.nextInt(12), 0);
+        LocalDateTime arrivalTime = departureTime.plusHours(2 + random.nextInt(8));
         
         FlightResponse.Segment segment = FlightResponse.Segment.builder()
                 .departure(FlightResponse.Departure.builder()
@@ -441,13 +539,13 @@ public class FlightServiceImpl implements FlightService {
                         .at(arrivalTime)
                         .build())
                 .carrierCode(getRandomAirline())
-                .number(String.valueOf(1000 + new Random().nextInt(9000)))
-                .duration("PT" + (2 + new Random().nextInt(8)) + "H")
+                .number(String.valueOf(1000 + random.nextInt(9000)))
+                .duration("PT" + (2 + random.nextInt(8)) + "H")
                 .numberOfStops(0)
                 .build();
         
         FlightResponse.Itinerary itinerary = FlightResponse.Itinerary.builder()
-                .duration("PT" + (2 + new Random().nextInt(8)) + "H")
+                .duration("PT" + (2 + random.nextInt(8)) + "H")
                 .segments(Arrays.asList(segment))
                 .build();
         
@@ -456,7 +554,7 @@ public class FlightServiceImpl implements FlightService {
     
     private String getRandomAirline() {
         String[] airlines = {"AA", "DL", "UA", "AS", "B6", "WN", "NK", "F9", "G4"};
-        return airlines[new Random().nextInt(airlines.length)];
+        return airlines[ThreadLocalRandom.current().nextInt(airlines.length)];
     }
     
     private List<String> getPopularDestinations(String origin) {
@@ -469,4 +567,7 @@ public class FlightServiceImpl implements FlightService {
         
         return destinationMap.getOrDefault(origin, Arrays.asList("JFK", "LAX", "LHR", "CDG"));
     }
+    
+    private record DaySearch(FlightSearchRequest request, CompletableFuture<CachedResult<FlightResponse>> offers) {
+    }
 }
\ No newline at end of file
@@ -1,65 +1,103 @@
 package com.TripFinder.serviceImpl;
 
+import com.TripFinder.component.AmadeusClient;
+import com.TripFinder.component.AmadeusRateLimiter;
+import com.TripFinder.component.CachedResult;
+import com.TripFinder.component.HotelOfferBatcher;
+import com.TripFinder.component.LastKnownGoodStore;
+import com.TripFinder.component.SearchResultCache;
 import com.TripFinder.config.CacheConfig;
 import com.TripFinder.dto.HotelSearchRequest;
+import com.TripFinder.dto.SearchResultPage;
 import com.TripFinder.dto.HotelResponse;
 import com.TripFinder.entity.Hotel;
+import com.TripFinder.exception.RateLimitExceededException;
 import com.TripFinder.repository.HotelRepo;
 import com.TripFinder.service.HotelService;
+import com.TripFinder.util.HotelFilter;
+import com.TripFinder.util.TopKSelector;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.*;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
 
 @Service
 public class HotelServiceImpl implements HotelService {
     
     private static final Logger logger = LoggerFactory.getLogger(HotelServiceImpl.class);
     
-    @Value("${amadeus.api.key}")
-    private String apiKey;
+    private static final String HOTEL_OFFERS_CACHE = "hotel-offers";
     
-    @Value("${amadeus.api.secret}")
-    private String apiSecret;
+    // Which hotels exist in a city; changes rarely and is shared by every date and guest combination
+    private static final String HOTEL_CITY_INDEX_CACHE = "hotel-city-index";
+    
+    // Hotels per offers request
+    private static final int MAX_HOTELS_PER_SEARCH = 50;
+    
+    @Value("${app.hotels.prewarm-city-index:true}")
+    private boolean prewarmCityIndex;
+    
+    @Value("${app.hotels.offers.chunk-size:25}")
+    private int offersChunkSize;
+    
+    @Value("${app.hotels.offers.concurrency:5}")
+    private int offersConcurrency;
+    
+    @Value("${app.hotels.offers.chunk-timeout:8s}")
+    private Duration offersChunkTimeout;
+    
+    @Value("${app.hotels.offers.deadline:12s}")
+    private Duration offersDeadline;
+    
+    @Value("${app.hotels.offers.partial-results:true}")
+    private boolean partialOffersEnabled;
     
     @Value("${amadeus.api.base-url}")
     private String baseUrl;
     
-    @Autowired
-    private RestTemplate restTemplate;
-    
     @Autowired
     private CacheConfig cacheConfig;
     
     @Autowired
-    private ObjectMapper objectMapper;
+    private AmadeusClient amadeusClient;
     
     @Autowired
     private HotelRepo hotelRepo;
     
-    // Rate limiting
-    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
-    private final long windowSizeMs = 1000; // 1 second window
+    @Autowired
+    private SearchResultCache searchResultCache;
+    
+    @Autowired
+    private LastKnownGoodStore lastKnownGoodStore;
+    
+    @Autowired
+    private HotelOfferBatcher hotelOfferBatcher;
+    
+    @Autowired
+    private AmadeusRateLimiter amadeusRateLimiter;
     
     @Override
     public List<Hotel> getAllHotels() {
@@ -67,50 +105,85 @@ public class HotelServiceImpl implements HotelService {
     }
     
     @Override
-    @Cacheable(value = "hotel-offers", key = "#searchRequest.hashCode() + '_' + #pageable.pageNumber")
     @Retry(name = "amadeus-api")
     public Page<HotelResponse> searchHotels(HotelSearchRequest searchRequest, Pageable pageable) {
         logger.info("Searching hotels in {} from {} to {}", 
                 searchRequest.getCityCode(), searchRequest.getCheckInDate(), searchRequest.getCheckOutDate());
         
         try {
-            // Check rate limits
-            if (!checkRateLimit()) {
-                logger.warn("Rate limit exceeded, using fallback data");
-                return getFallbackHotelData(searchRequest, pageable);
-            }
-            
-            // Get access token
-            String accessToken = getAccessToken();
-            
-            // Step 1: Search for hotels by location
-            List<String> hotelIds = searchHotelsByLocation(accessToken, searchRequest);
-            
-            if (hotelIds.isEmpty()) {
-                logger.warn("No hotels found for location: {}", searchRequest.getCityCode());
-                return getFallbackHotelData(searchRequest, pageable);
-            }
-            
-            // Step 2: Get hotel offers for found hotels
-            List<HotelResponse> hotels = getHotelOffers(accessToken, hotelIds, searchRequest);
+            // Full upstream result set, shared by every page, sort order and filter of this search
+            CachedResult<HotelResponse> offers = searchResultCache.get(
+                    HOTEL_OFFERS_CACHE, searchRequest.canonicalKey(), () -> loadHotelOffers(searchRequest));
             
-            // Apply client-side filtering and sorting
-            hotels = filterAndSortHotels(hotels, searchRequest);
-            
-            // Handle pagination
-            return paginateResults(hotels, pageable);
+            return toPage(offers, searchRequest, pageable);
             
         } catch (Exception e) {
-            logger.error("Error searching hotels: {}", e.getMessage(), e);
-            
-            // Return fallback data if enabled
-            if (cacheConfig.getApi().getFallback().isEnabled()) {
-                logger.info("Returning fallback hotel data");
-                return getFallbackHotelData(searchRequest, pageable);
+            return handleSearchFailure(e, searchRequest, pageable);
+        }
+    }
+    
+    @Override
+    @Retry(name = "amadeus-api")
+    public CompletableFuture<Page<HotelResponse>> searchHotelsAsync(HotelSearchRequest searchRequest, Pageable pageable) {
+        logger.info("Searching hotels in {} from {} to {}", 
+                searchRequest.getCityCode(), searchRequest.getCheckInDate(), searchRequest.getCheckOutDate());
+        
+        return searchResultCache.<HotelResponse>getAsync(
+                        HOTEL_OFFERS_CACHE, searchRequest.canonicalKey(), () -> loadHotelOffers(searchRequest))
+                // Off the event loop: an empty result or a failure falls back to the last-known-good store
+                .thenApplyAsync(offers -> toPage(offers, searchRequest, pageable))
+                .exceptionallyAsync(e -> handleSearchFailure(unwrap(e), searchRequest, pageable));
+    }
+    
+    private CompletableFuture<List<HotelResponse>> loadHotelOffers(HotelSearchRequest searchRequest) {
+        return fetchHotelOffers(searchRequest).toFuture().thenApply(offers -> {
+            // Keep the newest real results for degraded mode; a partial answer would replace a complete one
+            if (SearchResultCache.isIncomplete(offers)) {
+                return offers;
             }
-            
-            throw new RuntimeException("Hotel search failed: " + e.getMessage(), e);
+            lastKnownGoodStore.save(HOTEL_OFFERS_CACHE, searchRequest.canonicalKey(), searchRequest.routeKey(),
+                    searchRequest.getCheckInDate(), offers);
+            return offers;
+        });
+    }
+    
+    private Mono<List<HotelResponse>> fetchHotelOffers(HotelSearchRequest searchRequest) {
+        // Step 1: Search for hotels by location
+        return searchHotelsByLocation(searchRequest)
+                // Step 2: Get hotel offers for found hotels
+                .flatMap(hotelIds -> getHotelOffers(hotelIds, searchRequest));
+    }
+    
+    private Page<HotelResponse> toPage(CachedResult<HotelResponse> offers, HotelSearchRequest searchRequest, Pageable pageable) {
+        if (offers.results().isEmpty()) {
+            logger.warn("No hotels found for location: {}", searchRequest.getCityCode());
+            return getFallbackHotelData(searchRequest, pageable);
+        }
+        
+        // Apply client-side filtering, then sort only as far as the requested page
+        List<HotelResponse> hotels = filterHotels(offers.results(), searchRequest);
+        return SearchResultPage.of(sortAndPaginate(hotels, searchRequest, pageable), offers);
+    }
+    
+    private Page<HotelResponse> handleSearchFailure(Throwable e, HotelSearchRequest searchRequest, Pageable pageable) {
+        if (e instanceof RateLimitExceededException) {
+            logger.warn("Rate limit exceeded, using fallback data");
+            return getFallbackHotelData(searchRequest, pageable);
+        }
+        
+        logger.error("Error searching hotels: {}", e.getMessage(), e);
+        
+        // Return fallback data if enabled
+        if (cacheConfig.getApi().getFallback().isEnabled()) {
+            logger.info("Returning fallback hotel data");
+            return getFallbackHotelData(searchRequest, pageable);
         }
+        
+        throw new RuntimeException("Hotel search failed: " + e.getMessage(), e);
+    }
+    
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
     
     @Override
@@ -118,18 +191,11 @@ public class HotelServiceImpl implements HotelService {
         logger.info("Getting hotel details for hotel ID: {} and offer ID: {}", hotelId, offerId);
         
         try {
-            String accessToken = getAccessToken();
             String detailsUrl = baseUrl + "/v3/shopping/hotel-offers/" + offerId;
+            JsonNode response = amadeusClient.getHotelOffers(detailsUrl).block();
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(accessToken);
-            HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
-            
-            ResponseEntity<JsonNode> response = restTemplate.exchange(
-                    detailsUrl, HttpMethod.GET, requestEntity, JsonNode.class
-            );
-            
-            return parseHotelOffer(response.getBody());
+            // Single-offer responses wrap the hotel offer in a "data" object
+            return parseHotelOffer(response == null ? null : response.path("data"));
             
         } catch (Exception e) {
             logger.error("Error getting hotel details: {}", e.getMessage(), e);
@@ -159,93 +225,128 @@ public class HotelServiceImpl implements HotelService {
     }
     
     @Override
-    @CacheEvict(value = {"hotel-offers", "amadeus-tokens"}, allEntries = true)
+    @CacheEvict(value = "hotel-offers", allEntries = true)
     public void clearHotelCache() {
         logger.info("Clearing hotel cache");
+        searchResultCache.clearNegativeResults();
     }
     
-    @Cacheable(value = "amadeus-tokens", key = "'access_token'")
-    private String getAccessToken() {
-        logger.debug("Getting Amadeus access token");
-        
-        String tokenUrl = baseUrl + "/v1/security/oauth2/token";
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        
-        MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
-        body.add("grant_type", "client_credentials");
-        body.add("client_id", apiKey);
-        body.add("client_secret", apiSecret);
-        
-        HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity<>(body, headers);
-        
-        try {
-            ResponseEntity<JsonNode> response = restTemplate.postForEntity(tokenUrl, requestEntity, JsonNode.class);
-            
-            if (response.getBody() != null && response.getBody().has("access_token")) {
-                return response.getBody().get("access_token").asText();
-            }
-            
-            throw new RuntimeException("No access token in response");
-            
-        } catch (Exception e) {
-            logger.error("Failed to get access token: {}", e.getMessage());
-            throw new RuntimeException("Could not obtain Amadeus access token", e);
+    /**
+     * Load the city's hotel IDs into the city index for popular destinations, so their first
+     * searches only need the offers call. Runs in the background; failures are only logged.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmCityIndex() {
+        if (!prewarmCityIndex) {
+            return;
         }
-    }
-    
-    private List<String> searchHotelsByLocation(String accessToken, HotelSearchRequest request) {
-        String searchUrl = buildHotelSearchUrl(request);
         
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(accessToken);
-        HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
-        
-        try {
-            ResponseEntity<JsonNode> response = restTemplate.exchange(
-                    searchUrl, HttpMethod.GET, requestEntity, JsonNode.class
-            );
-            
-            List<String> hotelIds = new ArrayList<>();
-            JsonNode data = response.getBody().path("data");
-            
-            for (JsonNode hotel : data) {
-                String hotelId = hotel.path("hotelId").asText();
-                if (!hotelId.isEmpty()) {
-                    hotelIds.add(hotelId);
+        for (String cityCode : getPopularDestinations()) {
+            HotelSearchRequest request = HotelSearchRequest.builder().cityCode(cityCode).build();
+            getCityHotelIds(request).whenComplete((index, error) -> {
+                if (error != null) {
+                    logger.warn("Could not prewarm hotel city index for {}: {}", cityCode, error.getMessage());
+                } else {
+                    logger.debug("Prewarmed hotel city index for {} ({} hotels)", cityCode, index.results().size());
                 }
-            }
-            
-            return hotelIds.subList(0, Math.min(hotelIds.size(), 50)); // Limit to 50 hotels
-            
-        } catch (Exception e) {
-            logger.error("Error searching hotels by location: {}", e.getMessage());
-            return Collections.emptyList();
+            });
         }
     }
     
-    private List<HotelResponse> getHotelOffers(String accessToken, List<String> hotelIds, HotelSearchRequest request) {
+    private Mono<List<String>> searchHotelsByLocation(HotelSearchRequest request) {
+        return Mono.fromFuture(() -> getCityHotelIds(request))
+                .map(index -> index.results().subList(0, Math.min(index.results().size(), MAX_HOTELS_PER_SEARCH)));
+    }
+    
+    private CompletableFuture<CachedResult<String>> getCityHotelIds(HotelSearchRequest request) {
+        return searchResultCache.getAsync(
+                HOTEL_CITY_INDEX_CACHE, request.cityIndexKey(), () -> fetchCityHotelIds(request).toFuture());
+    }
+    
+    private Mono<List<String>> fetchCityHotelIds(HotelSearchRequest request) {
+        return amadeusClient.getHotelsByCity(buildHotelSearchUrl(request))
+                .map(response -> {
+                    List<String> hotelIds = new ArrayList<>();
+                    JsonNode data = response.path("data");
+                    
+                    for (JsonNode hotel : data) {
+                        String hotelId = hotel.path("hotelId").asText();
+                        if (!hotelId.isEmpty()) {
+                            hotelIds.add(hotelId);
+                        }
+                    }
+                    
+                    return hotelIds;
+                })
+                // Errors propagate so the search cache can tell "no hotels" from a failed call
+                .doOnError(e -> logger.error("Error searching hotels by location: {}", e.getMessage()))
+                .defaultIfEmpty(Collections.emptyList());
+    }
+    
+    private Mono<List<HotelResponse>> getHotelOffers(List<String> hotelIds, HotelSearchRequest request) {
         if (hotelIds.isEmpty()) {
-            return Collections.emptyList();
+            return Mono.just(Collections.emptyList());
         }
         
-        String offersUrl = buildHotelOffersUrl(hotelIds, request);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(accessToken);
-        HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
-        
-        try {
-            ResponseEntity<JsonNode> response = restTemplate.exchange(
-                    offersUrl, HttpMethod.GET, requestEntity, JsonNode.class
-            );
-            
-            return parseHotelOffers(response.getBody());
-            
-        } catch (Exception e) {
-            logger.error("Error getting hotel offers: {}", e.getMessage());
-            return Collections.emptyList();
+        // Concurrent searches of the same stay share one upstream fetch
+        return hotelOfferBatcher.fetch(request.stayKey(), hotelIds, batchIds -> fetchHotelOfferChunks(batchIds, request));
+    }
+    
+    /**
+     * Fetch offers for the hotels in chunks of at least {@code app.hotels.offers.chunk-size} IDs, at most
+     * {@code app.hotels.offers.concurrency} at a time, each through the shared rate limiter.
+     * Every chunk costs a permit, so the hotels are only split as far as half of the limiter's
+     * currently available permits allow; once concurrent searches have drained it, a search
+     * takes a single permit. Chunks are merged as they arrive. A chunk that fails or exceeds its own timeout is dropped;
+     * when the overall deadline passes the chunks still in flight are cancelled. Either way the
+     * remaining offers are returned marked incomplete, unless partial results are disabled.
+     * The search only fails if no chunk answered.
+     */
+    private Mono<List<HotelResponse>> fetchHotelOfferChunks(List<String> hotelIds, HotelSearchRequest request) {
+        int chunkSize = Math.max(1, offersChunkSize);
+        int wantedChunks = (hotelIds.size() + chunkSize - 1) / chunkSize;
+        int chunkCount = Math.max(1, Math.min(wantedChunks, amadeusRateLimiter.availablePermits() / 2));
+        List<List<String>> chunks = partition(hotelIds, (hotelIds.size() + chunkCount - 1) / chunkCount);
+        AtomicInteger answeredChunks = new AtomicInteger();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> amadeusClient.getHotelOffers(buildHotelOffersUrl(chunk, request))
+                        .map(this::parseHotelOffers)
+                        .defaultIfEmpty(Collections.emptyList())
+                        .timeout(offersChunkTimeout)
+                        .doOnNext(offers -> answeredChunks.incrementAndGet())
+                        .onErrorResume(e -> {
+                            logger.warn("Hotel offers for {} hotels in {} failed: {}", chunk.size(), request.getCityCode(), e.toString());
+                            firstFailure.compareAndSet(null, e);
+                            return Mono.empty();
+                        }), Math.max(1, offersConcurrency))
+                .take(offersDeadline)
+                .collect(ArrayList<HotelResponse>::new, List::addAll)
+                .flatMap(offers -> {
+                    int answered = answeredChunks.get();
+                    if (answered == chunks.size()) {
+                        return Mono.just(offers);
+                    }
+                    
+                    if (answered == 0 || !partialOffersEnabled) {
+                        Throwable failure = firstFailure.get();
+                        return Mono.error(failure != null && answered == 0 ? failure : new TimeoutException(
+                                "Hotel offers incomplete: " + answered + " of " + chunks.size() + " chunks answered"));
+                    }
+                    
+                    logger.info("Returning partial hotel offers for {}: {} of {} chunks answered",
+                            request.getCityCode(), answered, chunks.size());
+                    return Mono.just(SearchResultCache.incomplete(offers));
+                });
+    }
+    
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>((items.size() + size - 1) / size);
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(items.size(), from + size)));
         }
+        return chunks;
     }
     
     private String buildHotelSearchUrl(HotelSearchRequest request) {
@@ -266,7 +367,7 @@ public class HotelServiceImpl implements HotelService {
         url.append("&checkOutDate=").append(request.getCheckOutDate());
         url.append("&adults=").append(request.getAdults());
         
-        if (request.getRooms() > 1) {
+        if (request.getRooms() != null && request.getRooms() > 1) {
             url.append("&rooms=").append(request.getRooms());
         }
         
@@ -329,7 +430,7 @@ public class HotelServiceImpl implements HotelService {
             
             builder.offers(offers);
             
-            return builder.build();
+            return builder.build().computeFilterKeys();
             
         } catch (Exception e) {
             logger.warn("Failed to parse hotel offer: {}", e.getMessage());
@@ -442,125 +543,97 @@ public class HotelServiceImpl implements HotelService {
                 .build();
     }
     
-    private List<HotelResponse> filterAndSortHotels(List<HotelResponse> hotels, HotelSearchRequest request) {
-        return hotels.stream()
-                .filter(hotel -> applyFilters(hotel, request))
-                .sorted(getComparator(request))
-                .collect(Collectors.toList());
-    }
-    
-    private boolean applyFilters(HotelResponse hotel, HotelSearchRequest request) {
-        // Apply rating filter
-        if (request.getRatings() != null && !request.getRatings().isEmpty()) {
-            if (!request.getRatings().contains(hotel.getRating())) {
-                return false;
+    /**
+     * Apply the request's client-side filters, compiled once into a {@link HotelFilter}
+     */
+    private List<HotelResponse> filterHotels(List<HotelResponse> hotels, HotelSearchRequest request) {
+        HotelFilter filter = HotelFilter.compile(request);
+        List<HotelResponse> matching = new ArrayList<>(hotels.size());
+        for (HotelResponse hotel : hotels) {
+            if (filter.matches(hotel)) {
+                matching.add(hotel);
             }
         }
-        
-        // Apply price filter
-        if (hotel.getOffers() != null && !hotel.getOffers().isEmpty()) {
-            double minPrice = hotel.getOffers().stream()
-                    .mapToDouble(offer -> offer.getPrice().getTotal())
-                    .min().orElse(Double.MAX_VALUE);
-            
-            if (request.getPriceMin() != null && minPrice < request.getPriceMin()) {
-                return false;
-            }
-            
-            if (request.getPriceMax() != null && minPrice > request.getPriceMax()) {
-                return false;
-            }
-        }
-        
-        // Apply amenity filter
-        if (request.getAmenities() != null && !request.getAmenities().isEmpty()) {
-            if (hotel.getAmenities() == null) {
-                return false;
-            }
-            
-            boolean hasRequiredAmenities = request.getAmenities().stream()
-                    .anyMatch(amenity -> hotel.getAmenities().contains(amenity));
-            
-            if (!hasRequiredAmenities) {
-                return false;
-            }
+        return matching;
+    }
+    
+    /**
+     * Page of the hotels via top-k selection on primitive keys; a full sort only happens for deep pages
+     */
+    private Page<HotelResponse> sortAndPaginate(List<HotelResponse> hotels, HotelSearchRequest request, Pageable pageable) {
+        ToDoubleFunction<HotelResponse> sortKey = sortKey(request);
+        double[] keys = new double[hotels.size()];
+        for (int i = 0; i < hotels.size(); i++) {
+            keys[i] = sortKey.applyAsDouble(hotels.get(i));
         }
         
-        return true;
+        boolean descending = "desc".equalsIgnoreCase(request.getSortOrder());
+        List<HotelResponse> pageContent = TopKSelector.select(
+                hotels, keys, null, descending, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(pageContent, pageable, hotels.size());
     }
     
-    private Comparator<HotelResponse> getComparator(HotelSearchRequest request) {
-        Comparator<HotelResponse> comparator;
-        
-        switch (request.getSortBy().toLowerCase()) {
-            case "price":
-                comparator = Comparator.comparing(hotel -> {
-                    return hotel.getOffers() != null && !hotel.getOffers().isEmpty()
-                            ? hotel.getOffers().get(0).getPrice().getTotal()
-                            : Double.MAX_VALUE;
-                });
-                break;
+    private ToDoubleFunction<HotelResponse> sortKey(HotelSearchRequest request) {
+        switch (request.getSortBy() == null ? "price" : request.getSortBy().toLowerCase()) {
             case "rating":
-                comparator = Comparator.comparing(HotelResponse::getRating, Comparator.reverseOrder());
-                break;
+                // Highest rating first in ascending order
+                return hotel -> hotel.getRating() != null ? 0.0 - hotel.getRating() : TopKSelector.MISSING;
             case "distance":
-                comparator = Comparator.comparing(HotelResponse::getDistance, Comparator.nullsLast(Comparator.naturalOrder()));
-                break;
+                return hotel -> hotel.getDistance() != null ? hotel.getDistance() : TopKSelector.MISSING;
+            case "price":
             default:
-                comparator = Comparator.comparing(hotel -> {
-                    return hotel.getOffers() != null && !hotel.getOffers().isEmpty()
-                            ? hotel.getOffers().get(0).getPrice().getTotal()
-                            : Double.MAX_VALUE;
-                });
+                return HotelServiceImpl::priceKey;
         }
-        
-        if ("desc".equalsIgnoreCase(request.getSortOrder())) {
-            comparator = comparator.reversed();
+    }
+    
+    private static double priceKey(HotelResponse hotel) {
+        if (hotel.getOffers() == null || hotel.getOffers().isEmpty() || hotel.getOffers().get(0).getPrice() == null
+                || hotel.getOffers().get(0).getPrice().getTotal() == null) {
+            return TopKSelector.MISSING;
         }
-        
-        return comparator;
+        return hotel.getOffers().get(0).getPrice().getTotal();
     }
     
     private Page<HotelResponse> paginateResults(List<HotelResponse> hotels, Pageable pageable) {
-        int start = (int) pageable.getOffset();
+        int start = (int) Math.min(pageable.getOffset(), hotels.size());
         int end = Math.min(start + pageable.getPageSize(), hotels.size());
         
         List<HotelResponse> pageContent = hotels.subList(start, end);
         return new PageImpl<>(pageContent, pageable, hotels.size());
     }
     
-    private boolean checkRateLimit() {
-        String key = "amadeus-api";
-        AtomicLong counter = requestCounts.computeIfAbsent(key, k -> new AtomicLong(0));
-        
-        // Simple sliding window rate limiting
-        if (counter.get() >= cacheConfig.getRateLimit().getAmadeus().getRequestsPerSecond()) {
-            return false;
-        }
-        
-        counter.incrementAndGet();
-        
-        // Reset counter every second (simplified implementation)
-        if (System.currentTimeMillis() % 1000 < 100) {
-            counter.set(0);
+    /**
+     * Degraded-mode results: the newest real offers for this or a nearby search if any were
+     * stored, otherwise generated placeholder offers
+     */
+    private Page<HotelResponse> getFallbackHotelData(HotelSearchRequest request, Pageable pageable) {
+        Optional<CachedResult<HotelResponse>> lastKnownGood = lastKnownGoodStore.find(HOTEL_OFFERS_CACHE,
+                request.canonicalKey(), request.routeKey(), request.getCheckInDate(), HotelResponse.class);
+        
+        if (lastKnownGood.isPresent()) {
+            CachedResult<HotelResponse> offers = lastKnownGood.get();
+            logger.info("Returning last-known-good hotel data fetched at {}", offers.fetchedAt());
+            // Filter keys are not stored with the results
+            offers.results().forEach(HotelResponse::computeFilterKeys);
+            List<HotelResponse> hotels = filterHotels(offers.results(), request);
+            return SearchResultPage.of(sortAndPaginate(hotels, request, pageable), offers, SearchResultPage.Source.LAST_KNOWN_GOOD);
         }
         
-        return true;
-    }
-    
-    private Page<HotelResponse> getFallbackHotelData(HotelSearchRequest request, Pageable pageable) {
+        logger.info("No last-known-good hotel data, generating placeholder offers");
         List<HotelResponse> fallbackHotels = generateFallbackHotels(request);
-        return paginateResults(fallbackHotels, pageable);
+        return new SearchResultPage<>(paginateResults(fallbackHotels, pageable), Instant.now(), false,
+                SearchResultPage.Source.SYNTHETIC);
     }
     
     private List<HotelResponse> generateFallbackHotels(HotelSearchRequest request) {
         List<HotelResponse> hotels = new ArrayList<>();
-        Random random = new Random();
+        // ThreadLocalRandom: no contention under load, unlike shared Random or UUID.randomUUID() (SecureRandom)
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         String[] hotelNames = {"Grand Hotel", "City Center Hotel", "Business Hotel", "Comfort Inn", "Luxury Suite Hotel"};
         
         for (int i = 0; i < cacheConfig.getApi().getFallback().getMinResults(); i++) {
             HotelResponse hotel = HotelResponse.builder()
-                    .hotelId("fallback-" + UUID.randomUUID().toString())
+                    .hotelId("fallback-" + Long.toHexString(random.nextLong()))
                     .name(hotelNames[random.nextInt(hotelNames.length)] + " " + (i + 1))
                     .rating(3 + random.nextInt(3)) // 3-5 stars
                     .description("A comfortable hotel in " + request.getCityCode())
@@ -573,9 +646,9 @@ public class HotelServiceImpl implements HotelService {
         return hotels;
     }
     
-    private List<HotelResponse.RoomOffer> generateFallbackOffers(HotelSearchRequest request, Random random) {
+    private List<HotelResponse.RoomOffer> generateFallbackOffers(HotelSearchRequest request, ThreadLocalRandom random) {
         HotelResponse.RoomOffer offer = HotelResponse.RoomOffer.builder()
-                .id("offer-" + UUID.randomUUID().toString())
+                .id("offer-" + Long.toHexString(random.nextLong()))
                 .checkInDate(request.getCheckInDate())
                 .checkOutDate(request.getCheckOutDate())
                 .price(HotelResponse.Price.builder()
@@ -1,17 +1,23 @@
 package com.TripFinder.serviceImpl;
 
+import com.TripFinder.component.ItineraryItemRebalancer;
 import com.TripFinder.dto.ItineraryDto;
 import com.TripFinder.dto.ItineraryItemDto;
 import com.TripFinder.entity.Itinerary;
 import com.TripFinder.entity.ItineraryItem;
 import com.TripFinder.entity.User;
+import com.TripFinder.repository.ItineraryItemRepo;
 import com.TripFinder.repository.ItineraryRepo;
 import com.TripFinder.repository.UserRepo;
 import com.TripFinder.service.ItineraryService;
+import com.TripFinder.util.GapPositions;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +31,12 @@ public class ItineraryServiceImpl implements ItineraryService {
     @Autowired
     private UserRepo userRepo;
 
+    @Autowired
+    private ItineraryItemRepo itineraryItemRepo;
+
+    @Autowired
+    private ItineraryItemRebalancer itineraryItemRebalancer;
+
     @Override
     public Itinerary saveItinerary(ItineraryDto itineraryDto) {
         validateDto(itineraryDto);
@@ -78,9 +90,6 @@ public class ItineraryServiceImpl implements ItineraryService {
         }
     }
 
-    // Stub implementations for missing methods - these would need full implementation
-    // in a production system, but for now we provide basic stubs to allow compilation
-    
     @Override
     public Itinerary getItineraryById(Long id) {
         return itineraryRepo.findById(id)
@@ -88,52 +97,151 @@ public class ItineraryServiceImpl implements ItineraryService {
     }
     
     @Override
+    @Transactional
     public ItineraryItem addItemToItinerary(ItineraryItemDto itemDto) {
-        // Stub implementation - would need ItineraryItemRepository and full logic
-        throw new UnsupportedOperationException("ItineraryItem functionality not fully implemented yet");
+        List<ItineraryItem> items = lockItems(itemDto.getItineraryId());
+        
+        ItineraryItem item = new ItineraryItem();
+        BeanUtils.copyProperties(itemDto, item, "id", "position", "itinerary");
+        item.setItinerary(itineraryRepo.getReferenceById(itemDto.getItineraryId()));
+        item.setPosition(positionAt(items, clampIndex(itemDto.getPosition(), items.size()), itemDto.getItineraryId()));
+        
+        return itineraryItemRepo.save(item);
     }
     
     @Override
+    @Transactional
     public ItineraryItem addItemFromExternalSearch(Long itineraryId, String type, String provider, 
                                                   String externalId, String metadata, Integer position) {
-        // Stub implementation
-        throw new UnsupportedOperationException("ItineraryItem functionality not fully implemented yet");
+        if (isBlank(type) || isBlank(provider) || isBlank(externalId)) {
+            throw new RuntimeException("Type, provider and external ID are required.");
+        }
+        List<ItineraryItem> items = lockItems(itineraryId);
+        
+        ItineraryItem item = new ItineraryItem();
+        item.setType(type);
+        item.setProvider(provider);
+        item.setTitle(type + " " + externalId);
+        item.setMeta(metadata);
+        item.setItinerary(itineraryRepo.getReferenceById(itineraryId));
+        item.setPosition(positionAt(items, clampIndex(position, items.size()), itineraryId));
+        
+        return itineraryItemRepo.save(item);
     }
     
     @Override
     public List<ItineraryItem> getItineraryItems(Long itineraryId) {
-        // Stub implementation
-        throw new UnsupportedOperationException("ItineraryItem functionality not fully implemented yet");
+        requireItinerary(itineraryId);
+        return itineraryItemRepo.findByItineraryIdOrderByPosition(itineraryId);
     }
     
     @Override
     public List<ItineraryItem> getItineraryItemsByType(Long itineraryId, String type) {
-        // Stub implementation
-        throw new UnsupportedOperationException("ItineraryItem functionality not fully implemented yet");
+        requireItinerary(itineraryId);
+        return itineraryItemRepo.findByItineraryIdAndTypeOrderByPosition(itineraryId, type);
     }
     
     @Override
+    @Transactional
     public ItineraryItem updateItineraryItem(ItineraryItemDto itemDto) {
-        // Stub implementation
-        throw new UnsupportedOperationException("ItineraryItem functionality not fully implemented yet");
+        ItineraryItem item = findItem(itemDto.getItineraryId(), itemDto.getId());
+        
+        // Order changes go through move and reorder
+        BeanUtils.copyProperties(itemDto, item, "id", "position", "itinerary");
+        
+        return itineraryItemRepo.save(item);
     }
     
     @Override
+    @Transactional
     public void removeItemFromItinerary(Long itineraryId, Long itemId) {
-        // Stub implementation
-        throw new UnsupportedOperationException("ItineraryItem functionality not fully implemented yet");
+        // Positions are sort keys, so the items after it keep theirs
+        itineraryItemRepo.delete(findItem(itineraryId, itemId));
     }
     
     @Override
+    @Transactional
     public List<ItineraryItem> reorderItineraryItems(Long itineraryId, List<Map<String, Object>> itemOrders) {
-        // Stub implementation
-        throw new UnsupportedOperationException("ItineraryItem functionality not fully implemented yet");
+        List<ItineraryItem> items = lockItems(itineraryId);
+        Map<Long, ItineraryItem> itemsById = new HashMap<>();
+        for (ItineraryItem item : items) {
+            itemsById.put(item.getId(), item);
+        }
+        
+        // Requested items sorted by target index; ties keep request order
+        List<ItineraryItem> requested = new ArrayList<>();
+        Map<Long, Integer> targetIndex = new HashMap<>();
+        for (Map<String, Object> order : itemOrders) {
+            if (!(order.get("itemId") instanceof Number itemId) || !(order.get("position") instanceof Number index)) {
+                throw new RuntimeException("Each item order needs a numeric itemId and position.");
+            }
+            ItineraryItem item = itemsById.get(itemId.longValue());
+            if (item == null) {
+                throw new RuntimeException("Item " + itemId + " not found in itinerary " + itineraryId);
+            }
+            if (targetIndex.put(item.getId(), index.intValue()) == null) {
+                requested.add(item);
+            }
+        }
+        requested.sort(Comparator.comparing(item -> targetIndex.get(item.getId())));
+        
+        // Requested items go to their index, the rest fill the other slots in their current order
+        List<ItineraryItem> rest = items.stream().filter(item -> !targetIndex.containsKey(item.getId())).toList();
+        List<ItineraryItem> ordered = new ArrayList<>(items.size());
+        int nextRequested = 0;
+        int nextRest = 0;
+        while (ordered.size() < items.size()) {
+            if (nextRequested < requested.size()
+                    && (nextRest >= rest.size() || targetIndex.get(requested.get(nextRequested).getId()) <= ordered.size())) {
+                ordered.add(requested.get(nextRequested++));
+            } else {
+                ordered.add(rest.get(nextRest++));
+            }
+        }
+        
+        int[] positions = GapPositions.reassign(ordered.stream().mapToInt(ItineraryItem::getPosition).toArray());
+        if (positions == null) {
+            itineraryItemRebalancer.respace(ordered);
+            return ordered;
+        }
+        
+        // Only items out of order get a new position; the changes are flushed as one batch
+        List<ItineraryItem> changed = new ArrayList<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            ItineraryItem item = ordered.get(i);
+            if (item.getPosition() != positions[i]) {
+                item.setPosition(positions[i]);
+                changed.add(item);
+            }
+        }
+        itineraryItemRepo.saveAll(changed);
+        return ordered;
     }
     
     @Override
+    @Transactional
     public ItineraryItem moveItemToPosition(Long itineraryId, Long itemId, int newPosition) {
-        // Stub implementation
-        throw new UnsupportedOperationException("ItineraryItem functionality not fully implemented yet");
+        List<ItineraryItem> items = lockItems(itineraryId);
+        int currentIndex = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId().equals(itemId)) {
+                currentIndex = i;
+                break;
+            }
+        }
+        if (currentIndex < 0) {
+            throw new RuntimeException("Item " + itemId + " not found in itinerary " + itineraryId);
+        }
+        
+        ItineraryItem item = items.remove(currentIndex);
+        int index = clampIndex(newPosition, items.size());
+        if (index == currentIndex) {
+            return item;
+        }
+        
+        // One row changes unless the gap at the target is used up
+        item.setPosition(positionAt(items, index, itineraryId));
+        return itineraryItemRepo.save(item);
     }
     
     @Override
@@ -145,8 +253,65 @@ public class ItineraryServiceImpl implements ItineraryService {
         stats.put("tripName", itinerary.getTripName());
         stats.put("startDate", itinerary.getStartDate());
         stats.put("endDate", itinerary.getEndDate());
-        stats.put("totalItems", 0); // Would count actual items when implemented
+        stats.put("totalItems", itineraryItemRepo.countByItineraryId(itineraryId));
         stats.put("userId", itinerary.getUser().getId());
         return stats;
     }
-}
\ No newline at end of file
+
+    /**
+     * Lock the itinerary so concurrent changes to its item order run one at a time
+     *
+     * @return its items in order
+     */
+    private List<ItineraryItem> lockItems(Long itineraryId) {
+        itineraryRepo.findByIdForUpdate(itineraryId)
+                .orElseThrow(() -> new RuntimeException("Itinerary not found with ID: " + itineraryId));
+        return new ArrayList<>(itineraryItemRepo.findByItineraryIdOrderByPosition(itineraryId));
+    }
+
+    /**
+     * Position for an item inserted at an index of the ordered items. Respaces the items first
+     * if there is no room between the neighbours, and queues a background respace if the new
+     * position is crowded.
+     */
+    private int positionAt(List<ItineraryItem> items, int index, Long itineraryId) {
+        Integer lower = index > 0 ? items.get(index - 1).getPosition() : null;
+        Integer upper = index < items.size() ? items.get(index).getPosition() : null;
+        Integer position = GapPositions.between(lower, upper);
+        
+        if (position == null) {
+            itineraryItemRebalancer.respace(items);
+            lower = index > 0 ? items.get(index - 1).getPosition() : null;
+            upper = index < items.size() ? items.get(index).getPosition() : null;
+            position = GapPositions.between(lower, upper);
+        } else if (GapPositions.isCrowded(lower, position, upper)) {
+            itineraryItemRebalancer.requestRebalance(itineraryId);
+        }
+        return position;
+    }
+
+    private ItineraryItem findItem(Long itineraryId, Long itemId) {
+        return itineraryItemRepo.findByIdAndItineraryId(itemId, itineraryId)
+                .orElseThrow(() -> new RuntimeException("Item " + itemId + " not found in itinerary " + itineraryId));
+    }
+
+    private void requireItinerary(Long itineraryId) {
+        if (!itineraryRepo.existsById(itineraryId)) {
+            throw new RuntimeException("Itinerary not found with ID: " + itineraryId);
+        }
+    }
+
+    /**
+     * @return the index clamped to the list, or the end of the list if null
+     */
+    private static int clampIndex(Integer index, int size) {
+        if (index == null) {
+            return size;
+        }
+        return Math.max(0, Math.min(index, size));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,91 @@
+package com.TripFinder.serviceImpl;
+
+import com.TripFinder.component.AmadeusRateLimiter;
+import com.TripFinder.component.HotelOfferBatcher;
+import com.TripFinder.component.HttpPoolMetrics;
+import com.TripFinder.component.RequestCoalescer;
+import com.TripFinder.component.SearchResultCache;
+import com.TripFinder.service.MonitoringService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class MonitoringServiceImpl implements MonitoringService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private HotelOfferBatcher hotelOfferBatcher;
+
+    @Autowired
+    private AmadeusRateLimiter amadeusRateLimiter;
+
+    @Autowired
+    private HttpPoolMetrics httpPoolMetrics;
+
+    @Override
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        Map<String, Object> refreshStatistics = searchResultCache.getStatistics();
+
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                Map<String, Object> description = describe(caffeineCache.getNativeCache());
+                if (refreshStatistics.containsKey(cacheName)) {
+                    description.put("staleWhileRevalidate", refreshStatistics.get(cacheName));
+                }
+                statistics.put(cacheName, description);
+            }
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public Map<String, Object> getCoalescingStatistics() {
+        Map<String, Object> statistics = requestCoalescer.getStatistics();
+        statistics.put("hotel-offer-batching", hotelOfferBatcher.getStatistics());
+        return statistics;
+    }
+
+    @Override
+    public Map<String, Object> getRateLimiterStatistics() {
+        return amadeusRateLimiter.getStatistics();
+    }
+
+    @Override
+    public Map<String, Object> getHttpPoolStatistics() {
+        return httpPoolMetrics.getStatistics();
+    }
+
+    private Map<String, Object> describe(com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        CacheStats stats = cache.stats();
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("estimatedSize", cache.estimatedSize());
+        description.put("hitCount", stats.hitCount());
+        description.put("missCount", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictionCount", stats.evictionCount());
+        description.put("evictionWeight", stats.evictionWeight());
+        description.put("loadSuccessCount", stats.loadSuccessCount());
+        description.put("loadFailureCount", stats.loadFailureCount());
+        description.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return description;
+    }
+}
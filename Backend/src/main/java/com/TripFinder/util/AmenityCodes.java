@@ -0,0 +1,71 @@
+package com.TripFinder.util;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide registry that assigns each hotel amenity code ({@code SWIMMING_POOL},
+ * {@code WIFI}, ...) a bit in a {@code long}, so a hotel's amenities become one mask and an
+ * "any of these amenities" filter becomes a single AND. Codes are matched case-insensitively.
+ * Bits are handed out as codes are first seen in upstream data; Amadeus uses a few dozen codes,
+ * and any beyond the 63 available bits set {@link #OVERFLOW} instead. Requested codes are only
+ * looked up, never registered, so user input cannot use up bits.
+ */
+public final class AmenityCodes {
+
+    /**
+     * Set on masks containing amenities that did not get a bit of their own
+     */
+    public static final long OVERFLOW = 1L << 63;
+
+    private static final int CAPACITY = 63;
+
+    private static final Map<String, Integer> bits = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextBit = new AtomicInteger();
+
+    private AmenityCodes() {
+    }
+
+    /**
+     * Mask of a hotel's amenities, registering codes not seen before
+     *
+     * @param amenities amenity codes, may be null
+     * @return one bit per amenity, plus {@link #OVERFLOW} for amenities without a bit
+     */
+    public static long maskOf(Collection<String> amenities) {
+        if (amenities == null) {
+            return 0L;
+        }
+
+        long mask = 0L;
+        for (String amenity : amenities) {
+            if (amenity == null) {
+                continue;
+            }
+            Integer bit = bits.computeIfAbsent(normalize(amenity), code -> {
+                int next = nextBit.getAndIncrement();
+                return next < CAPACITY ? next : null;
+            });
+            mask |= bit != null ? 1L << bit : OVERFLOW;
+        }
+        return mask;
+    }
+
+    /**
+     * Bit of an amenity code, without registering it
+     *
+     * @param amenity amenity code
+     * @return the code's bit, or 0 if no upstream hotel has been seen with it
+     */
+    public static long bitOf(String amenity) {
+        Integer bit = amenity != null ? bits.get(normalize(amenity)) : null;
+        return bit != null ? 1L << bit : 0L;
+    }
+
+    public static String normalize(String amenity) {
+        return amenity.trim().toUpperCase(Locale.ROOT);
+    }
+}
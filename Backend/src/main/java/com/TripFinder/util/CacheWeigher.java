@@ -0,0 +1,33 @@
+package com.TripFinder.util;
+
+import com.TripFinder.component.CachedResult;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.springframework.data.domain.Page;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Weighs cache entries by the number of results they hold, so that a cache bounded by
+ * {@code maximumWeight} limits the total number of cached offers rather than the number of keys.
+ * Scalar values (tokens, single objects) weigh one unit.
+ */
+public class CacheWeigher implements Weigher<Object, Object> {
+
+    @Override
+    public int weigh(Object key, Object value) {
+        if (value instanceof CachedResult<?> cached) {
+            return Math.max(1, cached.results().size());
+        }
+        if (value instanceof Page<?> page) {
+            return Math.max(1, page.getNumberOfElements());
+        }
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        }
+        return 1;
+    }
+}
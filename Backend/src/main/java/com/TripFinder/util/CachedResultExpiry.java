@@ -0,0 +1,41 @@
+package com.TripFinder.util;
+
+import com.TripFinder.component.CachedResult;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * Caffeine expiry for caches of {@link CachedResult}s that carry their own soft TTL: each entry
+ * lives for {@code hardTtlMultiplier} times that TTL, leaving room to be served stale while it is
+ * refreshed. Values without a TTL expire after the cache's fixed {@code expireAfterWrite}.
+ * Reads never extend an entry's lifetime.
+ */
+public class CachedResultExpiry implements Expiry<Object, Object> {
+
+    private final long defaultNanos;
+    private final double hardTtlMultiplier;
+
+    public CachedResultExpiry(Duration expireAfterWrite, double hardTtlMultiplier) {
+        this.defaultNanos = expireAfterWrite != null ? expireAfterWrite.toNanos() : Long.MAX_VALUE;
+        this.hardTtlMultiplier = Math.max(1.0, hardTtlMultiplier);
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        if (value instanceof CachedResult<?> cached && cached.freshFor() != null) {
+            return (long) Math.min(Long.MAX_VALUE, cached.freshFor().toNanos() * hardTtlMultiplier);
+        }
+        return defaultNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,156 @@
+package com.TripFinder.util;
+
+import java.util.Arrays;
+
+/**
+ * Sparse ordering keys for itinerary items. Positions are sort keys spaced {@link #GAP} apart
+ * rather than list indexes, so an item moved or inserted between two others takes a position
+ * in the gap between them and no other row changes. When repeated insertions at one spot
+ * use up a gap, the item list is respaced, which is the only operation touching every row.
+ */
+public final class GapPositions {
+
+    /**
+     * Distance between neighbouring positions after respacing
+     */
+    public static final int GAP = 1024;
+
+    /**
+     * Neighbours closer than this are worth respacing before the gap runs out
+     */
+    public static final int MIN_GAP = 8;
+
+    private GapPositions() {
+    }
+
+    /**
+     * @param lower position of the item before, or null at the start of the list
+     * @param upper position of the item after, or null at the end of the list
+     * @return a position between the two, or null if there is no room left
+     */
+    public static Integer between(Integer lower, Integer upper) {
+        long position;
+        if (lower == null && upper == null) {
+            position = GAP;
+        } else if (lower == null) {
+            position = (long) upper - GAP;
+        } else if (upper == null) {
+            position = (long) lower + GAP;
+        } else if ((long) upper - lower < 2) {
+            return null;
+        } else {
+            position = Math.floorDiv((long) lower + upper, 2L);
+        }
+        return fits(position) ? (int) position : null;
+    }
+
+    /**
+     * @return whether a position is closer than {@link #MIN_GAP} to either neighbour
+     */
+    public static boolean isCrowded(Integer lower, int position, Integer upper) {
+        return (lower != null && (long) position - lower < MIN_GAP)
+                || (upper != null && (long) upper - position < MIN_GAP);
+    }
+
+    /**
+     * @param count number of items
+     * @return evenly spaced positions for that many items
+     */
+    public static int[] spaced(int count) {
+        // Narrower gaps only for lists too long to fit GAP apart
+        int step = Math.max(1, Math.min(GAP, Integer.MAX_VALUE / (count + 1)));
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = step * (i + 1);
+        }
+        return positions;
+    }
+
+    /**
+     * Positions for items in a new order, changing as few as possible: the longest run of items
+     * whose current positions already increase in the new order keeps them, and the others are
+     * spread through the gaps around them.
+     *
+     * @param current current positions of the items, in their new order
+     * @return new positions in the same order, or null if some gap is too small and the items need respacing
+     */
+    public static int[] reassign(int[] current) {
+        int n = current.length;
+        boolean[] keep = longestIncreasing(current);
+        int[] positions = Arrays.copyOf(current, n);
+
+        int i = 0;
+        while (i < n) {
+            if (keep[i]) {
+                i++;
+                continue;
+            }
+            // Run of items to move, between kept neighbours (or the list ends)
+            int start = i;
+            while (i < n && !keep[i]) {
+                i++;
+            }
+            int count = i - start;
+            Long lower = start > 0 ? (long) positions[start - 1] : null;
+            Long upper = i < n ? (long) positions[i] : null;
+
+            for (int j = 0; j < count; j++) {
+                long position;
+                if (lower == null) {
+                    position = upper - (long) GAP * (count - j);
+                } else if (upper == null) {
+                    position = lower + (long) GAP * (j + 1);
+                } else {
+                    long step = (upper - lower) / (count + 1);
+                    if (step < 1) {
+                        return null;
+                    }
+                    position = lower + step * (j + 1);
+                }
+                if (!fits(position)) {
+                    return null;
+                }
+                positions[start + j] = (int) position;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Marks one longest strictly increasing subsequence, in O(n log n)
+     */
+    private static boolean[] longestIncreasing(int[] values) {
+        int n = values.length;
+        int[] tailIndex = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+
+        for (int i = 0; i < n; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tailIndex[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tailIndex[low - 1] : -1;
+            tailIndex[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        boolean[] keep = new boolean[n];
+        for (int i = length > 0 ? tailIndex[length - 1] : -1; i >= 0; i = previous[i]) {
+            keep[i] = true;
+        }
+        return keep;
+    }
+
+    private static boolean fits(long position) {
+        return position >= Integer.MIN_VALUE && position <= Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,112 @@
+package com.TripFinder.util;
+
+import com.TripFinder.dto.HotelResponse;
+import com.TripFinder.dto.HotelSearchRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A request's client-side hotel filters compiled once into masks and bounds, then tested
+ * against the keys from {@link HotelResponse#computeFilterKeys()} with a few integer and
+ * double comparisons per hotel. Semantics: the rating must be one of the requested ratings,
+ * the lowest offer total must lie within the price range (hotels without priced offers pass),
+ * and the hotel must have at least one of the requested amenities.
+ */
+public final class HotelFilter {
+
+    private final boolean filterRatings;
+    private final long ratingMask;
+    private final double priceMin;
+    private final double priceMax;
+    private final boolean filterAmenities;
+    private final long amenityMask;
+    // Requested codes without a bit; only hotels carrying AmenityCodes.OVERFLOW can have them
+    private final List<String> unmappedAmenities;
+
+    private HotelFilter(boolean filterRatings, long ratingMask, double priceMin, double priceMax,
+                        boolean filterAmenities, long amenityMask, List<String> unmappedAmenities) {
+        this.filterRatings = filterRatings;
+        this.ratingMask = ratingMask;
+        this.priceMin = priceMin;
+        this.priceMax = priceMax;
+        this.filterAmenities = filterAmenities;
+        this.amenityMask = amenityMask;
+        this.unmappedAmenities = unmappedAmenities;
+    }
+
+    /**
+     * Compile the request's rating, price and amenity filters
+     *
+     * @param request hotel search request
+     * @return filter matching hotels the request accepts
+     */
+    public static HotelFilter compile(HotelSearchRequest request) {
+        long ratingMask = 0L;
+        boolean filterRatings = request.getRatings() != null && !request.getRatings().isEmpty();
+        if (filterRatings) {
+            for (Integer rating : request.getRatings()) {
+                if (rating != null && rating >= 0 && rating < Long.SIZE) {
+                    ratingMask |= 1L << rating;
+                }
+            }
+        }
+
+        long amenityMask = 0L;
+        List<String> unmappedAmenities = new ArrayList<>();
+        boolean filterAmenities = request.getAmenities() != null && !request.getAmenities().isEmpty();
+        if (filterAmenities) {
+            for (String amenity : request.getAmenities()) {
+                long bit = AmenityCodes.bitOf(amenity);
+                if (bit != 0L) {
+                    amenityMask |= bit;
+                } else if (amenity != null) {
+                    unmappedAmenities.add(AmenityCodes.normalize(amenity));
+                }
+            }
+        }
+
+        return new HotelFilter(filterRatings, ratingMask,
+                request.getPriceMin() != null ? request.getPriceMin() : Double.NEGATIVE_INFINITY,
+                request.getPriceMax() != null ? request.getPriceMax() : Double.POSITIVE_INFINITY,
+                filterAmenities, amenityMask, List.copyOf(unmappedAmenities));
+    }
+
+    /**
+     * @param hotel hotel with computed filter keys
+     * @return whether the hotel passes every filter
+     */
+    public boolean matches(HotelResponse hotel) {
+        if (filterRatings && (hotel.getRatingMask() & ratingMask) == 0L) {
+            return false;
+        }
+
+        // NaN (no priced offer) fails both comparisons and passes
+        double minPrice = hotel.getMinOfferPrice();
+        if (minPrice < priceMin || minPrice > priceMax) {
+            return false;
+        }
+
+        if (filterAmenities) {
+            long amenities = hotel.getAmenityMask();
+            if ((amenities & amenityMask) == 0L
+                    && ((amenities & AmenityCodes.OVERFLOW) == 0L || !hasUnmappedAmenity(hotel))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean hasUnmappedAmenity(HotelResponse hotel) {
+        if (unmappedAmenities.isEmpty() || hotel.getAmenities() == null) {
+            return false;
+        }
+        for (String amenity : hotel.getAmenities()) {
+            if (amenity != null && unmappedAmenities.contains(AmenityCodes.normalize(amenity))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+package com.TripFinder.util;
+
+/**
+ * Allocation-free parsing of the ISO-8601 durations Amadeus returns ({@code PT7H30M},
+ * {@code P1DT2H}) into whole minutes. Seconds are ignored; anything that is not a
+ * day/hour/minute duration yields {@link #UNKNOWN}.
+ */
+public final class IsoDurations {
+
+    /**
+     * Marker for a missing or unparseable duration; sorts after every real duration
+     */
+    public static final int UNKNOWN = Integer.MAX_VALUE;
+
+    private IsoDurations() {
+    }
+
+    /**
+     * @param duration ISO-8601 duration such as {@code PT7H30M}
+     * @return the duration in minutes, or {@link #UNKNOWN}
+     */
+    public static int toMinutes(String duration) {
+        if (duration == null || duration.length() < 3 || duration.charAt(0) != 'P') {
+            return UNKNOWN;
+        }
+
+        long minutes = 0;
+        long value = 0;
+        boolean hasDigits = false;
+        boolean timePart = false;
+
+        for (int i = 1; i < duration.length(); i++) {
+            char c = duration.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                hasDigits = true;
+                if (value > Integer.MAX_VALUE) {
+                    return UNKNOWN;
+                }
+                continue;
+            }
+
+            if (c == 'T' && !hasDigits && !timePart) {
+                timePart = true;
+                continue;
+            }
+            if (!hasDigits) {
+                return UNKNOWN;
+            }
+
+            switch (c) {
+                case 'D' -> minutes += value * 1440;
+                case 'H' -> minutes += value * 60;
+                case 'M' -> {
+                    // "M" before "T" means months
+                    if (!timePart) {
+                        return UNKNOWN;
+                    }
+                    minutes += value;
+                }
+                case 'S' -> {
+                    // Sub-minute precision is not needed for sorting or filtering
+                }
+                default -> {
+                    return UNKNOWN;
+                }
+            }
+            value = 0;
+            hasDigits = false;
+        }
+
+        return hasDigits || minutes >= UNKNOWN ? UNKNOWN : (int) minutes;
+    }
+}
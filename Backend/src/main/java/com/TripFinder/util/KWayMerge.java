@@ -0,0 +1,82 @@
+package com.TripFinder.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of lists that are each already sorted by the same comparator.
+ * Only the requested window of the merged order is produced: extracting a page costs
+ * O((offset + limit) log k) instead of sorting the whole union. Ties are broken by list
+ * index and then position, so the merged order is deterministic and stable.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    /**
+     * Extract {@code [offset, offset + limit)} of the merged order
+     *
+     * @param sortedLists lists each sorted by {@code comparator}
+     * @param comparator ordering shared by all lists
+     * @param offset number of merged elements to skip
+     * @param limit maximum number of elements to return
+     * @return the requested window of the merged order
+     */
+    public static <T> List<T> merge(List<? extends List<? extends T>> sortedLists, Comparator<? super T> comparator,
+                                    long offset, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()), (a, b) -> {
+            int order = comparator.compare(a.current(), b.current());
+            return order != 0 ? order : Integer.compare(a.listIndex, b.listIndex);
+        });
+        for (int i = 0; i < sortedLists.size(); i++) {
+            List<? extends T> list = sortedLists.get(i);
+            if (!list.isEmpty()) {
+                heads.add(new Cursor<>(list, i));
+            }
+        }
+
+        List<T> window = new ArrayList<>(limit);
+        long skipped = 0;
+        while (!heads.isEmpty() && window.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                window.add(cursor.current());
+            }
+
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+
+        return window;
+    }
+
+    private static final class Cursor<T> {
+        private final List<? extends T> list;
+        private final int listIndex;
+        private int position;
+
+        private Cursor(List<? extends T> list, int listIndex) {
+            this.list = list;
+            this.listIndex = listIndex;
+        }
+
+        private T current() {
+            return list.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < list.size();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.TripFinder.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque, URL-safe cursor for keyset pagination: the sort key values of the last row of a
+ * window, as Base64 JSON. Clients pass it back unchanged to get the next window.
+ * Only string and number keys survive the round trip, so only such columns are sortable.
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @param position keyset position after the last row of a window
+     * @return the cursor for the next window
+     */
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Not a keyset position: " + position);
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(keyset.getKeys()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * @param cursor cursor from {@link #encode}, or null/blank for the first window
+     * @return the keyset position to continue after
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            Map<String, Object> keys = objectMapper.readValue(
+                    Base64.getUrlDecoder().decode(cursor.trim()), new TypeReference<LinkedHashMap<String, Object>>() { });
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.TripFinder.util;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * IATA metropolitan-area (city) codes and the commercial airports they cover,
+ * busiest airport first. Codes that are not metro areas map to themselves.
+ */
+public final class MetroAreas {
+
+    private static final Map<String, List<String>> AIRPORTS = Map.ofEntries(
+            Map.entry("NYC", List.of("JFK", "EWR", "LGA")),
+            Map.entry("LON", List.of("LHR", "LGW", "STN", "LTN", "LCY")),
+            Map.entry("PAR", List.of("CDG", "ORY")),
+            Map.entry("TYO", List.of("HND", "NRT")),
+            Map.entry("CHI", List.of("ORD", "MDW")),
+            Map.entry("WAS", List.of("IAD", "DCA", "BWI")),
+            Map.entry("MIL", List.of("MXP", "LIN", "BGY")),
+            Map.entry("ROM", List.of("FCO", "CIA")),
+            Map.entry("STO", List.of("ARN", "BMA")),
+            Map.entry("MOW", List.of("SVO", "DME", "VKO")),
+            Map.entry("SAO", List.of("GRU", "CGH", "VCP")),
+            Map.entry("BUE", List.of("EZE", "AEP")),
+            Map.entry("OSA", List.of("KIX", "ITM")),
+            Map.entry("SEL", List.of("ICN", "GMP")),
+            Map.entry("YTO", List.of("YYZ", "YTZ")),
+            Map.entry("BJS", List.of("PEK", "PKX"))
+    );
+
+    private MetroAreas() {
+    }
+
+    /**
+     * Airports served by a location code
+     *
+     * @param locationCode city or airport code
+     * @return the metro area's airports, or a single-element list with the code itself
+     */
+    public static List<String> airportsFor(String locationCode) {
+        if (locationCode == null) {
+            return List.of();
+        }
+        String code = locationCode.trim().toUpperCase(Locale.ROOT);
+        return AIRPORTS.getOrDefault(code, List.of(code));
+    }
+
+    /**
+     * Whether the code is a metro area covering more than one airport
+     */
+    public static boolean isMetroArea(String locationCode) {
+        return airportsFor(locationCode).size() > 1;
+    }
+}
@@ -0,0 +1,87 @@
+package com.TripFinder.util;
+
+/**
+ * Bounded, direct-mapped intern cache for short repeated strings such as IATA airport,
+ * carrier and aircraft codes. Lookups compare the source characters in place, so a hit
+ * allocates nothing; a miss creates the string and overwrites the slot. Races between
+ * threads can only lose an insertion, never return a wrong value, so no locking is needed.
+ */
+public class StringInterner {
+
+    private static final int MAX_INTERNED_LENGTH = 32;
+
+    private final String[] table;
+    private final int mask;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public StringInterner(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.table = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Return a canonical string with the given characters
+     *
+     * @param chars source buffer (e.g. {@code JsonParser#getTextCharacters()})
+     * @param offset start of the characters in the buffer
+     * @param length number of characters
+     * @return an interned string equal to the characters
+     */
+    public String intern(char[] chars, int offset, int length) {
+        if (length > MAX_INTERNED_LENGTH) {
+            return new String(chars, offset, length);
+        }
+
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[offset + i];
+        }
+
+        int slot = spread(hash) & mask;
+        String candidate = table[slot];
+        if (candidate != null && matches(candidate, chars, offset, length)) {
+            return candidate;
+        }
+
+        String value = new String(chars, offset, length);
+        table[slot] = value;
+        return value;
+    }
+
+    /**
+     * Return a canonical instance of the given string
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > MAX_INTERNED_LENGTH) {
+            return value;
+        }
+
+        int slot = spread(value.hashCode()) & mask;
+        String candidate = table[slot];
+        if (value.equals(candidate)) {
+            return candidate;
+        }
+
+        table[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String candidate, char[] chars, int offset, int length) {
+        if (candidate.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (candidate.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
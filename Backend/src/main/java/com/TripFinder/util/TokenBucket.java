@@ -0,0 +1,78 @@
+package com.TripFinder.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket, implemented as the generic cell rate algorithm (GCRA).
+ * The whole bucket state is a single "theoretical arrival time" updated by CAS:
+ * tokens refill continuously at {@code permitsPerSecond} and up to {@code burstCapacity}
+ * permits can be taken back to back. There is no periodic reset, so the limiter neither
+ * locks out for long stretches nor lets bursts through at window boundaries.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int permitsPerSecond, int burstCapacity) {
+        this(permitsPerSecond, burstCapacity, System::nanoTime);
+    }
+
+    public TokenBucket(int permitsPerSecond, int burstCapacity, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, burstCapacity) - 1L);
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Reserve one permit if it becomes available within the given wait budget.
+     *
+     * @param maxWaitNanos longest acceptable wait for the permit
+     * @return nanoseconds the caller must wait before using the reserved permit (0 if immediately
+     *         available), or -1 if no permit is available within the budget (nothing is reserved)
+     */
+    public long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long arrival = theoreticalArrival.get();
+            long base = arrival - now > 0 ? arrival : now;
+            long wait = base - now - burstToleranceNanos;
+
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+
+            if (theoreticalArrival.compareAndSet(arrival, base + emissionIntervalNanos)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Take a permit without waiting
+     *
+     * @return true if a permit was available
+     */
+    public boolean tryAcquire() {
+        return reserve(0) >= 0;
+    }
+
+    /**
+     * Number of permits that could be taken right now without waiting
+     */
+    public int availablePermits() {
+        long now = nanoClock.getAsLong();
+        long arrival = theoreticalArrival.get();
+        long backlog = arrival - now > 0 ? arrival - now : 0;
+        long headroom = burstToleranceNanos - backlog;
+        return headroom < 0 ? 0 : (int) (headroom / emissionIntervalNanos) + 1;
+    }
+}
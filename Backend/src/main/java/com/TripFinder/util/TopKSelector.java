@@ -0,0 +1,160 @@
+package com.TripFinder.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Returns one page of a list ordered by precomputed primitive keys without sorting the whole list.
+ * For shallow pages a bounded max-heap of {@code offset + limit} indices is kept over the keys
+ * (O(n log k), no boxing, no comparator dispatch); only when a deep page is requested does it
+ * fall back to a full sort. Order: primary key, then secondary key, both reversed when
+ * descending, then original position, so results are stable and identical to a stable sort
+ * by {@code comparingDouble(primary).thenComparingDouble(secondary)} (reversed if descending).
+ * Keys that are {@link #MISSING} come after every present key in either direction.
+ */
+public final class TopKSelector {
+
+    /**
+     * Key of an element without a value (e.g. no price); ordered last whether ascending or descending
+     */
+    public static final double MISSING = Double.NaN;
+
+    // Sort everything once the requested window reaches this fraction (1/n) of the list
+    private static final int FULL_SORT_RATIO = 4;
+
+    private TopKSelector() {
+    }
+
+    /**
+     * Select {@code [offset, offset + limit)} of the ordered list
+     *
+     * @param items elements to order; not modified
+     * @param primaryKeys sort key per element, same length as {@code items}
+     * @param secondaryKeys tie-break key per element, or null
+     * @param descending whether to order by descending keys
+     * @param offset number of ordered elements to skip
+     * @param limit maximum number of elements to return
+     * @return the requested window in order
+     */
+    public static <T> List<T> select(List<T> items, double[] primaryKeys, double[] secondaryKeys,
+                                     boolean descending, long offset, int limit) {
+        int size = items.size();
+        if (limit <= 0 || offset >= size) {
+            return Collections.emptyList();
+        }
+
+        int k = (int) Math.min(size, offset + limit);
+        KeyOrder order = new KeyOrder(primaryKeys, secondaryKeys, descending);
+        int[] ranked = (long) k * FULL_SORT_RATIO >= size ? fullSort(size, order) : heapSelect(size, k, order);
+
+        List<T> window = new ArrayList<>(k - (int) offset);
+        for (int i = (int) offset; i < k; i++) {
+            window.add(items.get(ranked[i]));
+        }
+        return window;
+    }
+
+    /**
+     * Compare two keys the way {@link #select} does: {@link #MISSING} last, otherwise by value,
+     * reversed when descending. Comparators over the same keys use this to keep the same order.
+     *
+     * @param a first key
+     * @param b second key
+     * @param descending whether present keys are ordered descending
+     * @return negative, zero or positive as {@code a} orders before, with or after {@code b}
+     */
+    public static int compareKeys(double a, double b, boolean descending) {
+        boolean aMissing = Double.isNaN(a);
+        boolean bMissing = Double.isNaN(b);
+        if (aMissing || bMissing) {
+            return Boolean.compare(aMissing, bMissing);
+        }
+        int result = Double.compare(a, b);
+        return descending ? -result : result;
+    }
+
+    /**
+     * Keep the k best indices in a max-heap (worst of the k at the root), then heap-sort them
+     */
+    private static int[] heapSelect(int size, int k, KeyOrder order) {
+        int[] heap = new int[k];
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (count < k) {
+                heap[count] = i;
+                siftUp(heap, count++, order);
+            } else if (order.compare(i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, 0, k, order);
+            }
+        }
+
+        // In-place heap sort: repeatedly move the worst remaining index to the end
+        for (int end = k - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, 0, end, order);
+        }
+        return heap;
+    }
+
+    private static int[] fullSort(int size, KeyOrder order) {
+        Integer[] indices = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, order::compare);
+
+        int[] ranked = new int[size];
+        for (int i = 0; i < size; i++) {
+            ranked[i] = indices[i];
+        }
+        return ranked;
+    }
+
+    private static void siftUp(int[] heap, int position, KeyOrder order) {
+        int index = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (order.compare(index, heap[parent]) <= 0) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = index;
+    }
+
+    private static void siftDown(int[] heap, int position, int length, KeyOrder order) {
+        int index = heap[position];
+        int half = length >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < length && order.compare(heap[right], heap[child]) > 0) {
+                child = right;
+            }
+            if (order.compare(index, heap[child]) >= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = index;
+    }
+
+    private record KeyOrder(double[] primaryKeys, double[] secondaryKeys, boolean descending) {
+
+        int compare(int a, int b) {
+            int result = compareKeys(primaryKeys[a], primaryKeys[b], descending);
+            if (result == 0 && secondaryKeys != null) {
+                result = compareKeys(secondaryKeys[a], secondaryKeys[b], descending);
+            }
+            return result != 0 ? result : Integer.compare(a, b);
+        }
+    }
+}
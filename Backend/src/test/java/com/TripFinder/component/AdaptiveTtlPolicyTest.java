@@ -0,0 +1,88 @@
+package com.TripFinder.component;
+
+import com.TripFinder.config.CacheConfig;
+import com.TripFinder.dto.HotelResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveTtlPolicyTest {
+
+    private static final String CACHE = "hotel-offers";
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 1);
+
+    private final AdaptiveTtlPolicy adaptiveTtlPolicy = new AdaptiveTtlPolicy();
+    private final CacheConfig.AdaptiveTtl settings = new CacheConfig.AdaptiveTtl();
+
+    @BeforeEach
+    void setUp() {
+        settings.setEnabled(true);
+        CacheConfig.CacheSpec spec = new CacheConfig.CacheSpec();
+        spec.setAdaptiveTtl(settings);
+
+        CacheConfig cacheConfig = new CacheConfig();
+        cacheConfig.setCaches(Map.of(CACHE, spec));
+        ReflectionTestUtils.setField(adaptiveTtlPolicy, "cacheConfig", cacheConfig);
+    }
+
+    @Test
+    void ttlFor_ShouldGrowWithDaysUntilTravel() {
+        Duration today = adaptiveTtlPolicy.ttlFor(settings, TODAY, 0.0, TODAY);
+        Duration nextWeek = adaptiveTtlPolicy.ttlFor(settings, TODAY.plusDays(7), 0.0, TODAY);
+        Duration sixMonths = adaptiveTtlPolicy.ttlFor(settings, TODAY.plusDays(200), 0.0, TODAY);
+
+        assertEquals(settings.getMinTtl(), today);
+        assertTrue(nextWeek.compareTo(today) > 0);
+        assertTrue(nextWeek.compareTo(Duration.ofHours(1)) < 0);
+        assertEquals(settings.getMaxTtl(), sixMonths);
+    }
+
+    @Test
+    void ttlFor_ShouldShrinkWithVolatility_ButNotBelowMinimum() {
+        LocalDate travelDate = TODAY.plusDays(90);
+
+        Duration stable = adaptiveTtlPolicy.ttlFor(settings, travelDate, 0.0, TODAY);
+        Duration volatile_ = adaptiveTtlPolicy.ttlFor(settings, travelDate, 1.0, TODAY);
+
+        assertTrue(volatile_.compareTo(stable) < 0);
+        assertEquals(settings.getMinTtl(), adaptiveTtlPolicy.ttlFor(settings, TODAY, 1.0, TODAY));
+    }
+
+    @Test
+    void freshFor_ShouldShortenTtl_ForKeysWhosePricesKeepChanging() {
+        LocalDate checkIn = LocalDate.now().plusDays(60);
+
+        Duration first = adaptiveTtlPolicy.freshFor(CACHE, "stable", List.of(hotel(checkIn, 100.0)));
+        Duration stable = null;
+        Duration changing = null;
+        for (int i = 1; i <= 5; i++) {
+            stable = adaptiveTtlPolicy.freshFor(CACHE, "stable", List.of(hotel(checkIn, 100.0)));
+            changing = adaptiveTtlPolicy.freshFor(CACHE, "changing", List.of(hotel(checkIn, 100.0 + i * 10)));
+        }
+
+        assertEquals(first, stable);
+        assertTrue(changing.compareTo(stable) < 0);
+    }
+
+    @Test
+    void freshFor_ShouldReturnNull_WhenCacheDoesNotUseAdaptiveTtl() {
+        assertNull(adaptiveTtlPolicy.freshFor("flight-offers", "key", List.of(hotel(TODAY, 100.0))));
+    }
+
+    private static HotelResponse hotel(LocalDate checkIn, double price) {
+        return HotelResponse.builder()
+                .hotelId("H1")
+                .offers(List.of(HotelResponse.RoomOffer.builder()
+                        .checkInDate(checkIn)
+                        .price(HotelResponse.Price.builder().total(price).build())
+                        .build()))
+                .build();
+    }
+}
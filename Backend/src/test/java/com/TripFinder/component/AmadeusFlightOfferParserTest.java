@@ -0,0 +1,252 @@
+package com.TripFinder.component;
+
+import com.TripFinder.dto.FlightResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AmadeusFlightOfferParserTest {
+
+    private static final int OFFERS = 250;
+
+    private final AmadeusFlightOfferParser parser = new AmadeusFlightOfferParser();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parseOffers_ShouldMatchTreeParser() throws IOException {
+        byte[] payload = buildPayload(OFFERS);
+
+        List<FlightResponse> streamed = parser.parseOffers(new ByteArrayInputStream(payload));
+        List<FlightResponse> tree = parseWithTree(payload);
+
+        assertEquals(OFFERS, streamed.size());
+        assertEquals(tree, streamed);
+    }
+
+    @Test
+    void parseOffers_ShouldInternRepeatedCodes() throws IOException {
+        List<FlightResponse> offers = parser.parseOffers(new ByteArrayInputStream(buildPayload(8)));
+
+        // Offers 0 and 4 share hub and carrier but are decoded from different buffer positions
+        FlightResponse.Segment first = offers.get(0).getItineraries().get(0).getSegments().get(1);
+        FlightResponse.Segment second = offers.get(4).getItineraries().get(0).getSegments().get(1);
+        assertSame(first.getDeparture().getIataCode(), second.getDeparture().getIataCode());
+        assertSame(first.getCarrierCode(), second.getCarrierCode());
+    }
+
+    @Test
+    void parseOffers_ShouldHandleSingleOfferAndDropSegmentsWithoutTimes() throws IOException {
+        String json = "{\"data\":{\"id\":\"7\",\"price\":{\"grandTotal\":\"99.50\",\"currency\":\"EUR\"},"
+                + "\"itineraries\":[{\"duration\":\"PT2H\",\"segments\":["
+                + "{\"departure\":{\"iataCode\":\"CDG\"},\"arrival\":{\"iataCode\":\"LHR\",\"at\":\"2026-05-01T10:00:00\"}},"
+                + "{\"departure\":{\"iataCode\":\"LHR\",\"at\":\"2026-05-01T12:00\"},"
+                + "\"arrival\":{\"iataCode\":\"JFK\",\"at\":\"2026-05-01T15:30:00\"},\"carrierCode\":\"BA\"}]}]}}";
+
+        List<FlightResponse> offers = parser.parseOffers(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, offers.size());
+        assertEquals(99.5, offers.get(0).getPrice());
+        assertEquals("EUR", offers.get(0).getCurrency());
+        List<FlightResponse.Segment> segments = offers.get(0).getItineraries().get(0).getSegments();
+        assertEquals(1, segments.size());
+        assertEquals(LocalDateTime.of(2026, 5, 1, 12, 0), segments.get(0).getDeparture().getAt());
+    }
+
+    @Test
+    void parseOffers_ShouldPrecomputeSortKeys() throws IOException {
+        FlightResponse offer = parser.parseOffers(new ByteArrayInputStream(buildPayload(1))).get(0);
+
+        // Two PT11H30M itineraries with two segments each
+        assertEquals(2 * (11 * 60 + 30), offer.getTotalDurationMinutes());
+        assertEquals(11 * 60 + 30, offer.getLongestItineraryMinutes());
+        assertEquals(2, offer.getStopCount());
+        assertEquals(LocalDateTime.of(2026, 5, 10, 6, 15).toEpochSecond(ZoneOffset.UTC) / 60,
+                offer.getFirstDepartureEpochMinute());
+    }
+
+    @Test
+    void parseOffers_ShouldReadNonScalarStringFieldsAsEmpty() throws IOException {
+        String json = "{\"data\":[{\"id\":{\"x\":1},\"price\":{\"grandTotal\":\"10.00\",\"currency\":[\"EUR\"]},"
+                + "\"itineraries\":[{\"duration\":{},\"segments\":[{\"departure\":{\"iataCode\":\"CDG\",\"terminal\":{},"
+                + "\"at\":\"2026-05-01T10:00:00\"},\"arrival\":{\"iataCode\":[],\"terminal\":null,\"at\":\"2026-05-01T11:00:00\"},"
+                + "\"carrierCode\":\"AF\",\"number\":{\"n\":[1,2]},\"aircraft\":{\"code\":{}},\"id\":[\"1\"],"
+                + "\"numberOfStops\":0}]}]},{\"id\":\"2\"}]}";
+
+        List<FlightResponse> offers = parser.parseOffers(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, offers.size());
+        FlightResponse.Segment segment = offers.get(0).getItineraries().get(0).getSegments().get(0);
+        assertEquals("", segment.getDeparture().getTerminal());
+        assertEquals("", segment.getArrival().getIataCode());
+        assertEquals("", segment.getArrival().getTerminal());
+        assertEquals("", segment.getNumber());
+        assertEquals("", segment.getAircraft().getCode());
+        assertEquals("", offers.get(0).getItineraries().get(0).getDuration());
+        assertEquals("", offers.get(0).getCurrency());
+        assertEquals("", offers.get(0).getId());
+        // The following offer is still read after the skipped structures
+        assertEquals("2", offers.get(1).getId());
+    }
+
+    /**
+     * Allocation benchmark: bytes allocated by the calling thread to decode a 250-offer response,
+     * best of several warmed-up runs, streaming parser versus the former JsonNode tree walk.
+     * Opt-in: mvn test -Pbenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmark_AllocationPer250OfferPayload() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        byte[] payload = buildPayload(OFFERS);
+        for (int i = 0; i < 20; i++) {
+            parser.parseOffers(new ByteArrayInputStream(payload));
+            parseWithTree(payload);
+        }
+
+        long streamingBytes = Long.MAX_VALUE;
+        long treeBytes = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            parser.parseOffers(new ByteArrayInputStream(payload));
+            streamingBytes = Math.min(streamingBytes, threads.getCurrentThreadAllocatedBytes() - before);
+
+            before = threads.getCurrentThreadAllocatedBytes();
+            parseWithTree(payload);
+            treeBytes = Math.min(treeBytes, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+
+        System.out.printf("Flight offer parsing, %d offers: streaming %d bytes, tree %d bytes (%.1fx)%n",
+                OFFERS, streamingBytes, treeBytes, (double) treeBytes / streamingBytes);
+        assertTrue(streamingBytes < treeBytes,
+                "streaming parser allocated " + streamingBytes + " bytes vs tree parser " + treeBytes);
+    }
+
+    // Reference implementation: the JsonNode tree walk the streaming parser replaced
+    private List<FlightResponse> parseWithTree(byte[] payload) throws IOException {
+        JsonNode root = objectMapper.readTree(payload);
+        List<FlightResponse> flights = new ArrayList<>();
+
+        for (JsonNode offer : root.path("data")) {
+            List<FlightResponse.Itinerary> itineraries = new ArrayList<>();
+            for (JsonNode itinerary : offer.path("itineraries")) {
+                List<FlightResponse.Segment> segments = new ArrayList<>();
+                for (JsonNode segment : itinerary.path("segments")) {
+                    segments.add(FlightResponse.Segment.builder()
+                            .departure(FlightResponse.Departure.builder()
+                                    .iataCode(segment.path("departure").path("iataCode").asText())
+                                    .terminal(segment.path("departure").path("terminal").asText())
+                                    .at(LocalDateTime.parse(segment.path("departure").path("at").asText()))
+                                    .build())
+                            .arrival(FlightResponse.Arrival.builder()
+                                    .iataCode(segment.path("arrival").path("iataCode").asText())
+                                    .terminal(segment.path("arrival").path("terminal").asText())
+                                    .at(LocalDateTime.parse(segment.path("arrival").path("at").asText()))
+                                    .build())
+                            .carrierCode(segment.path("carrierCode").asText())
+                            .number(segment.path("number").asText())
+                            .aircraft(FlightResponse.Aircraft.builder()
+                                    .code(segment.path("aircraft").path("code").asText())
+                                    .build())
+                            .duration(segment.path("duration").asText())
+                            .id(segment.path("id").asText())
+                            .numberOfStops(segment.path("numberOfStops").asInt())
+                            .build());
+                }
+                itineraries.add(FlightResponse.Itinerary.builder()
+                        .duration(itinerary.path("duration").asText())
+                        .segments(segments)
+                        .build());
+            }
+
+            flights.add(FlightResponse.builder()
+                    .id(offer.path("id").asText())
+                    .price(offer.path("price").path("grandTotal").asDouble())
+                    .currency(offer.path("price").path("currency").asText())
+                    .numberOfBookableSeats(offer.path("numberOfBookableSeats").asInt())
+                    .validatingAirlineCodes(offer.path("validatingAirlineCodes").toString())
+                    .itineraries(itineraries)
+                    .build());
+        }
+
+        return flights;
+    }
+
+    // Synthetic Amadeus-shaped response: round trips with two segments per leg plus the
+    // pricing and traveler fields the API returns but the application never reads
+    private static byte[] buildPayload(int offers) {
+        String[] hubs = {"LHR", "CDG", "FRA", "AMS"};
+        String[] carriers = {"BA", "AF", "LH", "KL"};
+        StringBuilder json = new StringBuilder("{\"meta\":{\"count\":").append(offers).append("},\"data\":[");
+
+        for (int i = 0; i < offers; i++) {
+            String hub = hubs[i % hubs.length];
+            String carrier = carriers[i % carriers.length];
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"type\":\"flight-offer\",\"id\":\"").append(i + 1)
+                    .append("\",\"source\":\"GDS\",\"instantTicketingRequired\":false,\"lastTicketingDate\":\"2026-04-20\",")
+                    .append("\"numberOfBookableSeats\":").append(1 + i % 9).append(",\"itineraries\":[");
+            appendItinerary(json, "JFK", hub, "NCE", carrier, i, 10);
+            json.append(',');
+            appendItinerary(json, "NCE", hub, "JFK", carrier, i, 20);
+            json.append("],\"price\":{\"currency\":\"USD\",\"total\":\"").append(400 + i).append(".00\",\"base\":\"")
+                    .append(300 + i).append(".00\",\"fees\":[{\"amount\":\"0.00\",\"type\":\"SUPPLIER\"},")
+                    .append("{\"amount\":\"0.00\",\"type\":\"TICKETING\"}],\"grandTotal\":\"").append(400 + i)
+                    .append(".00\"},\"pricingOptions\":{\"fareType\":[\"PUBLISHED\"],\"includedCheckedBagsOnly\":true},")
+                    .append("\"validatingAirlineCodes\":[\"").append(carrier).append("\"],")
+                    .append("\"travelerPricings\":[{\"travelerId\":\"1\",\"fareOption\":\"STANDARD\",\"travelerType\":\"ADULT\",")
+                    .append("\"price\":{\"currency\":\"USD\",\"total\":\"").append(400 + i).append(".00\"},")
+                    .append("\"fareDetailsBySegment\":[{\"segmentId\":\"1\",\"cabin\":\"ECONOMY\",\"fareBasis\":\"KLX8\",")
+                    .append("\"class\":\"K\",\"includedCheckedBags\":{\"quantity\":1}},{\"segmentId\":\"2\",\"cabin\":\"ECONOMY\",")
+                    .append("\"fareBasis\":\"KLX8\",\"class\":\"K\",\"includedCheckedBags\":{\"quantity\":1}}]}]}");
+        }
+
+        json.append("],\"dictionaries\":{\"locations\":{\"JFK\":{\"cityCode\":\"NYC\",\"countryCode\":\"US\"}},")
+                .append("\"aircraft\":{\"320\":\"AIRBUS A320\",\"777\":\"BOEING 777\"},")
+                .append("\"currencies\":{\"USD\":\"US DOLLAR\"}}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendItinerary(StringBuilder json, String from, String via, String to,
+                                        String carrier, int offer, int day) {
+        int hour = 6 + offer % 6;
+        json.append("{\"duration\":\"PT11H30M\",\"segments\":[");
+        appendSegment(json, from, via, carrier, offer * 2 + 1, day, hour, "777");
+        json.append(',');
+        appendSegment(json, via, to, carrier, offer * 2 + 2, day, hour + 8, "320");
+        json.append("]}");
+    }
+
+    private static void appendSegment(StringBuilder json, String from, String to, String carrier,
+                                      int id, int day, int hour, String aircraft) {
+        String date = String.format("2026-05-%02d", day);
+        json.append("{\"departure\":{\"iataCode\":\"").append(from).append("\",\"terminal\":\"1\",\"at\":\"")
+                .append(date).append(String.format("T%02d:15:00", hour)).append("\"},")
+                .append("\"arrival\":{\"iataCode\":\"").append(to).append("\",\"terminal\":\"2\",\"at\":\"")
+                .append(date).append(String.format("T%02d:45:00", hour + 3)).append("\"},")
+                .append("\"carrierCode\":\"").append(carrier).append("\",\"number\":\"").append(100 + id)
+                .append("\",\"aircraft\":{\"code\":\"").append(aircraft).append("\"},")
+                .append("\"operating\":{\"carrierCode\":\"").append(carrier).append("\"},")
+                .append("\"duration\":\"PT3H30M\",\"id\":\"").append(id)
+                .append("\",\"numberOfStops\":0,\"blacklistedInEU\":false}");
+    }
+}
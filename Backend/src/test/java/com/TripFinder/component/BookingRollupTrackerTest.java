@@ -0,0 +1,221 @@
+package com.TripFinder.component;
+
+import com.TripFinder.entity.Booking;
+import com.TripFinder.entity.BookingRollup;
+import com.TripFinder.repository.BookingRepo;
+import com.TripFinder.repository.BookingRollupRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingRollupTrackerTest {
+
+    private static final LocalDateTime MAY_FIRST = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Mock
+    private BookingRepo bookingRepo;
+
+    @Mock
+    private BookingRollupRepo bookingRollupRepo;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BookingRollupTracker bookingRollupTracker;
+
+    private final List<BookingRollup> saved = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(bookingRollupRepo.save(any())).thenAnswer(invocation -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+    }
+
+    @Test
+    void flush_ShouldMergeEventsIntoOneUpsertPerRow() {
+        when(bookingRollupRepo.findByBucketDateAndBookingTypeAndStatusAndProviderAndCurrency(any(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        bookingRollupTracker.bookingAdded(1L, contribution(Booking.BookingStatus.PENDING, "100.00"));
+        bookingRollupTracker.bookingAdded(2L, contribution(Booking.BookingStatus.PENDING, "50.00"));
+        bookingRollupTracker.bookingUpdated(2L,
+                contribution(Booking.BookingStatus.PENDING, "50.00"),
+                contribution(Booking.BookingStatus.CONFIRMED, "50.00"));
+
+        bookingRollupTracker.flush();
+
+        assertEquals(2, saved.size());
+        BookingRollup pending = rollupWithStatus(Booking.BookingStatus.PENDING);
+        assertEquals(1L, pending.getBookingCount());
+        assertEquals(new BigDecimal("100.00"), pending.getTotalAmount());
+        assertEquals(BookingRollup.UNKNOWN_PROVIDER, pending.getProvider());
+        assertEquals(LocalDate.of(2024, 5, 1), pending.getBucketDate());
+        assertEquals(1L, rollupWithStatus(Booking.BookingStatus.CONFIRMED).getBookingCount());
+
+        // Nothing left to write
+        bookingRollupTracker.flush();
+        assertEquals(2, saved.size());
+    }
+
+    @Test
+    void flush_ShouldDeleteRowsThatDropToZero() {
+        BookingRollup existing = new BookingRollup(7L, MAY_FIRST.toLocalDate(), Booking.BookingType.HOTEL,
+                Booking.BookingStatus.PENDING, BookingRollup.UNKNOWN_PROVIDER, "USD", 1L, new BigDecimal("100.00"));
+        when(bookingRollupRepo.findByBucketDateAndBookingTypeAndStatusAndProviderAndCurrency(any(), any(), any(), any(), any()))
+                .thenReturn(Optional.of(existing));
+
+        bookingRollupTracker.bookingRemoved(1L, contribution(Booking.BookingStatus.PENDING, "100.00"));
+        bookingRollupTracker.flush();
+
+        verify(bookingRollupRepo).delete(existing);
+        assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    void backfill_ShouldRebuildInBatches() {
+        ReflectionTestUtils.setField(bookingRollupTracker, "batchSize", 2);
+        when(bookingRepo.findMaxId()).thenReturn(3L);
+        when(bookingRepo.findRollupSourceWindow(0L, 3L, Limit.of(2))).thenReturn(List.of(
+                row(1L, Booking.BookingStatus.CONFIRMED, "10.00"),
+                row(2L, Booking.BookingStatus.CONFIRMED, "20.00")));
+        when(bookingRepo.findRollupSourceWindow(2L, 3L, Limit.of(2))).thenReturn(List.<Object[]>of(
+                row(3L, Booking.BookingStatus.CANCELLED, "30.00")));
+        when(bookingRollupRepo.findByBucketDateAndBookingTypeAndStatusAndProviderAndCurrency(any(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        // Recorded before the backfill; the backfill reads the booking itself
+        bookingRollupTracker.bookingAdded(3L, contribution(Booking.BookingStatus.CANCELLED, "30.00"));
+
+        bookingRollupTracker.backfill();
+        bookingRollupTracker.flush();
+
+        verify(bookingRollupRepo).deleteAllInBatch();
+        assertEquals(2, saved.size());
+        BookingRollup confirmed = rollupWithStatus(Booking.BookingStatus.CONFIRMED);
+        assertEquals(2L, confirmed.getBookingCount());
+        assertEquals(new BigDecimal("30.00"), confirmed.getTotalAmount());
+        assertEquals("Amadeus", confirmed.getProvider());
+        assertEquals(1L, rollupWithStatus(Booking.BookingStatus.CANCELLED).getBookingCount());
+        assertNotNull(bookingRollupTracker.getLastBackfillAt());
+    }
+
+    @Test
+    void record_ShouldLeaveBookingsAheadOfTheBackfillToIt() {
+        ReflectionTestUtils.setField(bookingRollupTracker, "backfillCeiling", 10L);
+        ReflectionTestUtils.setField(bookingRollupTracker, "backfillProgress", 4L);
+        when(bookingRollupRepo.findByBucketDateAndBookingTypeAndStatusAndProviderAndCurrency(any(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        // Already backfilled, not yet reached, created after the backfill started
+        bookingRollupTracker.bookingAdded(3L, contribution(Booking.BookingStatus.PENDING, "1.00"));
+        bookingRollupTracker.bookingAdded(7L, contribution(Booking.BookingStatus.PENDING, "2.00"));
+        bookingRollupTracker.bookingAdded(11L, contribution(Booking.BookingStatus.PENDING, "4.00"));
+        bookingRollupTracker.flush();
+
+        ArgumentCaptor<BookingRollup> rollup = ArgumentCaptor.forClass(BookingRollup.class);
+        verify(bookingRollupRepo).save(rollup.capture());
+        assertEquals(2L, rollup.getValue().getBookingCount());
+        assertEquals(new BigDecimal("5.00"), rollup.getValue().getTotalAmount());
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftedRowsOfRecentDays() {
+        ReflectionTestUtils.setField(bookingRollupTracker, "reconcileDays", 3);
+        LocalDate today = LocalDate.now();
+        // Lost a confirmed booking before its flush, one row is right, one has no bookings left
+        BookingRollup drifted = new BookingRollup(1L, today, Booking.BookingType.HOTEL, Booking.BookingStatus.CONFIRMED,
+                BookingRollup.UNKNOWN_PROVIDER, "USD", 1L, new BigDecimal("100.00"));
+        BookingRollup correct = new BookingRollup(2L, today.minusDays(1), Booking.BookingType.FLIGHT,
+                Booking.BookingStatus.CONFIRMED, "Amadeus", "USD", 1L, new BigDecimal("50.00"));
+        BookingRollup orphaned = new BookingRollup(3L, today.minusDays(2), Booking.BookingType.HOTEL,
+                Booking.BookingStatus.PENDING, BookingRollup.UNKNOWN_PROVIDER, "USD", 4L, new BigDecimal("80.00"));
+        List<BookingRollup> stored = List.of(drifted, correct, orphaned);
+
+        when(bookingRollupRepo.findByBucketDateBetween(today.minusDays(2), today)).thenReturn(stored);
+        when(bookingRepo.countRollupSourceBetween(today.minusDays(2).atStartOfDay(), today.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(
+                        new Object[]{today, Booking.BookingType.HOTEL, Booking.BookingStatus.CONFIRMED, null, "USD", 2L, new BigDecimal("300.00")},
+                        new Object[]{today.minusDays(1), Booking.BookingType.FLIGHT, Booking.BookingStatus.CONFIRMED, "Amadeus", "USD", 1L, new BigDecimal("50.00")},
+                        new Object[]{today.minusDays(1), Booking.BookingType.HOTEL, Booking.BookingStatus.CANCELLED, "", "USD", 1L, null}));
+        when(bookingRollupRepo.findByBucketDateAndBookingTypeAndStatusAndProviderAndCurrency(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> stored.stream()
+                        .filter(rollup -> rollup.getBucketDate().equals(invocation.getArgument(0))
+                                && rollup.getBookingType() == invocation.getArgument(1)
+                                && rollup.getStatus() == invocation.getArgument(2))
+                        .findFirst());
+
+        // A pending delta of a recounted day is superseded; one of an older day is still written
+        bookingRollupTracker.bookingAdded(8L, BookingRollupTracker.Contribution.of(today.atTime(9, 0),
+                Booking.BookingType.HOTEL, Booking.BookingStatus.CONFIRMED, null, "USD", new BigDecimal("200.00")));
+        bookingRollupTracker.bookingAdded(9L, contribution(Booking.BookingStatus.PENDING, "5.00"));
+
+        bookingRollupTracker.reconcile();
+
+        assertEquals(2L, drifted.getBookingCount());
+        assertEquals(new BigDecimal("300.00"), drifted.getTotalAmount());
+        verify(bookingRollupRepo).delete(orphaned);
+        assertFalse(saved.contains(correct));
+        BookingRollup cancelled = rollupWithStatus(Booking.BookingStatus.CANCELLED);
+        assertEquals(BookingRollup.UNKNOWN_PROVIDER, cancelled.getProvider());
+        assertEquals(1L, cancelled.getBookingCount());
+        assertEquals(MAY_FIRST.toLocalDate(), rollupWithStatus(Booking.BookingStatus.PENDING).getBucketDate());
+        assertEquals(3, saved.size());
+        assertNotNull(bookingRollupTracker.getLastReconciledAt());
+
+        // Nothing left pending
+        bookingRollupTracker.flush();
+        assertEquals(3, saved.size());
+    }
+
+    @Test
+    void reconcile_ShouldWaitForARunningBackfill() {
+        ReflectionTestUtils.setField(bookingRollupTracker, "backfillRunning", new java.util.concurrent.atomic.AtomicBoolean(true));
+
+        bookingRollupTracker.reconcile();
+
+        verifyNoInteractions(bookingRepo, bookingRollupRepo);
+        assertNull(bookingRollupTracker.getLastReconciledAt());
+    }
+
+    private BookingRollup rollupWithStatus(Booking.BookingStatus status) {
+        return saved.stream().filter(rollup -> rollup.getStatus() == status).findFirst().orElseThrow();
+    }
+
+    private static BookingRollupTracker.Contribution contribution(Booking.BookingStatus status, String amount) {
+        return BookingRollupTracker.Contribution.of(MAY_FIRST, Booking.BookingType.HOTEL, status, null, "USD",
+                new BigDecimal(amount));
+    }
+
+    private static Object[] row(Long id, Booking.BookingStatus status, String amount) {
+        return new Object[]{id, MAY_FIRST, Booking.BookingType.FLIGHT, status, "Amadeus", "USD", new BigDecimal(amount)};
+    }
+}
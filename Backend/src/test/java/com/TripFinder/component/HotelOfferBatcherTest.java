@@ -0,0 +1,82 @@
+package com.TripFinder.component;
+
+import com.TripFinder.dto.HotelResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelOfferBatcherTest {
+
+    private final HotelOfferBatcher hotelOfferBatcher = new HotelOfferBatcher();
+
+    private final List<List<String>> upstreamCalls = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hotelOfferBatcher, "batchWindow", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(hotelOfferBatcher, "batchMaxHotels", 5);
+    }
+
+    @Test
+    void fetch_ShouldMergeLookupsForSameStay_AndReturnOwnHotels() {
+        Mono<List<HotelResponse>> first = hotelOfferBatcher.fetch("PAR|2025-06-01", List.of("H1", "H2"), this::offersFor);
+        Mono<List<HotelResponse>> second = hotelOfferBatcher.fetch("PAR|2025-06-01", List.of("H2", "H3"), this::offersFor);
+
+        assertEquals(List.of("H1", "H2"), hotelIds(first.block()));
+        assertEquals(List.of("H2", "H3"), hotelIds(second.block()));
+        assertEquals(List.of(List.of("H1", "H2", "H3")), upstreamCalls);
+    }
+
+    @Test
+    void fetch_ShouldKeepDifferentStaysApart() {
+        Mono<List<HotelResponse>> june = hotelOfferBatcher.fetch("PAR|2025-06-01", List.of("H1"), this::offersFor);
+        Mono<List<HotelResponse>> july = hotelOfferBatcher.fetch("PAR|2025-07-01", List.of("H1"), this::offersFor);
+
+        june.block();
+        july.block();
+        assertEquals(2, upstreamCalls.size());
+    }
+
+    @Test
+    void fetch_ShouldSendFullBatchWithoutWaiting() {
+        ReflectionTestUtils.setField(hotelOfferBatcher, "batchWindow", Duration.ofMinutes(1));
+
+        List<HotelResponse> offers = hotelOfferBatcher
+                .fetch("PAR|2025-06-01", List.of("H1", "H2", "H3", "H4", "H5"), this::offersFor)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(5, offers.size());
+        assertEquals(1, upstreamCalls.size());
+    }
+
+    @Test
+    void fetch_ShouldPropagateIncompleteAndFailedBatches() {
+        Function<List<String>, Mono<List<HotelResponse>>> partial =
+                ids -> offersFor(ids).map(SearchResultCache::incomplete);
+        List<HotelResponse> offers = hotelOfferBatcher.fetch("PAR|2025-06-01", List.of("H1"), partial).block();
+        assertTrue(SearchResultCache.isIncomplete(offers));
+
+        Mono<List<HotelResponse>> failed = hotelOfferBatcher.fetch("PAR|2025-06-02", List.of("H1"),
+                ids -> Mono.error(new IllegalStateException("upstream down")));
+        assertThrows(IllegalStateException.class, failed::block);
+    }
+
+    private Mono<List<HotelResponse>> offersFor(List<String> hotelIds) {
+        upstreamCalls.add(hotelIds);
+        return Mono.just(hotelIds.stream()
+                .map(id -> HotelResponse.builder().hotelId(id).build())
+                .toList());
+    }
+
+    private static List<String> hotelIds(List<HotelResponse> offers) {
+        return offers.stream().map(HotelResponse::getHotelId).toList();
+    }
+}
@@ -0,0 +1,159 @@
+package com.TripFinder.component;
+
+import com.TripFinder.config.CacheConfig;
+import com.TripFinder.dto.FlightResponse;
+import com.TripFinder.entity.LastKnownGoodResult;
+import com.TripFinder.repository.LastKnownGoodResultRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LastKnownGoodStoreTest {
+
+    private static final String CACHE = "flight-offers";
+    private static final LocalDate DATE = LocalDate.of(2026, 7, 10);
+
+    @Mock
+    private LastKnownGoodResultRepo lastKnownGoodResultRepo;
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Spy
+    private CacheConfig cacheConfig = new CacheConfig();
+
+    @InjectMocks
+    private LastKnownGoodStore lastKnownGoodStore;
+
+    @Test
+    void find_ShouldReturnExactSearch_AsStaleResults() throws Exception {
+        List<FlightResponse> offers = List.of(offer("1", 310.0), offer("2", 120.0));
+        LastKnownGoodResult stored = entry("JFK|LAX|2026-07-10", DATE, LocalDateTime.now().minusHours(2), offers);
+        when(lastKnownGoodResultRepo.findByCacheNameAndSearchKey(CACHE, "JFK|LAX|2026-07-10")).thenReturn(Optional.of(stored));
+
+        CachedResult<FlightResponse> result = lastKnownGoodStore
+                .find(CACHE, "JFK|LAX|2026-07-10", "JFK|LAX", DATE, FlightResponse.class)
+                .orElseThrow();
+
+        assertEquals(offers, result.results());
+        assertTrue(result.stale());
+    }
+
+    @Test
+    void find_ShouldPreferNearestDay_WhenExactSearchMissing() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        // Newest first, as returned by the repository
+        List<LastKnownGoodResult> nearby = List.of(
+                entry("JFK|LAX|2026-07-13", DATE.plusDays(3), now.minusMinutes(5), List.of(offer("far", 100.0))),
+                entry("JFK|LAX|2026-07-09", DATE.minusDays(1), now.minusHours(1), List.of(offer("near", 200.0))),
+                entry("JFK|LAX|2026-07-11", DATE.plusDays(1), now.minusHours(3), List.of(offer("older", 150.0))));
+        when(lastKnownGoodResultRepo.findByCacheNameAndRouteKeyAndSearchDateBetweenAndFetchedAtAfterOrderByFetchedAtDesc(
+                eq(CACHE), eq("JFK|LAX"), eq(DATE.minusDays(3)), eq(DATE.plusDays(3)), any()))
+                .thenReturn(nearby);
+
+        CachedResult<FlightResponse> result = lastKnownGoodStore
+                .find(CACHE, "JFK|LAX|2026-07-10", "JFK|LAX", DATE, FlightResponse.class)
+                .orElseThrow();
+
+        assertEquals("near", result.results().get(0).getId());
+    }
+
+    @Test
+    void find_ShouldIgnoreExactSearch_OlderThanMaxAge() throws Exception {
+        LastKnownGoodResult expired = entry("JFK|LAX|2026-07-10", DATE, LocalDateTime.now().minusDays(30),
+                List.of(offer("1", 300.0)));
+        when(lastKnownGoodResultRepo.findByCacheNameAndSearchKey(CACHE, "JFK|LAX|2026-07-10")).thenReturn(Optional.of(expired));
+
+        assertTrue(lastKnownGoodStore.find(CACHE, "JFK|LAX|2026-07-10", "JFK|LAX", DATE, FlightResponse.class).isEmpty());
+    }
+
+    @Test
+    void save_ShouldUpdateTheWinningRow_WhenAnotherWriterInsertedTheSearchFirst() throws Exception {
+        LastKnownGoodResult winner = entry("JFK|LAX|2026-07-10", DATE, LocalDateTime.now().minusMinutes(1),
+                List.of(offer("1", 300.0)));
+        winner.setId(42L);
+        when(lastKnownGoodResultRepo.findByCacheNameAndSearchKey(CACHE, "JFK|LAX|2026-07-10"))
+                .thenReturn(Optional.empty(), Optional.of(winner));
+        List<Long> savedIds = new ArrayList<>();
+        when(lastKnownGoodResultRepo.save(any())).thenAnswer(invocation -> {
+            LastKnownGoodResult saved = invocation.getArgument(0);
+            savedIds.add(saved.getId());
+            if (saved.getId() == null) {
+                throw new DataIntegrityViolationException("Unique index violation");
+            }
+            return saved;
+        });
+
+        lastKnownGoodStore.save(CACHE, "JFK|LAX|2026-07-10", "JFK|LAX", DATE, List.of(offer("2", 250.0), offer("3", 260.0)));
+        lastKnownGoodStore.shutdown();
+
+        assertEquals(Arrays.asList(null, 42L), savedIds);
+        assertEquals(2, winner.getResultCount());
+        verify(lastKnownGoodResultRepo).deleteFetchedBefore(any());
+    }
+
+    @Test
+    void save_ShouldWriteOffTheCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        List<Thread> writers = new ArrayList<>();
+        when(lastKnownGoodResultRepo.findByCacheNameAndSearchKey(any(), any())).thenReturn(Optional.empty());
+        when(lastKnownGoodResultRepo.save(any())).thenAnswer(invocation -> {
+            writers.add(Thread.currentThread());
+            return invocation.getArgument(0);
+        });
+
+        lastKnownGoodStore.save(CACHE, "JFK|LAX|2026-07-10", "JFK|LAX", DATE, List.of(offer("1", 300.0)));
+        lastKnownGoodStore.shutdown();
+
+        assertEquals(1, writers.size());
+        assertNotSame(caller, writers.get(0));
+        assertEquals("last-known-good-writer", writers.get(0).getName());
+    }
+
+    private LastKnownGoodResult entry(String searchKey, LocalDate searchDate, LocalDateTime fetchedAt,
+                                      List<FlightResponse> offers) throws Exception {
+        return new LastKnownGoodResult(null, CACHE, searchKey, "JFK|LAX", searchDate,
+                objectMapper.writeValueAsString(offers), offers.size(), fetchedAt);
+    }
+
+    private static FlightResponse offer(String id, double price) {
+        return FlightResponse.builder()
+                .id(id)
+                .price(price)
+                .currency("USD")
+                .itineraries(List.of(FlightResponse.Itinerary.builder()
+                        .duration("PT5H30M")
+                        .segments(List.of(FlightResponse.Segment.builder()
+                                .carrierCode("AA")
+                                .number("100")
+                                .departure(FlightResponse.Departure.builder().iataCode("JFK").at(DATE.atTime(8, 0)).build())
+                                .arrival(FlightResponse.Arrival.builder().iataCode("LAX").at(DATE.atTime(11, 30)).build())
+                                .build()))
+                        .build()))
+                .build();
+    }
+}
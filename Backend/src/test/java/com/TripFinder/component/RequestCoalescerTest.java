@@ -0,0 +1,64 @@
+package com.TripFinder.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Test
+    void executeAsync_ShouldShareOneUpstreamCall_AndReleaseKeyOnCompletion() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = requestCoalescer.executeAsync("flight-offers", "CDG|NRT", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = requestCoalescer.executeAsync("flight-offers", "CDG|NRT", () -> {
+            upstreamCalls.incrementAndGet();
+            return CompletableFuture.completedFuture("duplicate");
+        });
+
+        assertFalse(first.isDone());
+        upstream.complete("offers");
+
+        assertEquals("offers", first.get(5, TimeUnit.SECONDS));
+        assertEquals("offers", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, upstreamCalls.get());
+
+        CompletableFuture<String> later = requestCoalescer.executeAsync("flight-offers", "CDG|NRT",
+                () -> CompletableFuture.completedFuture("fresh"));
+        assertEquals("fresh", later.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void executeAsync_ShouldPropagateFailureToEveryCallerAndAllowRetry() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = requestCoalescer.executeAsync("hotel-offers", "PAR", () -> upstream);
+        CompletableFuture<String> second = requestCoalescer.executeAsync("hotel-offers", "PAR",
+                () -> CompletableFuture.completedFuture("duplicate"));
+
+        upstream.completeExceptionally(new IllegalArgumentException("upstream failed"));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+
+        assertEquals("retried", requestCoalescer.executeAsync("hotel-offers", "PAR",
+                () -> CompletableFuture.completedFuture("retried")).get(5, TimeUnit.SECONDS));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stats = (Map<String, Object>) requestCoalescer.getStatistics().get("hotel-offers");
+        assertEquals(2L, stats.get("upstreamCalls"));
+        assertEquals(1L, stats.get("coalescedCallers"));
+    }
+}
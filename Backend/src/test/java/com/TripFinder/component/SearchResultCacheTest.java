@@ -0,0 +1,169 @@
+package com.TripFinder.component;
+
+import com.TripFinder.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private static final String CACHE = "flight-offers";
+
+    private final SearchResultCache searchResultCache = new SearchResultCache();
+
+    @BeforeEach
+    void setUp() {
+        CacheConfig.CacheSpec spec = new CacheConfig.CacheSpec();
+        spec.setSoftTtl(Duration.ofMillis(50));
+        spec.setExpireAfterWrite(Duration.ofMinutes(5));
+
+        CacheConfig cacheConfig = new CacheConfig();
+        cacheConfig.setCaches(Map.of(CACHE, spec));
+
+        ReflectionTestUtils.setField(searchResultCache, "cacheConfig", cacheConfig);
+        ReflectionTestUtils.setField(searchResultCache, "cacheManager", cacheConfig.cacheManager());
+        ReflectionTestUtils.setField(searchResultCache, "requestCoalescer", new RequestCoalescer());
+
+        AdaptiveTtlPolicy adaptiveTtlPolicy = new AdaptiveTtlPolicy();
+        ReflectionTestUtils.setField(adaptiveTtlPolicy, "cacheConfig", cacheConfig);
+        ReflectionTestUtils.setField(searchResultCache, "adaptiveTtlPolicy", adaptiveTtlPolicy);
+    }
+
+    @Test
+    void get_ShouldServeFromCache_WithinSoftTtl() {
+        AtomicInteger loads = new AtomicInteger();
+
+        CachedResult<String> first = searchResultCache.get(CACHE, "JFK|LAX", () -> load(loads, "v1"));
+        CachedResult<String> second = searchResultCache.get(CACHE, "JFK|LAX", () -> load(loads, "v2"));
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of("v1"), second.results());
+        assertEquals(first.fetchedAt(), second.fetchedAt());
+        assertFalse(second.stale());
+        assertFalse(first.cacheHit());
+        assertTrue(second.cacheHit());
+    }
+
+    @Test
+    void get_ShouldServeStaleAndRefreshOnce_PastSoftTtl() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        searchResultCache.get(CACHE, "JFK|LAX", () -> load(loads, "v1"));
+        Thread.sleep(100);
+
+        CompletableFuture<List<String>> refresh = new CompletableFuture<>();
+        for (int i = 0; i < 3; i++) {
+            CachedResult<String> stale = searchResultCache.get(CACHE, "JFK|LAX", () -> {
+                loads.incrementAndGet();
+                return refresh;
+            });
+            assertTrue(stale.stale());
+            assertTrue(stale.cacheHit());
+            assertEquals(List.of("v1"), stale.results());
+        }
+        assertEquals(2, loads.get());
+
+        refresh.complete(List.of("v2"));
+        CachedResult<String> refreshed = searchResultCache.get(CACHE, "JFK|LAX", () -> load(loads, "v3"));
+
+        assertEquals(List.of("v2"), refreshed.results());
+        assertFalse(refreshed.stale());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldKeepStaleEntry_WhenRefreshFails() throws Exception {
+        searchResultCache.get(CACHE, "JFK|LAX", () -> CompletableFuture.completedFuture(List.of("v1")));
+        Thread.sleep(100);
+
+        searchResultCache.get(CACHE, "JFK|LAX",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("upstream down")));
+        CachedResult<String> stale = searchResultCache.get(CACHE, "JFK|LAX",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("upstream down")));
+
+        assertEquals(List.of("v1"), stale.results());
+        assertTrue(stale.stale());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> statistics = (Map<String, Object>) searchResultCache.getStatistics().get(CACHE);
+        assertEquals(2L, statistics.get("refreshFailures"));
+    }
+
+    @Test
+    void get_ShouldCacheEmptyResultsNegatively() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            CachedResult<String> result = searchResultCache.get(CACHE, "XXX|YYY", () -> {
+                loads.incrementAndGet();
+                return CompletableFuture.completedFuture(List.of());
+            });
+            assertTrue(result.results().isEmpty());
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldCacheUpstreamClientErrors_ButNotServerErrors() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(WebClientResponseException.BadRequest.class, () -> searchResultCache.<String>get(CACHE, "bad-route", () -> {
+                loads.incrementAndGet();
+                return CompletableFuture.failedFuture(upstreamError(HttpStatus.BAD_REQUEST));
+            }));
+        }
+        assertEquals(1, loads.get());
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(WebClientResponseException.class, () -> searchResultCache.<String>get(CACHE, "outage", () -> {
+                loads.incrementAndGet();
+                return CompletableFuture.failedFuture(upstreamError(HttpStatus.BAD_GATEWAY));
+            }));
+        }
+        assertEquals(4, loads.get());
+
+        // Clearing drops negative entries, so the next search goes upstream again
+        searchResultCache.clearNegativeResults();
+        searchResultCache.get(CACHE, "bad-route", () -> load(loads, "fixed"));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void get_ShouldServeIncompleteResults_WithoutCachingThem() {
+        AtomicInteger loads = new AtomicInteger();
+
+        CachedResult<String> partial = searchResultCache.get(CACHE, "PAR", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(SearchResultCache.incomplete(List.of("h1", "h2")));
+        });
+        assertEquals(List.of("h1", "h2"), partial.results());
+        assertTrue(SearchResultCache.isIncomplete(partial.results()));
+
+        CachedResult<String> complete = searchResultCache.get(CACHE, "PAR", () -> load(loads, "h3"));
+        assertEquals(List.of("h3"), complete.results());
+        assertEquals(2, loads.get());
+
+        searchResultCache.get(CACHE, "PAR", () -> load(loads, "h4"));
+        assertEquals(2, loads.get());
+    }
+
+    private static WebClientResponseException upstreamError(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), HttpHeaders.EMPTY, new byte[0], null);
+    }
+
+    private static CompletableFuture<List<String>> load(AtomicInteger loads, String value) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(List.of(value));
+    }
+}
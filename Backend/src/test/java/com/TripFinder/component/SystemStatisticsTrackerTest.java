@@ -0,0 +1,117 @@
+package com.TripFinder.component;
+
+import com.TripFinder.entity.Booking;
+import com.TripFinder.entity.StatisticsCheckpoint;
+import com.TripFinder.enums.Role;
+import com.TripFinder.repository.BookingRepo;
+import com.TripFinder.repository.ItineraryRepo;
+import com.TripFinder.repository.StatisticsCheckpointRepo;
+import com.TripFinder.repository.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SystemStatisticsTrackerTest {
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private BookingRepo bookingRepo;
+
+    @Mock
+    private ItineraryRepo itineraryRepo;
+
+    @Mock
+    private StatisticsCheckpointRepo statisticsCheckpointRepo;
+
+    @InjectMocks
+    private SystemStatisticsTracker systemStatisticsTracker;
+
+    @Test
+    void initialize_ShouldCountTables_WithoutCheckpoint_AndThenFollowEvents() {
+        when(statisticsCheckpointRepo.findAll()).thenReturn(List.of());
+        stubCounts(3L, 1L, 2L, List.<Object[]>of(new Object[]{Booking.BookingStatus.PENDING, 2L}), 4L);
+
+        systemStatisticsTracker.initialize();
+
+        systemStatisticsTracker.userAdded(Role.USER);
+        systemStatisticsTracker.userRoleChanged(Role.USER, Role.ADMIN);
+        systemStatisticsTracker.bookingStatusChanged(Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED);
+        systemStatisticsTracker.bookingRemoved(Booking.BookingStatus.PENDING);
+        systemStatisticsTracker.itineraryAdded();
+
+        Map<String, Object> stats = systemStatisticsTracker.getStatistics();
+        assertEquals(4L, stats.get("totalUsers"));
+        assertEquals(2L, stats.get("adminUsers"));
+        assertEquals(2L, stats.get("regularUsers"));
+        assertEquals(1L, stats.get("totalBookings"));
+        assertEquals(Map.of("CONFIRMED", 1L), stats.get("bookingsByStatus"));
+        assertEquals(5L, stats.get("totalItineraries"));
+        assertNotNull(stats.get("lastReconciledAt"));
+    }
+
+    @Test
+    void initialize_ShouldResumeFromCheckpoint_WithoutCountingTables() {
+        LocalDateTime now = LocalDateTime.now();
+        when(statisticsCheckpointRepo.findAll()).thenReturn(List.of(
+                new StatisticsCheckpoint("users", 100L, now),
+                new StatisticsCheckpoint("users.USER", 99L, now),
+                new StatisticsCheckpoint("users.ADMIN", 1L, now)));
+
+        // Recorded before startup finished; kept on top of the checkpoint
+        systemStatisticsTracker.userAdded(Role.USER);
+        systemStatisticsTracker.initialize();
+
+        assertEquals(101L, systemStatisticsTracker.getStatistics().get("totalUsers"));
+        assertEquals(100L, systemStatisticsTracker.getStatistics().get("regularUsers"));
+        verifyNoInteractions(userRepo, bookingRepo, itineraryRepo);
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDrift_AndCheckpointPersistsCounters() {
+        when(statisticsCheckpointRepo.findAll()).thenReturn(List.of());
+        stubCounts(2L, 1L, 1L, List.of(), 0L);
+        systemStatisticsTracker.initialize();
+
+        // A bulk delete the events never saw
+        stubCounts(1L, 1L, 0L, List.of(), 0L);
+        systemStatisticsTracker.reconcile();
+        assertEquals(1L, systemStatisticsTracker.getStatistics().get("totalUsers"));
+        assertEquals(0L, systemStatisticsTracker.getStatistics().get("regularUsers"));
+
+        systemStatisticsTracker.checkpoint();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StatisticsCheckpoint>> saved = ArgumentCaptor.forClass(List.class);
+        verify(statisticsCheckpointRepo).saveAll(saved.capture());
+        Map<String, Long> values = saved.getValue().stream()
+                .collect(Collectors.toMap(StatisticsCheckpoint::getName, StatisticsCheckpoint::getValue));
+        assertEquals(1L, values.get("users"));
+        assertEquals(1L, values.get("users.ADMIN"));
+        assertEquals(0L, values.get("bookings.PENDING"));
+        assertNotNull(systemStatisticsTracker.getStatistics().get("lastCheckpointAt"));
+    }
+
+    private void stubCounts(long users, long admins, long regular, List<Object[]> bookingsByStatus, long itineraries) {
+        long bookings = bookingsByStatus.stream().mapToLong(stat -> (Long) stat[1]).sum();
+        when(userRepo.count()).thenReturn(users);
+        when(userRepo.countByRole(Role.ADMIN)).thenReturn(admins);
+        when(userRepo.countByRole(Role.USER)).thenReturn(regular);
+        when(bookingRepo.count()).thenReturn(bookings);
+        when(bookingRepo.getBookingStatsByStatus()).thenReturn(bookingsByStatus);
+        when(itineraryRepo.count()).thenReturn(itineraries);
+    }
+}
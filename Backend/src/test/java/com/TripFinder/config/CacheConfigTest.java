@@ -0,0 +1,84 @@
+package com.TripFinder.config;
+
+import com.TripFinder.component.CachedResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private CacheConfig cacheConfig;
+
+    @BeforeEach
+    void setUp() {
+        cacheConfig = new CacheConfig();
+
+        CacheConfig.CacheSpec offersSpec = new CacheConfig.CacheSpec();
+        offersSpec.setMaximumWeight(10L);
+        cacheConfig.setCaches(Map.of("flight-offers", offersSpec));
+    }
+
+    @Test
+    void cacheManager_ShouldRegisterDefaultCaches() {
+        CacheManager cacheManager = cacheConfig.cacheManager();
+
+        assertTrue(cacheManager.getCacheNames().containsAll(CacheConfig.DEFAULT_CACHE_NAMES));
+    }
+
+    @Test
+    void cacheManager_ShouldBoundCacheByWeight() {
+        Cache<Object, Object> cache = nativeCache(cacheConfig.cacheManager(), "flight-offers");
+
+        for (int i = 0; i < 5; i++) {
+            cache.put("search-" + i, Collections.nCopies(4, "offer"));
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.policy().eviction().orElseThrow().weightedSize().orElseThrow() <= 10L);
+        assertTrue(cache.stats().evictionCount() > 0);
+    }
+
+    @Test
+    void cacheManager_ShouldRecordHitAndMissStatistics() {
+        Cache<Object, Object> cache = nativeCache(cacheConfig.cacheManager(), "hotel-offers");
+
+        cache.put("PAR", List.of("hotel"));
+        cache.getIfPresent("PAR");
+        cache.getIfPresent("LON");
+
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void cacheManager_ShouldExpireEntriesByTheirOwnTtl_WhenAdaptiveTtlEnabled() {
+        CacheConfig.CacheSpec spec = new CacheConfig.CacheSpec();
+        spec.getAdaptiveTtl().setEnabled(true);
+        spec.getAdaptiveTtl().setHardTtlMultiplier(3.0);
+        cacheConfig.setCaches(Map.of("hotel-offers", spec));
+        Cache<Object, Object> cache = nativeCache(cacheConfig.cacheManager(), "hotel-offers");
+
+        cache.put("PAR", CachedResult.fresh(List.of("hotel"), Duration.ofMinutes(10)));
+        cache.put("LON", List.of("hotel"));
+
+        var expiry = cache.policy().expireVariably().orElseThrow();
+        // Remaining lifetime: three times the entry's own TTL, and the fixed TTL for other values
+        Duration remaining = expiry.getExpiresAfter("PAR").orElseThrow();
+        assertTrue(remaining.compareTo(Duration.ofMinutes(29)) > 0 && remaining.compareTo(Duration.ofMinutes(30)) <= 0);
+        remaining = expiry.getExpiresAfter("LON").orElseThrow();
+        assertTrue(remaining.compareTo(spec.getExpireAfterWrite().minusMinutes(1)) > 0);
+    }
+
+    private Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -1,5 +1,7 @@
 package com.TripFinder.controller;
 
+import com.TripFinder.dto.AdminBookingPage;
+import com.TripFinder.dto.AdminUserPage;
 import com.TripFinder.entity.User;
 import com.TripFinder.enums.Role;
 import com.TripFinder.repository.UserRepo;
@@ -65,7 +67,7 @@ class AdminControllerIntegrationTest {
     @WithMockUser(roles = "ADMIN")
     void getAllUsers_ShouldReturnUsers_WhenAdmin() throws Exception {
         // Given
-        when(adminService.getAllUsers()).thenReturn(Arrays.asList());
+        when(adminService.getUsers("id", "asc", null, 50)).thenReturn(new AdminUserPage(Arrays.asList(), null));
 
         // When & Then
         mockMvc.perform(get("/api/admin/users")
@@ -73,7 +75,7 @@ class AdminControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(adminService).getAllUsers();
+        verify(adminService).getUsers("id", "asc", null, 50);
     }
 
     @Test
@@ -84,14 +86,14 @@ class AdminControllerIntegrationTest {
                 .with(user(regularUser)))
                 .andExpect(status().isForbidden());
 
-        verify(adminService, never()).getAllUsers();
+        verify(adminService, never()).getUsers(any(), any(), any(), anyInt());
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void getAllBookings_ShouldReturnBookings_WhenAdmin() throws Exception {
         // Given
-        when(adminService.getAllBookings()).thenReturn(Arrays.asList());
+        when(adminService.getBookings(null, null, null, null, 50)).thenReturn(new AdminBookingPage(Arrays.asList(), null));
 
         // When & Then
         mockMvc.perform(get("/api/admin/bookings")
@@ -99,7 +101,7 @@ class AdminControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
-        verify(adminService).getAllBookings();
+        verify(adminService).getBookings(null, null, null, null, 50);
     }
 
     @Test
@@ -0,0 +1,57 @@
+package com.TripFinder.dto;
+
+import com.TripFinder.entity.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminBookingDtoTest {
+
+    private static final LocalDateTime BOOKED = LocalDateTime.of(2026, 5, 1, 10, 30);
+
+    @Test
+    void toCsvRow_ShouldQuoteSeparatorsAndQuotes() {
+        AdminBookingDto booking = booking("TF-1001", "Amadeus", "Jane \"JD\" Doe", "Paris, then Rome", new BigDecimal("1234.50"));
+
+        assertEquals("1,TF-1001,FLIGHT,Amadeus,1234.50,EUR,CONFIRMED,2026-05-01T10:30,,,7,\"Jane \"\"JD\"\" Doe\","
+                + "jane@example.com,3,\"Paris, then Rome\"", booking.toCsvRow());
+        assertEquals(15, AdminBookingDto.csvHeader().split(",").length);
+    }
+
+    @Test
+    void toCsvRow_ShouldNeutraliseFormulasInFreeText() {
+        AdminBookingDto booking = booking("=HYPERLINK(\"http://evil\")", "+cmd", "@SUM(A1:A9)", "-2+3", new BigDecimal("-15.00"));
+
+        String[] cells = booking.toCsvRow().split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
+
+        assertEquals("\"'=HYPERLINK(\"\"http://evil\"\")\"", cells[1]);
+        assertEquals("'+cmd", cells[3]);
+        assertEquals("'@SUM(A1:A9)", cells[11]);
+        assertEquals("'-2+3", cells[14]);
+        // Numbers are not free text and keep their sign
+        assertEquals("-15.00", cells[4]);
+    }
+
+    @Test
+    void toCsvRow_ShouldNeutraliseLeadingTabsAndLeaveEmptyCellsEmpty() {
+        AdminBookingDto booking = booking("\t=1+1", null, "", "Summer trip", null);
+
+        String[] cells = booking.toCsvRow().split(",", -1);
+
+        assertEquals("'\t=1+1", cells[1]);
+        assertEquals("", cells[3]);
+        assertEquals("", cells[4]);
+        assertEquals("", cells[11]);
+        assertEquals("Summer trip", cells[14]);
+    }
+
+    private static AdminBookingDto booking(String reference, String provider, String fullName, String tripName,
+                                           BigDecimal totalAmount) {
+        return new AdminBookingDto(1L, reference, Booking.BookingType.FLIGHT, provider, totalAmount, "EUR",
+                Booking.BookingStatus.CONFIRMED, BOOKED, null, null, "internal note",
+                7, fullName, "jane@example.com", 3L, tripName);
+    }
+}
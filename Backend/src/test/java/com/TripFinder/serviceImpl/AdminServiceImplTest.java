@@ -1,28 +1,48 @@
 package com.TripFinder.serviceImpl;
 
+import com.TripFinder.component.SystemStatisticsTracker;
+import com.TripFinder.dto.AdminBookingDto;
+import com.TripFinder.dto.AdminBookingPage;
 import com.TripFinder.dto.AdminUserDto;
+import com.TripFinder.dto.AdminUserPage;
+import com.TripFinder.dto.BookingAnalyticsBucket;
 import com.TripFinder.entity.Booking;
+import com.TripFinder.entity.BookingRollup;
 import com.TripFinder.entity.User;
 import com.TripFinder.enums.Role;
+import com.TripFinder.enums.TimeGranularity;
 import com.TripFinder.repository.BookingRepo;
+import com.TripFinder.repository.BookingRollupRepo;
 import com.TripFinder.repository.ItineraryRepo;
 import com.TripFinder.repository.UserRepo;
+import com.TripFinder.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +57,12 @@ class AdminServiceImplTest {
     @Mock
     private ItineraryRepo itineraryRepo;
 
+    @Mock
+    private BookingRollupRepo bookingRollupRepo;
+
+    @Mock
+    private SystemStatisticsTracker systemStatisticsTracker;
+
     @InjectMocks
     private AdminServiceImpl adminService;
 
@@ -67,21 +93,45 @@ class AdminServiceImplTest {
     }
 
     @Test
-    void getAllUsers_ShouldReturnUserList() {
+    void getUsers_ShouldReturnWindowWithGroupedCounts() {
         // Given
-        List<User> users = Arrays.asList(testUser, testAdmin);
-        when(userRepo.findAll()).thenReturn(users);
-        when(itineraryRepo.countByUserId(anyInt())).thenReturn(2L);
-        when(bookingRepo.countByUserId(anyInt())).thenReturn(1L);
+        Window<User> window = Window.from(Arrays.asList(testUser, testAdmin),
+                index -> ScrollPosition.forward(Map.of("id", index + 1)), true);
+        when(userRepo.findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))).thenReturn(window);
+        when(itineraryRepo.countByUserIds(List.of(1, 2))).thenReturn(List.<Object[]>of(new Object[]{1, 2L}));
+        LocalDateTime lastBooking = LocalDateTime.of(2025, 3, 1, 10, 0);
+        when(bookingRepo.getBookingStatsByUserIds(List.of(1, 2))).thenReturn(List.<Object[]>of(new Object[]{2, 3L, lastBooking}));
 
         // When
-        List<AdminUserDto> result = adminService.getAllUsers();
+        AdminUserPage result = adminService.getUsers("id", "asc", null, 2);
 
         // Then
-        assertEquals(2, result.size());
-        assertEquals("Test User", result.get(0).fullName());
-        assertEquals("Test Admin", result.get(1).fullName());
-        verify(userRepo).findAll();
+        assertEquals(2, result.users().size());
+        AdminUserDto user = result.users().get(0);
+        assertEquals("Test User", user.fullName());
+        assertEquals(2L, user.totalItineraries());
+        assertEquals(0L, user.totalBookings());
+        assertNull(user.lastActivity());
+        AdminUserDto admin = result.users().get(1);
+        assertEquals("Test Admin", admin.fullName());
+        assertEquals(0L, admin.totalItineraries());
+        assertEquals(3L, admin.totalBookings());
+        assertEquals(lastBooking, admin.lastActivity());
+
+        // The cursor continues after the last user of the window
+        KeysetScrollPosition next = KeysetCursor.decode(result.nextCursor());
+        assertEquals(Map.of("id", 2), next.getKeys());
+        verify(itineraryRepo, never()).countByUserId(anyInt());
+        verify(bookingRepo, never()).countByUserId(anyInt());
+    }
+
+    @Test
+    void getUsers_ShouldRejectUnsupportedSortAndForeignCursor() {
+        assertThrows(IllegalArgumentException.class, () -> adminService.getUsers("password", "asc", null, 50));
+
+        String idCursor = KeysetCursor.encode(ScrollPosition.forward(Map.of("id", 10)));
+        assertThrows(IllegalArgumentException.class, () -> adminService.getUsers("email", "asc", idCursor, 50));
+        verify(userRepo, never()).findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class));
     }
 
     @Test
@@ -114,6 +164,113 @@ class AdminServiceImplTest {
         verify(userRepo, never()).save(any());
     }
 
+    @Test
+    void getBookings_ShouldReturnWindow_AndContinueAfterCursor() {
+        LocalDateTime newer = LocalDateTime.of(2024, 5, 2, 10, 0);
+        LocalDateTime older = LocalDateTime.of(2024, 5, 1, 9, 30);
+        when(bookingRepo.findAdminBookingWindow(eq(List.of(Booking.BookingStatus.CONFIRMED)),
+                eq(LocalDateTime.of(2024, 5, 1, 0, 0)), eq(LocalDateTime.of(2024, 6, 1, 0, 0)),
+                eq(LocalDateTime.of(2024, 6, 1, 0, 0)), eq(Long.MAX_VALUE), eq(Limit.of(3))))
+                .thenReturn(List.of(bookingDto(9L, newer), bookingDto(7L, older), bookingDto(4L, older)));
+
+        AdminBookingPage first = adminService.getBookings(Booking.BookingStatus.CONFIRMED,
+                LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31), null, 2);
+
+        assertEquals(List.of(9L, 7L), first.bookings().stream().map(AdminBookingDto::id).toList());
+        assertEquals("test@example.com", first.bookings().get(0).user().email());
+        assertNotNull(first.nextCursor());
+
+        when(bookingRepo.findAdminBookingWindow(any(), any(), any(), eq(older), eq(7L), eq(Limit.of(3))))
+                .thenReturn(List.of(bookingDto(4L, older)));
+
+        AdminBookingPage second = adminService.getBookings(Booking.BookingStatus.CONFIRMED,
+                LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31), first.nextCursor(), 2);
+
+        assertEquals(List.of(4L), second.bookings().stream().map(AdminBookingDto::id).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void getBookings_ShouldRejectReversedRangeAndForeignCursor() {
+        assertThrows(IllegalArgumentException.class, () -> adminService.getBookings(
+                null, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 5, 1), null, 50));
+
+        String userCursor = KeysetCursor.encode(ScrollPosition.forward(Map.of("id", 5)));
+        assertThrows(IllegalArgumentException.class, () -> adminService.getBookings(null, null, null, userCursor, 50));
+        verifyNoInteractions(bookingRepo);
+    }
+
+    @Test
+    void exportBookings_ShouldHandWindowsToSinkUntilExhausted() {
+        LocalDateTime date = LocalDateTime.of(2024, 5, 1, 9, 30);
+        List<AdminBookingDto> fullWindow = LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> bookingDto(1000L - id, date))
+                .toList();
+        when(bookingRepo.findAdminBookingWindow(any(), any(), any(), any(), eq(Long.MAX_VALUE), eq(Limit.of(500))))
+                .thenReturn(fullWindow);
+        when(bookingRepo.findAdminBookingWindow(any(), any(), any(), eq(date), eq(500L), eq(Limit.of(500))))
+                .thenReturn(List.of(bookingDto(3L, date)));
+
+        List<Integer> windowSizes = new ArrayList<>();
+        adminService.exportBookings(null, null, null, window -> windowSizes.add(window.size()));
+
+        assertEquals(List.of(500, 1), windowSizes);
+    }
+
+    @Test
+    void getBookingAnalytics_ShouldSumDailyRollupsIntoBuckets() {
+        LocalDate monday = LocalDate.of(2024, 5, 6);
+        when(bookingRollupRepo.findByBucketDateBetween(monday, monday.plusDays(13))).thenReturn(List.of(
+                rollup(monday, Booking.BookingStatus.CONFIRMED, "USD", 2, "200.00"),
+                rollup(monday.plusDays(3), Booking.BookingStatus.CANCELLED, "USD", 1, "50.00"),
+                rollup(monday.plusDays(3), Booking.BookingStatus.CONFIRMED, "EUR", 1, "80.00"),
+                rollup(monday.plusDays(8), Booking.BookingStatus.CONFIRMED, "USD", 4, "400.00")));
+
+        List<BookingAnalyticsBucket> weeks = adminService.getBookingAnalytics(
+                TimeGranularity.WEEK, monday, monday.plusDays(13), null);
+
+        assertEquals(3, weeks.size());
+        assertEquals(new BookingAnalyticsBucket(monday, null, null, null, "EUR", 1, new BigDecimal("80.00")), weeks.get(0));
+        assertEquals(new BookingAnalyticsBucket(monday, null, null, null, "USD", 3, new BigDecimal("250.00")), weeks.get(1));
+        assertEquals(new BookingAnalyticsBucket(monday.plusDays(7), null, null, null, "USD", 4, new BigDecimal("400.00")), weeks.get(2));
+
+        when(bookingRollupRepo.findByBucketDateBetween(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31)))
+                .thenReturn(List.of(
+                        rollup(monday, Booking.BookingStatus.CONFIRMED, "USD", 2, "200.00"),
+                        rollup(monday.plusDays(3), Booking.BookingStatus.CANCELLED, "USD", 1, "50.00"),
+                        rollup(monday.plusDays(3), Booking.BookingStatus.CONFIRMED, "EUR", 1, "80.00"),
+                        rollup(monday.plusDays(8), Booking.BookingStatus.CONFIRMED, "USD", 4, "400.00")));
+        List<BookingAnalyticsBucket> byStatus = adminService.getBookingAnalytics(
+                TimeGranularity.MONTH, monday, monday.plusDays(13), List.of("status"));
+        assertEquals(List.of(Booking.BookingStatus.CONFIRMED, Booking.BookingStatus.CANCELLED, Booking.BookingStatus.CONFIRMED),
+                byStatus.stream().map(BookingAnalyticsBucket::status).toList());
+        assertEquals(LocalDate.of(2024, 5, 1), byStatus.get(0).bucketStart());
+
+        assertThrows(IllegalArgumentException.class, () -> adminService.getBookingAnalytics(
+                TimeGranularity.DAY, monday, monday, List.of("password")));
+    }
+
+    @Test
+    void getBookingAnalytics_ShouldWidenTheRangeToWholeBuckets() {
+        // Wednesday to the next Tuesday touches two weeks
+        LocalDate wednesday = LocalDate.of(2024, 5, 8);
+        when(bookingRollupRepo.findByBucketDateBetween(LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 19)))
+                .thenReturn(List.of(
+                        rollup(LocalDate.of(2024, 5, 6), Booking.BookingStatus.CONFIRMED, "USD", 1, "100.00"),
+                        rollup(LocalDate.of(2024, 5, 19), Booking.BookingStatus.CONFIRMED, "USD", 2, "60.00")));
+
+        List<BookingAnalyticsBucket> weeks = adminService.getBookingAnalytics(
+                TimeGranularity.WEEK, wednesday, wednesday.plusDays(6), null);
+
+        assertEquals(List.of(LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 13)),
+                weeks.stream().map(BookingAnalyticsBucket::bucketStart).toList());
+        assertEquals(2, weeks.get(1).bookings());
+
+        // Days are never widened
+        adminService.getBookingAnalytics(TimeGranularity.DAY, wednesday, wednesday, null);
+        verify(bookingRollupRepo).findByBucketDateBetween(wednesday, wednesday);
+    }
+
     @Test
     void deleteBooking_ShouldDeleteBooking_WhenNotConfirmed() {
         // Given
@@ -142,17 +299,16 @@ class AdminServiceImplTest {
     }
 
     @Test
-    void getSystemStatistics_ShouldReturnStats() {
+    void getSystemStatistics_ShouldReturnTrackedStats_WithoutCountingTables() {
         // Given
-        when(userRepo.count()).thenReturn(10L);
-        when(userRepo.countByRole(Role.ADMIN)).thenReturn(2L);
-        when(userRepo.countByRole(Role.USER)).thenReturn(8L);
-        when(bookingRepo.count()).thenReturn(25L);
-        when(itineraryRepo.count()).thenReturn(15L);
-        when(bookingRepo.getBookingStatsByStatus()).thenReturn(Arrays.asList(
-            new Object[]{"PENDING", 5L},
-            new Object[]{"CONFIRMED", 20L}
-        ));
+        Map<String, Object> tracked = new HashMap<>();
+        tracked.put("totalUsers", 10L);
+        tracked.put("adminUsers", 2L);
+        tracked.put("regularUsers", 8L);
+        tracked.put("totalBookings", 25L);
+        tracked.put("totalItineraries", 15L);
+        tracked.put("bookingsByStatus", Map.of("PENDING", 5L, "CONFIRMED", 20L));
+        when(systemStatisticsTracker.getStatistics()).thenReturn(tracked);
 
         // When
         Map<String, Object> stats = adminService.getSystemStatistics();
@@ -163,11 +319,13 @@ class AdminServiceImplTest {
         assertEquals(8L, stats.get("regularUsers"));
         assertEquals(25L, stats.get("totalBookings"));
         assertEquals(15L, stats.get("totalItineraries"));
+        assertNotNull(stats.get("generatedAt"));
         
         @SuppressWarnings("unchecked")
         Map<String, Long> bookingsByStatus = (Map<String, Long>) stats.get("bookingsByStatus");
         assertEquals(5L, bookingsByStatus.get("PENDING"));
         assertEquals(20L, bookingsByStatus.get("CONFIRMED"));
+        verifyNoInteractions(userRepo, bookingRepo, itineraryRepo);
     }
 
     @Test
@@ -202,4 +360,14 @@ class AdminServiceImplTest {
             adminService.validateAdminPermission(999, null);
         });
     }
-}
\ No newline at end of file
+
+    private AdminBookingDto bookingDto(Long id, LocalDateTime bookingDate) {
+        return new AdminBookingDto(id, "REF-" + id, Booking.BookingType.HOTEL, "Amadeus", new BigDecimal("120.00"), "USD",
+                Booking.BookingStatus.CONFIRMED, bookingDate, null, null, null,
+                testUser.getId(), testUser.getFullName(), testUser.getEmail(), 3L, "Trip");
+    }
+
+    private static BookingRollup rollup(LocalDate day, Booking.BookingStatus status, String currency, long count, String amount) {
+        return new BookingRollup(null, day, Booking.BookingType.HOTEL, status, "Amadeus", currency, count, new BigDecimal(amount));
+    }
+}
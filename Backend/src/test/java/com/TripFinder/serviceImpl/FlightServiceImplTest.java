@@ -0,0 +1,286 @@
+package com.TripFinder.serviceImpl;
+
+import com.TripFinder.component.AmadeusClient;
+import com.TripFinder.component.CachedResult;
+import com.TripFinder.component.LastKnownGoodStore;
+import com.TripFinder.component.SearchResultCache;
+import com.TripFinder.config.CacheConfig;
+import com.TripFinder.dto.FlexibleDateSearchResponse;
+import com.TripFinder.dto.FlightResponse;
+import com.TripFinder.dto.FlightSearchRequest;
+import com.TripFinder.dto.SearchResultPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightServiceImplTest {
+
+    private static final LocalDate DEPARTURE = LocalDate.now().plusDays(30);
+
+    @Mock
+    private CacheConfig cacheConfig;
+
+    @Mock
+    private AmadeusClient amadeusClient;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGoodStore;
+
+    @InjectMocks
+    private FlightServiceImpl flightService;
+
+    @Test
+    void searchFlexibleDates_ShouldSearchEveryDayAndReportTheCheapestFare() {
+        // Cheapest fare per departure date; the day after the requested one fails upstream
+        Map<LocalDate, List<Double>> pricesByDay = Map.of(
+                DEPARTURE.minusDays(2), List.of(410.0, 380.0),
+                DEPARTURE.minusDays(1), List.of(350.0),
+                DEPARTURE, List.of(520.0, 300.0, 450.0),
+                DEPARTURE.plusDays(2), List.of());
+        stubOffersByDepartureDate(pricesByDay);
+
+        FlexibleDateSearchResponse response = flightService.searchFlexibleDates(
+                request("JFK", "LAX").flexibleDays(2).returnDate(DEPARTURE.plusDays(7)).build(),
+                PageRequest.of(0, 2)).join();
+
+        verify(searchResultCache, times(5)).getAsync(eq("flight-offers"), anyString(), any());
+        assertEquals(DEPARTURE, response.getSelectedDate());
+
+        List<FlexibleDateSearchResponse.DayPrice> calendar = response.getCalendar();
+        assertEquals(List.of(DEPARTURE.minusDays(2), DEPARTURE.minusDays(1), DEPARTURE, DEPARTURE.plusDays(1), DEPARTURE.plusDays(2)),
+                calendar.stream().map(FlexibleDateSearchResponse.DayPrice::getDepartureDate).toList());
+        assertEquals(DEPARTURE.plusDays(6), calendar.get(1).getReturnDate(), "trip length is kept");
+
+        assertEquals(380.0, calendar.get(0).getCheapestPrice());
+        assertEquals(350.0, calendar.get(1).getCheapestPrice());
+        assertEquals(300.0, calendar.get(2).getCheapestPrice());
+        assertEquals(3, calendar.get(2).getOfferCount());
+
+        assertFalse(calendar.get(3).getAvailable());
+        assertNull(calendar.get(3).getCheapestPrice());
+        assertEquals(0, calendar.get(3).getOfferCount());
+
+        assertTrue(calendar.get(4).getAvailable());
+        assertNull(calendar.get(4).getCheapestPrice());
+
+        // The requested day's offers, sorted and paged
+        Page<FlightResponse> offers = response.getOffers();
+        assertEquals(List.of(300.0, 450.0), offers.getContent().stream().map(FlightResponse::getPrice).toList());
+        assertEquals(3, offers.getTotalElements());
+    }
+
+    @Test
+    void searchFlexibleDates_ShouldApplyClientFiltersToEveryDay() {
+        stubOffersByDepartureDate(Map.of(
+                DEPARTURE.minusDays(1), List.of(900.0, 250.0),
+                DEPARTURE, List.of(700.0, 280.0),
+                DEPARTURE.plusDays(1), List.of(650.0)));
+
+        FlexibleDateSearchResponse response = flightService.searchFlexibleDates(
+                request("JFK", "LAX").flexibleDays(1).maxPrice(600.0).build(), PageRequest.of(0, 10)).join();
+
+        List<FlexibleDateSearchResponse.DayPrice> calendar = response.getCalendar();
+        assertEquals(250.0, calendar.get(0).getCheapestPrice());
+        assertEquals(1, calendar.get(0).getOfferCount());
+        assertNull(calendar.get(2).getCheapestPrice());
+        assertEquals(0, calendar.get(2).getOfferCount());
+        assertEquals(List.of(280.0), response.getOffers().getContent().stream().map(FlightResponse::getPrice).toList());
+    }
+
+    @Test
+    void searchFlexibleDates_ShouldUseTheDefaultWindowAndSkipPastDays() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        stubOffersByDepartureDate(Map.of(
+                LocalDate.now(), List.of(100.0),
+                tomorrow, List.of(100.0),
+                tomorrow.plusDays(1), List.of(100.0),
+                tomorrow.plusDays(2), List.of(100.0),
+                tomorrow.plusDays(3), List.of(100.0)));
+
+        FlexibleDateSearchResponse response = flightService.searchFlexibleDates(
+                request("JFK", "LAX").departureDate(tomorrow).build(), PageRequest.of(0, 10)).join();
+
+        // Default +/-3 days, minus the two that are already in the past
+        assertEquals(List.of(LocalDate.now(), tomorrow, tomorrow.plusDays(1), tomorrow.plusDays(2), tomorrow.plusDays(3)),
+                response.getCalendar().stream().map(FlexibleDateSearchResponse.DayPrice::getDepartureDate).toList());
+    }
+
+    @Test
+    void searchFlights_ShouldMergeEveryAirportPairOfAMetroSearch() {
+        ReflectionTestUtils.setField(flightService, "maxAirportPairs", 9);
+        Instant older = Instant.now().minusSeconds(600);
+        stubOffersByRoute(Map.of(
+                "CDG-JFK", new CachedResult<>(flights("CDG-JFK", List.of(510.0, 320.0, 700.0)), Instant.now(), false, null, true),
+                "CDG-EWR", new CachedResult<>(flights("CDG-EWR", List.of(300.0, 450.0)), older, true, null, true),
+                "CDG-LGA", new CachedResult<>(flights("CDG-LGA", List.of(610.0)), Instant.now(), false, null, false),
+                "ORY-JFK", new CachedResult<>(flights("ORY-JFK", List.of(315.0, 999.0)), Instant.now(), false, null, true)));
+
+        SearchResultPage<FlightResponse> page = (SearchResultPage<FlightResponse>) flightService.searchFlights(
+                request("PAR", "NYC").build(), PageRequest.of(1, 3));
+
+        // 2 x 3 pairs; the two failing ORY pairs are skipped
+        verify(searchResultCache, times(6)).getAsync(eq("flight-offers"), anyString(), any());
+        assertEquals(List.of(450.0, 510.0, 610.0), page.getContent().stream().map(FlightResponse::getPrice).toList());
+        assertEquals(8, page.getTotalElements());
+        assertEquals(older, page.getFetchedAt());
+        assertTrue(page.isStale());
+        assertEquals(SearchResultPage.Source.UPSTREAM, page.getSource());
+        assertTrue(page.isIncomplete());
+    }
+
+    @Test
+    void searchFlights_ShouldReportACachedMetroSearchOnlyWhenEveryPairWasAHit() {
+        ReflectionTestUtils.setField(flightService, "maxAirportPairs", 9);
+        Map<String, CachedResult<FlightResponse>> results = new HashMap<>();
+        for (String origin : List.of("CDG", "ORY")) {
+            for (String destination : List.of("HND", "NRT")) {
+                String route = origin + "-" + destination;
+                results.put(route, new CachedResult<>(flights(route, List.of(800.0)), Instant.now(), false, null, true));
+            }
+        }
+        stubOffersByRoute(results);
+
+        SearchResultPage<FlightResponse> page = (SearchResultPage<FlightResponse>) flightService.searchFlights(
+                request("PAR", "TYO").build(), PageRequest.of(0, 10));
+
+        assertEquals(4, page.getContent().size());
+        assertEquals(SearchResultPage.Source.CACHE, page.getSource());
+        assertFalse(page.isStale());
+        assertFalse(page.isIncomplete());
+    }
+
+    @Test
+    void searchFlights_ShouldCapAirportPairsAndMarkThePageIncomplete() {
+        ReflectionTestUtils.setField(flightService, "maxAirportPairs", 4);
+        Map<String, CachedResult<FlightResponse>> results = new HashMap<>();
+        for (String origin : List.of("LHR", "LGW", "STN", "LTN", "LCY")) {
+            for (String destination : List.of("JFK", "EWR", "LGA")) {
+                String route = origin + "-" + destination;
+                results.put(route, new CachedResult<>(flights(route, List.of(400.0)), Instant.now(), false, null, false));
+            }
+        }
+        stubOffersByRoute(results);
+
+        SearchResultPage<FlightResponse> page = (SearchResultPage<FlightResponse>) flightService.searchFlights(
+                request("LON", "NYC").build(), PageRequest.of(0, 20));
+
+        // Busiest airports first: LHR to all three, then LGW-JFK
+        verify(searchResultCache, times(4)).getAsync(eq("flight-offers"), anyString(), any());
+        assertEquals(List.of("LHR-JFK-0", "LHR-EWR-0", "LHR-LGA-0", "LGW-JFK-0"),
+                page.getContent().stream().map(FlightResponse::getId).toList());
+        assertTrue(page.isIncomplete());
+    }
+
+    @Test
+    void searchFlights_ShouldOrderUnknownDurationsAndPricesLastWhenDescending() {
+        List<FlightResponse> offers = List.of(
+                flight("unknown", "P1M", 200.0),
+                flight("short", "PT2H", 100.0),
+                flight("long", "PT9H", 300.0),
+                flight("unpriced", "PT5H", null));
+        when(searchResultCache.<FlightResponse>get(eq("flight-offers"), anyString(), any()))
+                .thenReturn(new CachedResult<>(offers, Instant.now(), false, null));
+
+        SearchResultPage<FlightResponse> byDuration = (SearchResultPage<FlightResponse>) flightService.searchFlights(
+                request("JFK", "LAX").sortBy("duration").sortOrder("desc").build(), PageRequest.of(0, 2));
+        assertEquals(List.of("long", "unpriced"), byDuration.getContent().stream().map(FlightResponse::getId).toList());
+
+        SearchResultPage<FlightResponse> byPrice = (SearchResultPage<FlightResponse>) flightService.searchFlights(
+                request("JFK", "LAX").sortOrder("desc").build(), PageRequest.of(0, 4));
+        assertEquals(List.of("long", "unknown", "short", "unpriced"),
+                byPrice.getContent().stream().map(FlightResponse::getId).toList());
+    }
+
+    private FlightSearchRequest.FlightSearchRequestBuilder request(String origin, String destination) {
+        return FlightSearchRequest.builder()
+                .origin(origin)
+                .destination(destination)
+                .departureDate(DEPARTURE)
+                .adults(1)
+                .children(0)
+                .infants(0)
+                .travelClass("ECONOMY")
+                .nonStop(false)
+                .currency("USD")
+                .sortBy("price")
+                .sortOrder("asc");
+    }
+
+    /**
+     * Answer each cached search by its departure date; dates without an entry fail upstream
+     */
+    private void stubOffersByDepartureDate(Map<LocalDate, List<Double>> pricesByDay) {
+        when(searchResultCache.getAsync(eq("flight-offers"), anyString(), any())).thenAnswer(invocation -> {
+            LocalDate departureDate = LocalDate.parse(invocation.<String>getArgument(1).split("\\|")[2]);
+            List<Double> prices = pricesByDay.get(departureDate);
+            if (prices == null) {
+                return CompletableFuture.failedFuture(new RuntimeException("Upstream error"));
+            }
+            return CompletableFuture.completedFuture(offers(departureDate.toString(), prices));
+        });
+    }
+
+    /**
+     * Answer each cached search by its origin-destination pair; pairs without an entry fail upstream
+     */
+    private void stubOffersByRoute(Map<String, CachedResult<FlightResponse>> resultsByRoute) {
+        when(searchResultCache.getAsync(eq("flight-offers"), anyString(), any())).thenAnswer(invocation -> {
+            String[] key = invocation.<String>getArgument(1).split("\\|");
+            CachedResult<FlightResponse> results = resultsByRoute.get(key[0] + "-" + key[1]);
+            return results != null
+                    ? CompletableFuture.completedFuture(results)
+                    : CompletableFuture.failedFuture(new RuntimeException("Upstream error"));
+        });
+    }
+
+    private static CachedResult<FlightResponse> offers(String idPrefix, List<Double> prices) {
+        return new CachedResult<>(flights(idPrefix, prices), Instant.now(), false, null);
+    }
+
+    private static FlightResponse flight(String id, String duration, Double price) {
+        return FlightResponse.builder()
+                .id(id)
+                .price(price)
+                .currency("USD")
+                .itineraries(List.of(FlightResponse.Itinerary.builder().duration(duration).segments(List.of()).build()))
+                .build()
+                .computeSortKeys();
+    }
+
+    private static List<FlightResponse> flights(String idPrefix, List<Double> prices) {
+        List<FlightResponse> flights = new ArrayList<>();
+        for (int i = 0; i < prices.size(); i++) {
+            flights.add(FlightResponse.builder()
+                    .id(idPrefix + "-" + i)
+                    .price(prices.get(i))
+                    .currency("USD")
+                    .itineraries(List.of())
+                    .build()
+                    .computeSortKeys());
+        }
+        return flights;
+    }
+}
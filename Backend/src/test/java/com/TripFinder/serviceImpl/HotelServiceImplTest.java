@@ -0,0 +1,289 @@
+package com.TripFinder.serviceImpl;
+
+import com.TripFinder.component.AmadeusClient;
+import com.TripFinder.component.AmadeusRateLimiter;
+import com.TripFinder.component.CachedResult;
+import com.TripFinder.component.HotelOfferBatcher;
+import com.TripFinder.component.LastKnownGoodStore;
+import com.TripFinder.component.SearchResultCache;
+import com.TripFinder.config.CacheConfig;
+import com.TripFinder.dto.HotelResponse;
+import com.TripFinder.dto.HotelSearchRequest;
+import com.TripFinder.dto.SearchResultPage;
+import com.TripFinder.exception.RateLimitExceededException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotelServiceImplTest {
+
+    private static final String BASE_URL = "https://api.test";
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private CacheConfig cacheConfig;
+
+    @Mock
+    private AmadeusClient amadeusClient;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGoodStore;
+
+    @Mock
+    private HotelOfferBatcher hotelOfferBatcher;
+
+    @Mock
+    private AmadeusRateLimiter amadeusRateLimiter;
+
+    @InjectMocks
+    private HotelServiceImpl hotelService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hotelService, "baseUrl", BASE_URL);
+        ReflectionTestUtils.setField(hotelService, "prewarmCityIndex", true);
+        ReflectionTestUtils.setField(hotelService, "offersChunkSize", 50);
+        ReflectionTestUtils.setField(hotelService, "offersConcurrency", 5);
+        ReflectionTestUtils.setField(hotelService, "offersChunkTimeout", Duration.ofSeconds(8));
+        ReflectionTestUtils.setField(hotelService, "offersDeadline", Duration.ofSeconds(12));
+        ReflectionTestUtils.setField(hotelService, "partialOffersEnabled", true);
+    }
+
+    @Test
+    void searchHotels_ShouldReuseTheCityIndexForEveryStay() {
+        List<String> cityHotels = IntStream.range(0, 60).mapToObj(i -> "PAR" + i).toList();
+        stubCityIndex(cityHotels);
+        loadOffersThroughCache();
+        answerOffersForRequestedHotels();
+
+        hotelService.searchHotels(request("PAR").build(), PageRequest.of(0, 10));
+        hotelService.searchHotels(request("PAR").checkInDate(CHECK_IN.plusDays(7)).checkOutDate(CHECK_IN.plusDays(9)).build(),
+                PageRequest.of(0, 10));
+
+        // Both stays are served from one index entry for the city and radius
+        verify(searchResultCache, times(2)).getAsync(eq("hotel-city-index"), eq("PAR|5"), any());
+        verify(amadeusClient, never()).getHotelsByCity(anyString());
+
+        // Offers are requested for the first 50 hotels of the index only
+        ArgumentCaptor<String> offerUrls = ArgumentCaptor.forClass(String.class);
+        verify(amadeusClient, times(2)).getHotelOffers(offerUrls.capture());
+        assertEquals(cityHotels.subList(0, 50), hotelIds(offerUrls.getAllValues().get(0)));
+        assertTrue(offerUrls.getAllValues().get(1).contains("checkInDate=" + CHECK_IN.plusDays(7)));
+    }
+
+    @Test
+    void searchHotels_ShouldLoadTheCityIndexOnAMiss() throws Exception {
+        when(searchResultCache.getAsync(eq("hotel-city-index"), anyString(), any())).thenAnswer(invocation -> {
+            Supplier<CompletableFuture<List<String>>> loader = invocation.getArgument(2);
+            return loader.get().thenApply(ids -> CachedResult.fresh(ids, null));
+        });
+        loadOffersThroughCache();
+        answerOffersForRequestedHotels();
+        when(amadeusClient.getHotelsByCity(anyString())).thenReturn(Mono.just(objectMapper.readTree(
+                "{\"data\":[{\"hotelId\":\"HLPAR001\"},{\"hotelId\":\"\"},{\"name\":\"No ID\"},{\"hotelId\":\"HLPAR002\"}]}")));
+
+        Page<HotelResponse> page = hotelService.searchHotels(request("par").radius("10").build(), PageRequest.of(0, 10));
+
+        verify(searchResultCache).getAsync(eq("hotel-city-index"), eq("PAR|10"), any());
+        verify(amadeusClient).getHotelsByCity(BASE_URL + "/v1/reference-data/locations/hotels/by-city?cityCode=par&radius=10");
+        assertEquals(List.of("HLPAR001", "HLPAR002"), page.getContent().stream().map(HotelResponse::getHotelId).toList());
+    }
+
+    @Test
+    void prewarmCityIndex_ShouldLoadTheIndexForEveryPopularDestination() {
+        when(searchResultCache.getAsync(eq("hotel-city-index"), anyString(), any())).thenAnswer(invocation ->
+                "NYC|5".equals(invocation.getArgument(1))
+                        ? CompletableFuture.failedFuture(new RuntimeException("Upstream error"))
+                        : CompletableFuture.completedFuture(new CachedResult<>(List.of("H1"), Instant.now(), false, null)));
+
+        // A failed destination is only logged
+        assertDoesNotThrow(() -> hotelService.prewarmCityIndex());
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(searchResultCache, times(12)).getAsync(eq("hotel-city-index"), keys.capture(), any());
+        assertEquals(hotelService.getPopularDestinations().stream().map(city -> city + "|5").toList(), keys.getAllValues());
+        verifyNoInteractions(amadeusClient);
+    }
+
+    @Test
+    void prewarmCityIndex_ShouldDoNothing_WhenDisabled() {
+        ReflectionTestUtils.setField(hotelService, "prewarmCityIndex", false);
+
+        hotelService.prewarmCityIndex();
+
+        verifyNoInteractions(searchResultCache, amadeusClient);
+    }
+
+    @Test
+    void searchHotels_ShouldSplitOffersOnlyAsFarAsTheRateBudgetAllows() {
+        ReflectionTestUtils.setField(hotelService, "offersChunkSize", 20);
+        stubCityIndex(IntStream.range(0, 50).mapToObj(i -> "H" + i).toList());
+        loadOffersThroughCache();
+        answerOffersForRequestedHotels();
+
+        // Idle limiter: 50 hotels in 3 balanced chunks of at least 20
+        when(amadeusRateLimiter.availablePermits()).thenReturn(20);
+        Page<HotelResponse> idle = hotelService.searchHotels(request("PAR").build(), PageRequest.of(0, 50));
+
+        ArgumentCaptor<String> offerUrls = ArgumentCaptor.forClass(String.class);
+        verify(amadeusClient, times(3)).getHotelOffers(offerUrls.capture());
+        assertEquals(List.of(17, 17, 16), offerUrls.getAllValues().stream().map(url -> hotelIds(url).size()).toList());
+        assertEquals(50, idle.getTotalElements());
+
+        // Busy limiter: only two spare permits, so one request per search
+        clearInvocations(amadeusClient);
+        when(amadeusRateLimiter.availablePermits()).thenReturn(3);
+        hotelService.searchHotels(request("PAR").build(), PageRequest.of(0, 50));
+
+        verify(amadeusClient).getHotelOffers(offerUrls.capture());
+        assertEquals(50, hotelIds(offerUrls.getValue()).size());
+    }
+
+    @Test
+    void searchHotels_ShouldMarkThePageIncomplete_WhenAChunkIsRateLimited() {
+        ReflectionTestUtils.setField(hotelService, "offersChunkSize", 25);
+        stubCityIndex(IntStream.range(0, 50).mapToObj(i -> "H" + i).toList());
+        loadOffersThroughCache();
+        when(amadeusRateLimiter.availablePermits()).thenReturn(20);
+        when(amadeusClient.getHotelOffers(anyString())).thenAnswer(invocation -> {
+            List<String> hotelIds = hotelIds(invocation.getArgument(0));
+            return hotelIds.contains("H0")
+                    ? Mono.just(offersResponse(hotelIds))
+                    : Mono.error(new RateLimitExceededException("Amadeus rate limit exceeded"));
+        });
+
+        SearchResultPage<HotelResponse> page = (SearchResultPage<HotelResponse>) hotelService.searchHotels(
+                request("PAR").build(), PageRequest.of(0, 50));
+
+        assertEquals(25, page.getTotalElements());
+        assertTrue(page.isIncomplete());
+        assertEquals(SearchResultPage.Source.UPSTREAM, page.getSource());
+        // A partial answer must not replace the last complete one
+        verify(lastKnownGoodStore, never()).save(anyString(), anyString(), anyString(), any(), anyList());
+    }
+
+    @Test
+    void searchHotels_ShouldFallBack_WhenTheOnlyChunkIsRateLimited() {
+        stubCityIndex(IntStream.range(0, 50).mapToObj(i -> "H" + i).toList());
+        loadOffersThroughCache();
+        when(cacheConfig.getApi()).thenReturn(new CacheConfig.Api());
+        when(amadeusRateLimiter.availablePermits()).thenReturn(0);
+        when(amadeusClient.getHotelOffers(anyString()))
+                .thenReturn(Mono.error(new RateLimitExceededException("Amadeus rate limit exceeded")));
+
+        SearchResultPage<HotelResponse> page = (SearchResultPage<HotelResponse>) hotelService.searchHotels(
+                request("PAR").build(), PageRequest.of(0, 10));
+
+        verify(amadeusClient, times(1)).getHotelOffers(anyString());
+        assertEquals(SearchResultPage.Source.SYNTHETIC, page.getSource());
+        assertFalse(page.getContent().isEmpty());
+    }
+
+    private HotelSearchRequest.HotelSearchRequestBuilder request(String cityCode) {
+        return HotelSearchRequest.builder()
+                .cityCode(cityCode)
+                .radius("5")
+                .checkInDate(CHECK_IN)
+                .checkOutDate(CHECK_IN.plusDays(2))
+                .adults(1)
+                .rooms(1)
+                .currency("USD")
+                .lang("EN")
+                .bestRateOnly(true)
+                .sortBy("price")
+                .sortOrder("asc");
+    }
+
+    private void stubCityIndex(List<String> hotelIds) {
+        when(searchResultCache.<String>getAsync(eq("hotel-city-index"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new CachedResult<>(hotelIds, Instant.now(), false, null, true)));
+    }
+
+    /**
+     * Offer searches miss the cache and run their loader; batching passes the hotel IDs straight through
+     */
+    private void loadOffersThroughCache() {
+        when(searchResultCache.get(eq("hotel-offers"), anyString(), any())).thenAnswer(invocation -> {
+            Supplier<CompletableFuture<List<HotelResponse>>> loader = invocation.getArgument(2);
+            List<HotelResponse> loaded;
+            try {
+                loaded = loader.get().join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+            // Like the real cache: incomplete results keep their marker
+            return SearchResultCache.isIncomplete(loaded)
+                    ? new CachedResult<>(loaded, Instant.now(), false, null)
+                    : CachedResult.fresh(loaded, null);
+        });
+        when(hotelOfferBatcher.fetch(anyString(), anyList(), any())).thenAnswer(invocation -> {
+            Function<List<String>, Mono<List<HotelResponse>>> upstream = invocation.getArgument(2);
+            return upstream.apply(invocation.getArgument(1));
+        });
+    }
+
+    /**
+     * Answer every offers request with one priced offer per requested hotel
+     */
+    private void answerOffersForRequestedHotels() {
+        when(amadeusClient.getHotelOffers(anyString())).thenAnswer(invocation ->
+                Mono.just(offersResponse(hotelIds(invocation.getArgument(0)))));
+    }
+
+    private JsonNode offersResponse(List<String> hotelIds) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode data = response.putArray("data");
+        for (int i = 0; i < hotelIds.size(); i++) {
+            ObjectNode hotelOffer = data.addObject();
+            hotelOffer.putObject("hotel").put("hotelId", hotelIds.get(i)).put("name", "Hotel " + hotelIds.get(i));
+            ObjectNode offer = hotelOffer.putArray("offers").addObject();
+            offer.put("id", "offer-" + hotelIds.get(i));
+            offer.put("checkInDate", CHECK_IN.toString());
+            offer.put("checkOutDate", CHECK_IN.plusDays(2).toString());
+            offer.putObject("price").put("currency", "USD").put("total", String.valueOf(100 + i));
+        }
+        return response;
+    }
+
+    private static List<String> hotelIds(String offersUrl) {
+        String ids = offersUrl.substring(offersUrl.indexOf("hotelIds=") + "hotelIds=".length());
+        return new ArrayList<>(Arrays.asList(ids.substring(0, ids.indexOf('&')).split(",")));
+    }
+}
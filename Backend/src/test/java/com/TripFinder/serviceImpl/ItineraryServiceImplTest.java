@@ -0,0 +1,121 @@
+package com.TripFinder.serviceImpl;
+
+import com.TripFinder.component.ItineraryItemRebalancer;
+import com.TripFinder.dto.ItineraryItemDto;
+import com.TripFinder.entity.Itinerary;
+import com.TripFinder.entity.ItineraryItem;
+import com.TripFinder.repository.ItineraryItemRepo;
+import com.TripFinder.repository.ItineraryRepo;
+import com.TripFinder.repository.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItineraryServiceImplTest {
+
+    private static final Long ITINERARY_ID = 7L;
+
+    @Mock
+    private ItineraryRepo itineraryRepo;
+
+    @Mock
+    private UserRepo userRepo;
+
+    @Mock
+    private ItineraryItemRepo itineraryItemRepo;
+
+    @Mock
+    private ItineraryItemRebalancer itineraryItemRebalancer;
+
+    @InjectMocks
+    private ItineraryServiceImpl itineraryService;
+
+    private List<ItineraryItem> items;
+
+    @BeforeEach
+    void setUp() {
+        items = new ArrayList<>(List.of(item(1L, 1024), item(2L, 2048), item(3L, 3072), item(4L, 4096)));
+        when(itineraryRepo.findByIdForUpdate(ITINERARY_ID)).thenReturn(Optional.of(new Itinerary()));
+        when(itineraryItemRepo.findByItineraryIdOrderByPosition(ITINERARY_ID)).thenReturn(items);
+    }
+
+    @Test
+    void moveItemToPosition_ShouldUpdateOnlyTheMovedItem() {
+        when(itineraryItemRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItineraryItem moved = itineraryService.moveItemToPosition(ITINERARY_ID, 4L, 1);
+
+        assertEquals(1536, moved.getPosition());
+        verify(itineraryItemRepo).save(moved);
+        assertEquals(List.of(1024, 2048, 3072), items.stream().filter(item -> item.getId() != 4L).map(ItineraryItem::getPosition).toList());
+        verifyNoInteractions(itineraryItemRebalancer);
+    }
+
+    @Test
+    void moveItemToPosition_ShouldRespaceInline_WhenTheGapIsUsedUp() {
+        items.get(1).setPosition(1025);
+        when(itineraryItemRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> {
+            List<ItineraryItem> ordered = invocation.getArgument(0);
+            for (int i = 0; i < ordered.size(); i++) {
+                ordered.get(i).setPosition(1024 * (i + 1));
+            }
+            return ordered.size();
+        }).when(itineraryItemRebalancer).respace(any());
+
+        ItineraryItem moved = itineraryService.moveItemToPosition(ITINERARY_ID, 4L, 1);
+
+        assertEquals(1536, moved.getPosition());
+    }
+
+    @Test
+    void addItemToItinerary_ShouldAppendWithoutTouchingOtherItems() {
+        when(itineraryRepo.getReferenceById(ITINERARY_ID)).thenReturn(new Itinerary());
+        when(itineraryItemRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItineraryItem added = itineraryService.addItemToItinerary(ItineraryItemDto.builder()
+                .itineraryId(ITINERARY_ID).position(99).type("hotel").provider("amadeus").title("Hotel").build());
+
+        assertEquals(4096 + 1024, added.getPosition());
+        assertEquals("Hotel", added.getTitle());
+        verify(itineraryItemRepo, times(1)).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reorderItineraryItems_ShouldSaveOnlyItemsOutOfOrder() {
+        List<ItineraryItem> ordered = itineraryService.reorderItineraryItems(ITINERARY_ID, List.of(
+                Map.of("itemId", 3, "position", 0)));
+
+        assertEquals(List.of(3L, 1L, 2L, 4L), ordered.stream().map(ItineraryItem::getId).toList());
+        ArgumentCaptor<List<ItineraryItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(itineraryItemRepo).saveAll(saved.capture());
+        assertEquals(List.of(3L), saved.getValue().stream().map(ItineraryItem::getId).toList());
+        assertTrue(ordered.get(0).getPosition() < ordered.get(1).getPosition());
+    }
+
+    @Test
+    void reorderItineraryItems_ShouldRejectItemsOfOtherItineraries() {
+        assertThrows(RuntimeException.class, () -> itineraryService.reorderItineraryItems(ITINERARY_ID, List.of(
+                Map.of("itemId", 99, "position", 0))));
+        verify(itineraryItemRepo, never()).saveAll(any());
+    }
+
+    private static ItineraryItem item(Long id, int position) {
+        return ItineraryItem.builder().id(id).position(position).type("activity").provider("local").title("Item " + id).build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.TripFinder.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GapPositionsTest {
+
+    @Test
+    void between_ShouldUseGapsAndListEnds() {
+        assertEquals(GapPositions.GAP, GapPositions.between(null, null));
+        assertEquals(2048 + GapPositions.GAP, GapPositions.between(2048, null));
+        assertEquals(1024 - GapPositions.GAP, GapPositions.between(null, 1024));
+        assertEquals(1536, GapPositions.between(1024, 2048));
+        assertEquals(-1, GapPositions.between(-2, 0));
+
+        assertNull(GapPositions.between(5, 6));
+        assertNull(GapPositions.between(Integer.MAX_VALUE - 10, null));
+    }
+
+    @Test
+    void isCrowded_ShouldFlagCloseNeighbours() {
+        assertFalse(GapPositions.isCrowded(1024, 1536, 2048));
+        assertTrue(GapPositions.isCrowded(1024, 1027, 2048));
+        assertTrue(GapPositions.isCrowded(null, 2045, 2048));
+        assertFalse(GapPositions.isCrowded(null, 0, null));
+    }
+
+    @Test
+    void reassign_ShouldOnlyMoveItemsOutOfOrder() {
+        // The item at 3072 was dragged to the front
+        int[] positions = GapPositions.reassign(new int[]{3072, 1024, 2048, 4096});
+
+        assertArrayEquals(new int[]{0, 1024, 2048, 4096}, positions);
+    }
+
+    @Test
+    void reassign_ShouldSpreadRunsBetweenKeptNeighbours() {
+        // 1024 and 5120 stay; the other three are reversed between them
+        int[] positions = GapPositions.reassign(new int[]{1024, 4096, 3072, 2048, 5120});
+
+        assertEquals(1024, positions[0]);
+        assertEquals(5120, positions[4]);
+        for (int i = 1; i < positions.length; i++) {
+            assertTrue(positions[i - 1] < positions[i]);
+        }
+        // One of the reversed items is kept, two are moved
+        int unchanged = 0;
+        int[] before = {1024, 4096, 3072, 2048, 5120};
+        for (int i = 0; i < before.length; i++) {
+            unchanged += before[i] == positions[i] ? 1 : 0;
+        }
+        assertEquals(3, unchanged);
+    }
+
+    @Test
+    void reassign_ShouldAskForRespacingWhenGapsAreUsedUp() {
+        assertNull(GapPositions.reassign(new int[]{1, 3, 2, 4}));
+        assertArrayEquals(new int[]{}, GapPositions.reassign(new int[]{}));
+    }
+
+    @Test
+    void spaced_ShouldSpreadItemsGapApart() {
+        assertArrayEquals(new int[]{1024, 2048, 3072}, GapPositions.spaced(3));
+    }
+}
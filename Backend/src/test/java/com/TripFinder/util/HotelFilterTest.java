@@ -0,0 +1,77 @@
+package com.TripFinder.util;
+
+import com.TripFinder.dto.HotelResponse;
+import com.TripFinder.dto.HotelSearchRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelFilterTest {
+
+    @Test
+    void matches_ShouldAcceptEverything_WithoutFilters() {
+        HotelFilter filter = HotelFilter.compile(HotelSearchRequest.builder().build());
+
+        assertTrue(filter.matches(hotel(4, List.of("SPA"), 120.0)));
+        assertTrue(filter.matches(hotel(null, null)));
+    }
+
+    @Test
+    void matches_ShouldFilterByRating() {
+        HotelFilter filter = HotelFilter.compile(HotelSearchRequest.builder().ratings(List.of(4, 5)).build());
+
+        assertTrue(filter.matches(hotel(4, List.of(), 100.0)));
+        assertFalse(filter.matches(hotel(3, List.of(), 100.0)));
+        assertFalse(filter.matches(hotel(null, List.of())));
+    }
+
+    @Test
+    void matches_ShouldFilterByLowestOfferPrice() {
+        HotelFilter filter = HotelFilter.compile(HotelSearchRequest.builder().priceMin(100.0).priceMax(200.0).build());
+
+        HotelResponse inRange = hotel(3, List.of(), 250.0, 150.0);
+        assertEquals(150.0, inRange.getMinOfferPrice());
+        assertTrue(filter.matches(inRange));
+
+        assertFalse(filter.matches(hotel(3, List.of(), 90.0, 150.0)));
+        assertFalse(filter.matches(hotel(3, List.of(), 210.0)));
+        // Hotels without priced offers are not filtered by price
+        assertTrue(filter.matches(hotel(3, List.of())));
+    }
+
+    @Test
+    void matches_ShouldRequireAnyRequestedAmenity_CaseInsensitively() {
+        HotelResponse spa = hotel(4, List.of("SPA", "WIFI"), 100.0);
+        HotelResponse pool = hotel(4, List.of("swimming_pool"), 100.0);
+        HotelResponse none = hotel(4, null, 100.0);
+
+        HotelFilter filter = HotelFilter.compile(HotelSearchRequest.builder()
+                .amenities(List.of("spa", "SWIMMING_POOL")).build());
+        assertTrue(filter.matches(spa));
+        assertTrue(filter.matches(pool));
+        assertFalse(filter.matches(none));
+
+        HotelFilter unknown = HotelFilter.compile(HotelSearchRequest.builder()
+                .amenities(List.of("NO_SUCH_AMENITY")).build());
+        assertFalse(unknown.matches(spa));
+    }
+
+    private static HotelResponse hotel(Integer rating, List<String> amenities, Double... prices) {
+        List<HotelResponse.RoomOffer> offers = Arrays.stream(prices)
+                .map(total -> HotelResponse.RoomOffer.builder()
+                        .price(HotelResponse.Price.builder().total(total).build())
+                        .build())
+                .toList();
+
+        return HotelResponse.builder()
+                .hotelId("H" + rating)
+                .rating(rating)
+                .amenities(amenities)
+                .offers(offers)
+                .build()
+                .computeFilterKeys();
+    }
+}
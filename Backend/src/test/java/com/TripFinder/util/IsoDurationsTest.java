@@ -0,0 +1,25 @@
+package com.TripFinder.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsoDurationsTest {
+
+    @Test
+    void toMinutes_ShouldParseDayHourMinuteDurations() {
+        assertEquals(450, IsoDurations.toMinutes("PT7H30M"));
+        assertEquals(45, IsoDurations.toMinutes("PT45M"));
+        assertEquals(1560, IsoDurations.toMinutes("P1DT2H"));
+        assertEquals(120, IsoDurations.toMinutes("PT2H0M30S"));
+    }
+
+    @Test
+    void toMinutes_ShouldReturnUnknown_ForMissingOrInvalidDurations() {
+        assertEquals(IsoDurations.UNKNOWN, IsoDurations.toMinutes(null));
+        assertEquals(IsoDurations.UNKNOWN, IsoDurations.toMinutes(""));
+        assertEquals(IsoDurations.UNKNOWN, IsoDurations.toMinutes("P1M"));
+        assertEquals(IsoDurations.UNKNOWN, IsoDurations.toMinutes("PT7H30"));
+        assertEquals(IsoDurations.UNKNOWN, IsoDurations.toMinutes("7H30M"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.TripFinder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KWayMergeTest {
+
+    @Test
+    void merge_ShouldMatchSortedUnion_ForEveryPage() {
+        Random random = new Random(42);
+        List<List<Integer>> sortedLists = new ArrayList<>();
+        List<Integer> union = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            List<Integer> list = random.ints(30 + i * 7, 0, 500).sorted().boxed().collect(Collectors.toList());
+            sortedLists.add(list);
+            union.addAll(list);
+        }
+        union.sort(Comparator.naturalOrder());
+
+        for (int offset = 0; offset < union.size(); offset += 10) {
+            List<Integer> page = KWayMerge.merge(sortedLists, Comparator.naturalOrder(), offset, 10);
+            assertEquals(union.subList(offset, Math.min(offset + 10, union.size())), page);
+        }
+    }
+
+    @Test
+    void merge_ShouldBreakTiesByListOrder() {
+        List<List<String>> sortedLists = List.of(List.of("a1", "b1"), List.of("a2", "b2"));
+        Comparator<String> byLetter = Comparator.comparing(value -> value.charAt(0));
+
+        assertEquals(List.of("a1", "a2", "b1", "b2"), KWayMerge.merge(sortedLists, byLetter, 0, 10));
+    }
+
+    @Test
+    void merge_ShouldReturnEmpty_WhenOffsetBeyondUnion() {
+        assertTrue(KWayMerge.merge(List.of(List.of(1, 2), List.<Integer>of()), Comparator.naturalOrder(), 5, 10).isEmpty());
+    }
+}
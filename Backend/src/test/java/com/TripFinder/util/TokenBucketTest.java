@@ -0,0 +1,59 @@
+package com.TripFinder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReject() {
+        TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(), "permit " + i + " should be within the burst");
+        }
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillContinuously() {
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        // One permit every 100ms at 10 requests per second
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void reserve_ShouldReturnWait_WhenPermitAvailableWithinBudget() {
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+        bucket.tryAcquire();
+
+        long budget = TimeUnit.MILLISECONDS.toNanos(150);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.reserve(budget));
+
+        // Next permit would need 200ms, which exceeds the budget
+        assertEquals(-1, bucket.reserve(budget));
+    }
+
+    @Test
+    void availablePermits_ShouldNeverExceedBurstCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(3, bucket.availablePermits());
+
+        bucket.tryAcquire();
+        assertEquals(2, bucket.availablePermits());
+    }
+}
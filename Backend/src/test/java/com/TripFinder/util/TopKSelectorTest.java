@@ -0,0 +1,120 @@
+package com.TripFinder.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    private static final int OFFER_COUNT = 250;
+
+    @Test
+    void select_ShouldMatchStableSort_ForShallowAndDeepPages() {
+        Random random = new Random(7);
+        List<Integer> items = IntStream.range(0, OFFER_COUNT).boxed().collect(Collectors.toList());
+        // Few distinct values so ties on both keys are common
+        double[] primary = random.ints(OFFER_COUNT, 0, 40).asDoubleStream().toArray();
+        double[] secondary = random.ints(OFFER_COUNT, 0, 5).asDoubleStream().toArray();
+
+        for (boolean descending : new boolean[] {false, true}) {
+            Comparator<Integer> comparator = Comparator.<Integer>comparingDouble(i -> primary[i])
+                    .thenComparingDouble(i -> secondary[i]);
+            if (descending) {
+                comparator = comparator.reversed();
+            }
+            List<Integer> expected = new ArrayList<>(items);
+            expected.sort(comparator);
+
+            for (int offset = 0; offset < OFFER_COUNT; offset += 20) {
+                List<Integer> page = TopKSelector.select(items, primary, secondary, descending, offset, 20);
+                assertEquals(expected.subList(offset, Math.min(offset + 20, OFFER_COUNT)), page,
+                        "descending=" + descending + ", offset=" + offset);
+            }
+        }
+    }
+
+    @Test
+    void select_ShouldIgnoreMissingSecondaryKeys() {
+        List<String> items = List.of("c", "a", "b", "a2");
+        double[] keys = {3, 1, 2, 1};
+
+        assertEquals(List.of("a", "a2"), TopKSelector.select(items, keys, null, false, 0, 2));
+        assertEquals(List.of("c", "b"), TopKSelector.select(items, keys, null, true, 0, 2));
+    }
+
+    @Test
+    void select_ShouldOrderMissingKeysLastInBothDirections() {
+        List<String> items = List.of("none", "low", "high", "none2", "mid");
+        double[] keys = {TopKSelector.MISSING, 100, 300, TopKSelector.MISSING, 200};
+        double[] secondary = {1, 1, 1, 1, 1};
+
+        assertEquals(List.of("low", "mid", "high", "none", "none2"), TopKSelector.select(items, keys, null, false, 0, 5));
+        assertEquals(List.of("high", "mid", "low", "none", "none2"), TopKSelector.select(items, keys, null, true, 0, 5));
+        // Heap path for a shallow page
+        assertEquals(List.of("high"), TopKSelector.select(items, keys, secondary, true, 0, 1));
+        assertTrue(TopKSelector.compareKeys(TopKSelector.MISSING, 1, true) > 0);
+        assertTrue(TopKSelector.compareKeys(1, TopKSelector.MISSING, false) < 0);
+    }
+
+    @Test
+    void select_ShouldReturnEmpty_WhenOffsetBeyondList() {
+        assertTrue(TopKSelector.select(List.of(1, 2), new double[] {1, 2}, null, false, 5, 10).isEmpty());
+        assertTrue(TopKSelector.select(List.of(1, 2), new double[] {1, 2}, null, false, 0, 0).isEmpty());
+    }
+
+    /**
+     * Rough comparison against the previous full comparator sort of a 250-offer search, for the
+     * first and second page; prints timings, does not assert on them. Opt-in: mvn test -Pbenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmark_FirstPagesOf250Offers() {
+        Random random = new Random(11);
+        List<double[]> offers = new ArrayList<>();
+        for (int i = 0; i < OFFER_COUNT; i++) {
+            offers.add(new double[] {random.nextInt(1440), 50 + random.nextDouble() * 950});
+        }
+        Comparator<double[]> comparator = Comparator.<double[]>comparingDouble(offer -> offer[0])
+                .thenComparingDouble(offer -> offer[1]);
+
+        int iterations = 20_000;
+        int pageSize = 20;
+        long sink = 0;
+        for (int page = 0; page < 2; page++) {
+            for (int round = 0; round < 2; round++) { // first round is warm-up
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    List<double[]> sorted = offers.stream().sorted(comparator).collect(Collectors.toList());
+                    sink += sorted.subList(page * pageSize, (page + 1) * pageSize).size();
+                }
+                long fullSortNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    double[] primary = new double[OFFER_COUNT];
+                    double[] secondary = new double[OFFER_COUNT];
+                    for (int j = 0; j < OFFER_COUNT; j++) {
+                        primary[j] = offers.get(j)[0];
+                        secondary[j] = offers.get(j)[1];
+                    }
+                    sink += TopKSelector.select(offers, primary, secondary, false, page * pageSize, pageSize).size();
+                }
+                long selectNanos = System.nanoTime() - start;
+
+                if (round == 1) {
+                    System.out.printf("Page %d of %d offers: full sort %.1f us/op, top-k select %.1f us/op%n",
+                            page, OFFER_COUNT, fullSortNanos / 1000.0 / iterations, selectNanos / 1000.0 / iterations);
+                }
+            }
+        }
+        assertTrue(sink > 0);
+    }
+}